@@ -52,23 +52,35 @@ import hudson.model.Action;
 import hudson.model.Item;
 import hudson.model.TaskListener;
 import hudson.plugins.git.GitSCM;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
 import hudson.security.AccessControlled;
+import hudson.util.DaemonThreadFactory;
 import hudson.util.FormFillFailure;
 import hudson.util.FormValidation;
 import hudson.util.ListBoxModel;
+import hudson.util.NamingThreadFactory;
 import java.io.IOException;
 import java.io.ObjectStreamException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import jenkins.authentication.tokens.api.AuthenticationTokens;
 import jenkins.model.Jenkins;
 import jenkins.plugins.git.traits.GitBrowserSCMSourceTrait;
 import jenkins.scm.api.SCMNavigator;
@@ -105,6 +117,7 @@ import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
 import org.kohsuke.stapler.interceptor.RequirePOST;
+import org.springframework.security.core.Authentication;
 
 import static com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketApiUtils.getFromBitbucket;
 
@@ -112,6 +125,15 @@ public class BitbucketSCMNavigator extends SCMNavigator {
 
     private static final Logger LOGGER = Logger.getLogger(BitbucketSCMSource.class.getName());
 
+    /**
+     * The maximum number of repositories evaluated at the same time, whatever
+     * the navigators ask.
+     */
+    private static final int MAX_REPOSITORY_THREADS = Integer.getInteger(
+            BitbucketSCMNavigator.class.getName() + ".maxRepositoryThreads", 16);
+
+    private static final ExecutorService repositoryExecutor = repositoryExecutor();
+
     @NonNull
     private String serverUrl;
     @CheckForNull
@@ -513,13 +535,12 @@ public class BitbucketSCMNavigator extends SCMNavigator {
             listener.getLogger()
                     .format("Connecting to %s using %s%n", serverUrl, CredentialsNameProvider.name(credentials));
         }
-        try (final BitbucketSCMNavigatorRequest request = new BitbucketSCMNavigatorContext()
-                .withTraits(traits)
-                .newRequest(this, observer)) {
+        BitbucketSCMNavigatorContext context = new BitbucketSCMNavigatorContext().withTraits(traits);
+        try (final BitbucketSCMNavigatorRequest request = context.newRequest(this, observer)) {
             SourceFactory sourceFactory = new SourceFactory(request);
             WitnessImpl witness = new WitnessImpl(request, listener);
 
-            BitbucketAuthenticator authenticator = AuthenticationTokens.convert(BitbucketAuthenticator.authenticationContext(serverUrl), credentials);
+            BitbucketAuthenticator authenticator = BitbucketCredentials.lookupAuthenticator(serverUrl, observer.getContext(), credentialsId);
 
             BitbucketApi bitbucket = BitbucketApiFactory.newInstance(serverUrl, authenticator, repoOwner, projectKey, null);
             BitbucketTeam team = bitbucket.getTeam();
@@ -532,17 +553,109 @@ public class BitbucketSCMNavigator extends SCMNavigator {
                 listener.getLogger().format("Looking up repositories of user %s%n", repoOwner);
                 request.withRepositories(bitbucket.getRepositories(UserRoleInRepository.ADMIN));
             }
-            for (BitbucketRepository repo : request.repositories()) {
-                if (request.process(repo.getRepositoryName(), sourceFactory, null, witness)) {
+            if (context.repositoryThreads() > 1) {
+                processConcurrently(request, sourceFactory, witness, listener, context.repositoryThreads());
+            } else {
+                for (BitbucketRepository repo : request.repositories()) {
+                    if (request.process(repo.getRepositoryName(), sourceFactory, null, witness)) {
+                        listener.getLogger().format(
+                                "%d repositories were processed (query completed)%n", witness.getCount()
+                        );
+                    }
+                }
+            }
+            listener.getLogger().format("%d repositories were processed%n", witness.getCount());
+        }
+    }
+
+    /**
+     * Evaluates up to the given number of repositories at the same time. The
+     * results are collected in the order of the repositories, so the witness
+     * sees them as if they were processed one after the other.
+     */
+    private void processConcurrently(BitbucketSCMNavigatorRequest request,
+                                     SourceFactory sourceFactory,
+                                     WitnessImpl witness,
+                                     TaskListener listener,
+                                     int threads) throws IOException, InterruptedException {
+        List<String> names = new ArrayList<>();
+        for (BitbucketRepository repo : request.repositories()) {
+            names.add(repo.getRepositoryName());
+        }
+        int window = Math.min(threads, MAX_REPOSITORY_THREADS);
+        listener.getLogger().format("Processing %d repositories, %d at a time%n", names.size(), window);
+        // worker threads do not inherit the authentication of the scan
+        Authentication authentication = Jenkins.getAuthentication2();
+        Deque<Future<ProcessedRepository>> pending = new ArrayDeque<>();
+        long start = System.nanoTime();
+        long busy = 0;
+        int next = 0;
+        boolean completed = false;
+        boolean success = false;
+        try {
+            while (!pending.isEmpty() || !completed && next < names.size()) {
+                while (!completed && next < names.size() && pending.size() < window) {
+                    String name = names.get(next++);
+                    pending.add(repositoryExecutor.submit(() -> {
+                        try (ACLContext ignored = ACL.as2(authentication)) {
+                            RecordingWitness recorder = new RecordingWitness();
+                            long begin = System.nanoTime();
+                            boolean done = request.process(name, sourceFactory, null, recorder);
+                            return new ProcessedRepository(name, recorder, done, System.nanoTime() - begin);
+                        }
+                    }));
+                }
+                ProcessedRepository processed = await(pending.remove());
+                processed.witness.replay(witness);
+                busy += processed.nanos;
+                listener.getLogger().format("Evaluated %s in %d ms%n",
+                        processed.name, TimeUnit.NANOSECONDS.toMillis(processed.nanos));
+                if (processed.completed && !completed) {
+                    completed = true;
                     listener.getLogger().format(
                             "%d repositories were processed (query completed)%n", witness.getCount()
                     );
                 }
             }
-            listener.getLogger().format("%d repositories were processed%n", witness.getCount());
+            success = true;
+        } finally {
+            if (!success) {
+                for (Future<ProcessedRepository> future : pending) {
+                    future.cancel(true);
+                }
+            }
+        }
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        listener.getLogger().format("Evaluated repositories in %d ms, %.1f times faster than one at a time%n",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), (double) busy / elapsed);
+    }
+
+    private static ProcessedRepository await(Future<ProcessedRepository> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioe) {
+                throw ioe;
+            } else if (cause instanceof InterruptedException ie) {
+                throw ie;
+            } else if (cause instanceof RuntimeException re) {
+                throw re;
+            } else if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(cause);
         }
     }
 
+    private static ExecutorService repositoryExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_REPOSITORY_THREADS, MAX_REPOSITORY_THREADS,
+                60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new NamingThreadFactory(new DaemonThreadFactory(), "BitbucketSCMNavigator.repositories"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     @NonNull
     @Override
     public List<Action> retrieveActions(@NonNull SCMNavigatorOwner owner,
@@ -568,7 +681,7 @@ public class BitbucketSCMNavigator extends SCMNavigator {
                     CredentialsNameProvider.name(credentials));
         }
 
-        BitbucketAuthenticator authenticator = AuthenticationTokens.convert(BitbucketAuthenticator.authenticationContext(serverUrl), credentials);
+        BitbucketAuthenticator authenticator = BitbucketCredentials.lookupAuthenticator(serverUrl, owner, credentialsId);
 
         try (BitbucketApi client = BitbucketApiFactory.newInstance(serverUrl, authenticator, repoOwner, projectKey, null)) {
             BitbucketTeam team = client.getTeam();
@@ -829,6 +942,27 @@ public class BitbucketSCMNavigator extends SCMNavigator {
         }
     }
 
+    /**
+     * Keeps what a worker thread would have recorded, to be replayed in order.
+     */
+    private static class RecordingWitness implements SCMNavigatorRequest.Witness {
+        private final List<Map.Entry<String, Boolean>> records = new ArrayList<>();
+
+        @Override
+        public void record(@NonNull String name, boolean isMatch) {
+            records.add(Map.entry(name, isMatch));
+        }
+
+        void replay(SCMNavigatorRequest.Witness witness) {
+            for (Map.Entry<String, Boolean> entry : records) {
+                witness.record(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private record ProcessedRepository(String name, RecordingWitness witness, boolean completed, long nanos) {
+    }
+
     private static class WitnessImpl implements SCMNavigatorRequest.Witness {
         private int count;
 
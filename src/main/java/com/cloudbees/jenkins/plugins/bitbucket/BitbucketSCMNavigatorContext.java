@@ -35,6 +35,32 @@ import jenkins.scm.api.trait.SCMNavigatorContext;
  */
 public class BitbucketSCMNavigatorContext
         extends SCMNavigatorContext<BitbucketSCMNavigatorContext, BitbucketSCMNavigatorRequest> {
+    /**
+     * The number of repositories evaluated at the same time.
+     */
+    private int repositoryThreads = 1;
+
+    /**
+     * Returns the number of repositories evaluated at the same time.
+     *
+     * @return the number of repositories evaluated at the same time, {@code 1} to evaluate them one at a time.
+     */
+    public final int repositoryThreads() {
+        return repositoryThreads;
+    }
+
+    /**
+     * Sets the number of repositories evaluated at the same time.
+     *
+     * @param threads the number of repositories evaluated at the same time.
+     * @return {@code this} for method chaining.
+     */
+    @NonNull
+    public final BitbucketSCMNavigatorContext withRepositoryThreads(int threads) {
+        repositoryThreads = Math.max(1, threads);
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      */
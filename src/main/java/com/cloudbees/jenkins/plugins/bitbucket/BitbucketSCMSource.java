@@ -49,7 +49,9 @@ import com.cloudbees.jenkins.plugins.bitbucket.impl.extension.GitClientAuthentic
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketApiUtils;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketApiUtils.BitbucketSupplier;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketCredentials;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.CommitPathCache;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.MirrorListSupplier;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.PagedIterable;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.URLUtils;
 import com.cloudbees.jenkins.plugins.bitbucket.server.BitbucketServerWebhookImplementation;
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.BitbucketServerAPIClient;
@@ -73,18 +75,29 @@ import hudson.model.Item;
 import hudson.model.TaskListener;
 import hudson.plugins.git.GitSCM;
 import hudson.scm.SCM;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
 import hudson.security.AccessControlled;
+import hudson.util.DaemonThreadFactory;
 import hudson.util.FormFillFailure;
 import hudson.util.FormValidation;
 import hudson.util.ListBoxModel;
+import hudson.util.NamingThreadFactory;
+import hudson.util.StreamTaskListener;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectStreamException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -92,9 +105,14 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import jenkins.authentication.tokens.api.AuthenticationTokens;
 import jenkins.model.Jenkins;
 import jenkins.plugins.git.GitTagSCMHead;
 import jenkins.plugins.git.traits.GitBrowserSCMSourceTrait;
@@ -136,6 +154,7 @@ import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
 import org.kohsuke.stapler.interceptor.RequirePOST;
+import org.springframework.security.core.Authentication;
 
 import static com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketApiUtils.getFromBitbucket;
 
@@ -158,6 +177,15 @@ public class BitbucketSCMSource extends SCMSource {
             Math.max(
                 0, Integer.getInteger(BitbucketSCMSource.class.getName() + ".eventDelaySeconds", 5)));
 
+    /**
+     * The maximum number of pull requests evaluated at the same time, whatever
+     * the sources ask.
+     */
+    private static final int MAX_PULL_REQUEST_THREADS = Integer.getInteger(
+            BitbucketSCMSource.class.getName() + ".maxPullRequestThreads", 16);
+
+    private static final ExecutorService pullRequestExecutor = pullRequestExecutor();
+
     /**
      * Bitbucket URL.
      */
@@ -196,6 +224,13 @@ public class BitbucketSCMSource extends SCMSource {
     @NonNull
     private List<SCMSourceTrait> traits;
 
+    /**
+     * The context of the traits, shared by the event handlers, the webhook
+     * registration and the build notifications that only read it.
+     */
+    @CheckForNull
+    private transient volatile CompiledTraits compiledTraits;
+
     /**
      * Credentials used to clone the repository/repositories.
      */
@@ -390,6 +425,27 @@ public class BitbucketSCMSource extends SCMSource {
         this.traits = new ArrayList<>(Util.fixNull(traits));
     }
 
+    /**
+     * Returns the context decorated by the traits of this source, built once
+     * until the traits change. The context is shared and must not be
+     * configured any further, build a new one for that.
+     *
+     * @return the context of the traits of this source.
+     */
+    @NonNull
+    @Restricted(NoExternalUse.class)
+    public BitbucketSCMSourceContext getTraitsContext() {
+        CompiledTraits compiled = compiledTraits;
+        // the deprecated setters still change the traits in place
+        if (compiled == null || !compiled.traits.equals(traits)) {
+            List<SCMSourceTrait> snapshot = new ArrayList<>(traits);
+            compiled = new CompiledTraits(snapshot, new BitbucketSCMSourceContext(null, SCMHeadObserver.none())
+                    .withTraits(snapshot));
+            compiledTraits = compiled;
+        }
+        return compiled.context;
+    }
+
     @Deprecated
     @Restricted(NoExternalUse.class)
     @RestrictedSince("2.2.0")
@@ -600,8 +656,14 @@ public class BitbucketSCMSource extends SCMSource {
                             if (event instanceof HasPullRequests hasPrEvent) {
                                 return getBitbucketPullRequestsFromEvent(hasPrEvent, listener);
                             }
+                            Set<String> pullRequestNumbers = request.getRequestedPullRequestNumbers();
+                            Set<String> branchNames = request.getRequestedOriginBranchNames();
+                            if (pullRequestNumbers != null && branchNames != null) {
+                                // pull requests of the requested branches are needed by the branch discovery filters
+                                return (Iterable<BitbucketPullRequest>) apiClient.getPullRequests(pullRequestNumbers, branchNames);
+                            }
 
-                            return (Iterable<BitbucketPullRequest>) apiClient.getPullRequests();
+                            return (Iterable<BitbucketPullRequest>) apiClient.iteratePullRequests();
                         } catch (IOException | InterruptedException e) {
                             throw new BitbucketSCMSource.WrappedException(e);
                         }
@@ -613,7 +675,11 @@ public class BitbucketSCMSource extends SCMSource {
                     @Override
                     protected Iterable<BitbucketBranch> create() {
                         try {
-                            return (Iterable<BitbucketBranch>) apiClient.getBranches();
+                            Set<String> branchNames = request.getRequestedOriginBranchNames();
+                            if (branchNames != null) {
+                                return (Iterable<BitbucketBranch>) apiClient.getBranches(branchNames);
+                            }
+                            return (Iterable<BitbucketBranch>) apiClient.iterateBranches();
                         } catch (IOException | InterruptedException e) {
                             throw new BitbucketSCMSource.WrappedException(e);
                         }
@@ -625,7 +691,11 @@ public class BitbucketSCMSource extends SCMSource {
                     @Override
                     protected Iterable<BitbucketBranch> create() {
                         try {
-                            return (Iterable<BitbucketBranch>) apiClient.getTags();
+                            Set<String> tagNames = request.getRequestedTagNames();
+                            if (tagNames != null) {
+                                return (Iterable<BitbucketBranch>) apiClient.getTags(tagNames);
+                            }
+                            return (Iterable<BitbucketBranch>) apiClient.iterateTags();
                         } catch (IOException | InterruptedException e) {
                             throw new BitbucketSCMSource.WrappedException(e);
                         }
@@ -640,14 +710,22 @@ public class BitbucketSCMSource extends SCMSource {
             }
             if (request.isFetchPRs() && !request.isComplete()) {
                 // Search pull requests
-                retrievePullRequests(request);
+                retrievePullRequests(request, criteria);
             }
             if (request.isFetchTags() && !request.isComplete()) {
                 // Search tags
                 retrieveTags(request);
             }
+            CommitPathCache.Counter probes = request.getProbeCounter();
+            if (probes.hits() + probes.misses() > 0) {
+                listener.getLogger().format("%n  %d path probes answered from the cache, %d sent to Bitbucket%n",
+                        probes.hits(), probes.misses());
+            }
         } catch (WrappedException e) {
             e.unwrap();
+        } catch (PagedIterable.FetchException e) {
+            // pages are fetched while heads are processed
+            e.unwrap();
         }
     }
 
@@ -669,7 +747,9 @@ public class BitbucketSCMSource extends SCMSource {
         return initializedPRs;
     }
 
-    private void retrievePullRequests(final BitbucketSCMSourceRequest request) throws IOException, InterruptedException {
+    private void retrievePullRequests(final BitbucketSCMSourceRequest request,
+                                      @CheckForNull final SCMSourceCriteria criteria)
+            throws IOException, InterruptedException {
         final String fullName = repoOwner + "/" + repository;
 
         class Skip extends IOException {
@@ -685,100 +765,105 @@ public class BitbucketSCMSource extends SCMSource {
         final Set<String> livePRs = new HashSet<>();
         int count = 0;
         Map<Boolean, Set<ChangeRequestCheckoutStrategy>> strategies = request.getPRStrategies();
-        for (final BitbucketPullRequest pull : request.getPullRequests()) {
-            String originalBranchName = pull.getSource().getBranch().getName();
-            request.listener().getLogger().printf(
-                    "Checking PR-%s from %s and branch %s%n",
-                    pull.getId(),
-                    pull.getSource().getRepository().getFullName(),
-                    originalBranchName
-            );
-            boolean fork = !StringUtils.equalsIgnoreCase(fullName, pull.getSource().getRepository().getFullName());
-            String pullRepoOwner = pull.getSource().getRepository().getOwnerName();
-            String pullRepository = pull.getSource().getRepository().getRepositoryName();
-            final BitbucketApi client = fork && BitbucketApiUtils.isCloud(originBitbucket)
-                    ? BitbucketApiFactory.newInstance(
-                    getServerUrl(),
-                    authenticator(),
-                    pullRepoOwner,
-                    null,
-                    pullRepository
-            )
-                    : originBitbucket;
-            count++;
-            livePRs.add(pull.getId());
-            getPullRequestTitleCache()
-                    .put(pull.getId(), StringUtils.defaultString(pull.getTitle()));
-            getPullRequestContributorCache().put(pull.getId(),
-                    new ContributorMetadataAction(pull.getAuthorIdentifier(), pull.getAuthorLogin(), pull.getAuthorEmail()));
-            try {
-                // We store resolved hashes here so to avoid resolving the commits multiple times
-                for (final ChangeRequestCheckoutStrategy strategy : strategies.get(fork)) {
-                    String branchName = "PR-" + pull.getId();
-                    if (strategies.get(fork).size() > 1) {
-                        branchName = "PR-" + pull.getId() + "-" + strategy.name().toLowerCase(Locale.ENGLISH);
-                    }
-                    PullRequestSCMHead head = new PullRequestSCMHead( //
-                        branchName, //
-                        pullRepoOwner, //
-                        pullRepository, //
-                        originalBranchName, //
-                        pull, //
-                        originOf(pullRepoOwner, pullRepository), //
-                        strategy
-                    );
-                    if (request.process(head, //
-                        () -> {
-                            // use branch instead of commit to postpone closure initialisation
-                            return new BranchHeadCommit(pull.getSource().getBranch());
-                        },  //
-                            new BitbucketProbeFactory<>(client, request), //
-                            new BitbucketRevisionFactory<BitbucketCommit>(client) {
-                                @NonNull
-                                @Override
-                                public SCMRevision create(@NonNull SCMHead head, @Nullable BitbucketCommit sourceCommit)
-                                        throws IOException, InterruptedException {
-                                    try {
-                                        // use branch instead of commit to postpone closure initialisation
-                                        BranchHeadCommit targetCommit = new BranchHeadCommit(pull.getDestination().getBranch());
-                                        return super.create(head, sourceCommit, targetCommit);
-                                    } catch (BitbucketRequestException e) {
-                                        if (originBitbucket instanceof BitbucketCloudApiClient) {
+        int threads = Math.min(request.getPullRequestThreads(), MAX_PULL_REQUEST_THREADS);
+        if (threads > 1) {
+            request.listener().getLogger().printf("Evaluating up to %d pull requests at a time%n", threads);
+        }
+        Iterator<BitbucketPullRequest> pulls = request.getPullRequests().iterator();
+        // the next pull requests are prefetched while the first one is processed
+        Deque<PullRequestEvaluation> window = new ArrayDeque<>();
+        try {
+            while (!window.isEmpty() || pulls.hasNext()) {
+                while (pulls.hasNext() && window.size() < threads) {
+                    window.add(evaluationOf(request, pulls.next(), fullName, originBitbucket, strategies, criteria,
+                            threads > 1));
+                }
+                PullRequestEvaluation evaluation = window.remove();
+                final BitbucketPullRequest pull = evaluation.pull();
+                final BitbucketApi client = evaluation.client();
+                String originalBranchName = pull.getSource().getBranch().getName();
+                request.listener().getLogger().printf(
+                        "Checking PR-%s from %s and branch %s%n",
+                        pull.getId(),
+                        pull.getSource().getRepository().getFullName(),
+                        originalBranchName
+                );
+                count++;
+                livePRs.add(pull.getId());
+                getPullRequestTitleCache()
+                        .put(pull.getId(), StringUtils.defaultString(pull.getTitle()));
+                getPullRequestContributorCache().put(pull.getId(),
+                        new ContributorMetadataAction(pull.getAuthorIdentifier(), pull.getAuthorLogin(), pull.getAuthorEmail()));
+                Map<String, PrefetchedHead> prefetchedHeads = evaluation.prefetchedHeads();
+                try {
+                    // We store resolved hashes here so to avoid resolving the commits multiple times
+                    for (final PullRequestSCMHead head : evaluation.heads()) {
+                        final PrefetchedHead prefetched = prefetchedHeads.get(head.getName());
+                        if (prefetched != null) {
+                            // what the probes reported on the worker thread belongs here in the scan log
+                            prefetched.log().replayTo(request.listener());
+                        }
+                        if (request.process(head, //
+                            () -> {
+                                // use branch instead of commit to postpone closure initialisation
+                                return new BranchHeadCommit(pull.getSource().getBranch());
+                            },  //
+                                new BitbucketProbeFactory<>(client, request.listener(), request.getProbeCounter(),
+                                        prefetched == null ? null : prefetched.probe()), //
+                                new BitbucketRevisionFactory<BitbucketCommit>(client) {
+                                    @NonNull
+                                    @Override
+                                    public SCMRevision create(@NonNull SCMHead head, @Nullable BitbucketCommit sourceCommit)
+                                            throws IOException, InterruptedException {
+                                        if (prefetched != null && prefetched.revision() != null) {
+                                            return prefetched.revision();
+                                        }
+                                        try {
+                                            // use branch instead of commit to postpone closure initialisation
+                                            BranchHeadCommit targetCommit = new BranchHeadCommit(pull.getDestination().getBranch());
+                                            return super.create(head, sourceCommit, targetCommit);
+                                        } catch (BitbucketRequestException e) {
+                                            if (originBitbucket instanceof BitbucketCloudApiClient) {
+                                                if (e.getHttpCode() == 403) {
+                                                    request.listener().getLogger().printf( //
+                                                            "Skipping %s because of %s%n", //
+                                                            pull.getId(), //
+                                                            HyperlinkNote.encodeTo("https://bitbucket.org/site/master" //
+                                                                    + "/issues/5814/reify-pull-requests-by-making-them-a-ref", //
+                                                                    "a permission issue accessing pull requests from forks"));
+                                                    throw new Skip();
+                                                }
+                                            }
+                                            // https://bitbucket.org/site/master/issues/5814/reify-pull-requests-by-making-them-a-ref
+                                            e.printStackTrace(request.listener().getLogger());
                                             if (e.getHttpCode() == 403) {
-                                                request.listener().getLogger().printf( //
-                                                        "Skipping %s because of %s%n", //
-                                                        pull.getId(), //
-                                                        HyperlinkNote.encodeTo("https://bitbucket.org/site/master" //
-                                                                + "/issues/5814/reify-pull-requests-by-making-them-a-ref", //
-                                                                "a permission issue accessing pull requests from forks"));
+                                                // the credentials do not have permission, so we should not observe the
+                                                // PR ever the PR is dead to us, so this is the one case where we can
+                                                // squash the exception.
                                                 throw new Skip();
                                             }
+                                            throw e;
                                         }
-                                        // https://bitbucket.org/site/master/issues/5814/reify-pull-requests-by-making-them-a-ref
-                                        e.printStackTrace(request.listener().getLogger());
-                                        if (e.getHttpCode() == 403) {
-                                            // the credentials do not have permission, so we should not observe the
-                                            // PR ever the PR is dead to us, so this is the one case where we can
-                                            // squash the exception.
-                                            throw new Skip();
-                                        }
-                                        throw e;
                                     }
-                                }
-                            }, //
-                            new CriteriaWitness(request))) {
-                        request.listener().getLogger() //
-                               .format("%n  %d pull requests were processed (query completed)%n", count);
-                        return;
+                                }, //
+                                new CriteriaWitness(request))) {
+                            request.listener().getLogger() //
+                                   .format("%n  %d pull requests were processed (query completed)%n", count);
+                            return;
+                        }
                     }
+                } catch (Skip e) {
+                    request.listener().getLogger().println(
+                            "Do not have permission to view PR from " + pull.getSource().getRepository()
+                                    .getFullName()
+                                    + " and branch "
+                                    + originalBranchName);
+                    continue;
                 }
-            } catch (Skip e) {
-                request.listener().getLogger().println(
-                        "Do not have permission to view PR from " + pull.getSource().getRepository()
-                                .getFullName()
-                                + " and branch "
-                                + originalBranchName);
-                continue;
+            }
+        } finally {
+            for (PullRequestEvaluation evaluation : window) {
+                evaluation.cancel();
             }
         }
         request.listener().getLogger().format("%n  %d pull requests were processed%n", count);
@@ -786,6 +871,151 @@ public class BitbucketSCMSource extends SCMSource {
         getPullRequestContributorCache().keySet().retainAll(livePRs);
     }
 
+    /**
+     * Builds the heads of a pull request and, when asked, starts to evaluate
+     * on a worker thread the ones the filters of the request do not exclude.
+     */
+    private PullRequestEvaluation evaluationOf(final BitbucketSCMSourceRequest request,
+                                               final BitbucketPullRequest pull,
+                                               String fullName,
+                                               BitbucketApi originBitbucket,
+                                               Map<Boolean, Set<ChangeRequestCheckoutStrategy>> strategies,
+                                               @CheckForNull final SCMSourceCriteria criteria,
+                                               boolean prefetch) throws InterruptedException {
+        String originalBranchName = pull.getSource().getBranch().getName();
+        boolean fork = !StringUtils.equalsIgnoreCase(fullName, pull.getSource().getRepository().getFullName());
+        String pullRepoOwner = pull.getSource().getRepository().getOwnerName();
+        String pullRepository = pull.getSource().getRepository().getRepositoryName();
+        final BitbucketApi client = fork && BitbucketApiUtils.isCloud(originBitbucket)
+                ? BitbucketApiFactory.newInstance(
+                getServerUrl(),
+                authenticator(),
+                pullRepoOwner,
+                null,
+                pullRepository
+        )
+                : originBitbucket;
+        final List<PullRequestSCMHead> heads = new ArrayList<>();
+        for (final ChangeRequestCheckoutStrategy strategy : strategies.get(fork)) {
+            String branchName = "PR-" + pull.getId();
+            if (strategies.get(fork).size() > 1) {
+                branchName = "PR-" + pull.getId() + "-" + strategy.name().toLowerCase(Locale.ENGLISH);
+            }
+            heads.add(new PullRequestSCMHead( //
+                branchName, //
+                pullRepoOwner, //
+                pullRepository, //
+                originalBranchName, //
+                pull, //
+                originOf(pullRepoOwner, pullRepository), //
+                strategy
+            ));
+        }
+        Future<Map<String, PrefetchedHead>> prefetched = null;
+        if (prefetch) {
+            final List<PullRequestSCMHead> included = new ArrayList<>();
+            for (PullRequestSCMHead head : heads) {
+                try {
+                    // the heads the filters exclude are not worth a request to Bitbucket
+                    if (!request.isExcluded(head)) {
+                        included.add(head);
+                    }
+                } catch (IOException e) {
+                    LOGGER.log(Level.FINE, "Could not filter " + head.getName() + ", it will be evaluated by the scan", e);
+                }
+            }
+            if (!included.isEmpty()) {
+                // worker threads do not inherit the authentication of the scan
+                Authentication authentication = Jenkins.getAuthentication2();
+                CommitPathCache.Counter counter = request.getProbeCounter();
+                prefetched = pullRequestExecutor.submit(() -> {
+                    try (ACLContext ignored = ACL.as2(authentication)) {
+                        return prefetch(pull, client, included, criteria, counter);
+                    }
+                });
+            }
+        }
+        return new PullRequestEvaluation(pull, client, heads, prefetched);
+    }
+
+    /**
+     * Runs the probes and creates the revisions of the heads of a pull
+     * request ahead of the scanning thread. What the probes report is kept
+     * and written to the scan log when the scanning thread reaches the head.
+     * The scanning thread evaluates the criteria again against the remembered
+     * answers of the probes, with the scan log, and does again whatever failed.
+     */
+    private Map<String, PrefetchedHead> prefetch(BitbucketPullRequest pull,
+                                                 BitbucketApi client,
+                                                 List<PullRequestSCMHead> heads,
+                                                 @CheckForNull SCMSourceCriteria criteria,
+                                                 CommitPathCache.Counter counter) throws InterruptedException {
+        Map<String, PrefetchedHead> prefetched = new HashMap<>();
+        for (PullRequestSCMHead head : heads) {
+            BitbucketCommit sourceCommit = new BranchHeadCommit(pull.getSource().getBranch());
+            DeferredLog log = new DeferredLog();
+            Probe probe = null;
+            SCMRevision revision = null;
+            try {
+                probe = memoize(new BitbucketProbeFactory<BitbucketCommit>(client, log.listener(), counter, null)
+                        .create(head, sourceCommit));
+                // the scanning thread reports the outcome of the criteria when it evaluates them again
+                if (criteria == null || criteria.isHead(probe, new DeferredLog().listener())) {
+                    revision = new BitbucketRevisionFactory<BitbucketCommit>(client)
+                            .create(head, sourceCommit, new BranchHeadCommit(pull.getDestination().getBranch()));
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Could not prefetch " + head.getName() + ", it will be evaluated by the scan", e);
+            }
+            prefetched.put(head.getName(), new PrefetchedHead(probe, revision, log));
+        }
+        return prefetched;
+    }
+
+    /**
+     * Wraps a probe to remember its answers, so the criteria can be evaluated
+     * again without asking Bitbucket twice.
+     */
+    private static Probe memoize(final Probe probe) {
+        return new SCMSourceCriteria.Probe() {
+            private static final long serialVersionUID = 1L;
+
+            private final Map<String, Boolean> paths = new ConcurrentHashMap<>();
+            private volatile long lastModified;
+
+            @Override
+            public String name() {
+                return probe.name();
+            }
+
+            @Override
+            public long lastModified() {
+                if (lastModified == 0) {
+                    lastModified = probe.lastModified();
+                }
+                return lastModified;
+            }
+
+            @Override
+            public boolean exists(@NonNull String path) throws IOException {
+                Boolean exists = paths.get(path);
+                if (exists == null) {
+                    exists = probe.exists(path);
+                    paths.put(path, exists);
+                }
+                return exists;
+            }
+        };
+    }
+
+    private static ExecutorService pullRequestExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_PULL_REQUEST_THREADS, MAX_PULL_REQUEST_THREADS,
+                60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new NamingThreadFactory(new DaemonThreadFactory(), "BitbucketSCMSource.pullRequests"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     private void retrieveBranches(final BitbucketSCMSourceRequest request)
             throws IOException, InterruptedException {
         String fullName = repoOwner + "/" + repository;
@@ -1088,7 +1318,7 @@ public class BitbucketSCMSource extends SCMSource {
 
     @CheckForNull
     /* package */ BitbucketAuthenticator authenticator() {
-        return AuthenticationTokens.convert(BitbucketAuthenticator.authenticationContext(getServerUrl()), credentials());
+        return BitbucketCredentials.lookupAuthenticator(getServerUrl(), getOwner(), getCredentialsId());
     }
 
     @NonNull
@@ -1506,16 +1736,31 @@ public class BitbucketSCMSource extends SCMSource {
 
     private static class BitbucketProbeFactory<I> implements SCMSourceRequest.ProbeLambda<SCMHead, I> {
         private final BitbucketApi bitbucket;
-        private final BitbucketSCMSourceRequest request;
+        private final TaskListener listener;
+        private final CommitPathCache.Counter counter;
+        @CheckForNull
+        private final Probe prefetched;
 
         public BitbucketProbeFactory(BitbucketApi bitbucket, BitbucketSCMSourceRequest request) {
+            this(bitbucket, request.listener(), request.getProbeCounter(), null);
+        }
+
+        public BitbucketProbeFactory(BitbucketApi bitbucket,
+                                     TaskListener listener,
+                                     CommitPathCache.Counter counter,
+                                     @CheckForNull Probe prefetched) {
             this.bitbucket = bitbucket;
-            this.request = request;
+            this.listener = listener;
+            this.counter = counter;
+            this.prefetched = prefetched;
         }
 
         @NonNull
         @Override
         public Probe create(@NonNull final SCMHead head, @CheckForNull final I revisionInfo) throws IOException, InterruptedException {
+            if (prefetched != null) {
+                return prefetched;
+            }
             final String hash = (revisionInfo instanceof BitbucketCommit bbRevision) //
                     ? bbRevision.getHash() //
                     : (String) revisionInfo;
@@ -1539,13 +1784,13 @@ public class BitbucketSCMSource extends SCMSource {
                         }
 
                         if (commit == null) {
-                            request.listener().getLogger().format("Can not resolve commit by hash [%s] on repository %s/%s%n", //
+                            listener.getLogger().format("Can not resolve commit by hash [%s] on repository %s/%s%n", //
                                     hash, bitbucket.getOwner(), bitbucket.getRepositoryName());
                             return 0;
                         }
                         return commit.getDateMillis();
                     } catch (InterruptedException | IOException e) {
-                        request.listener().getLogger().format("Can not resolve commit by hash [%s] on repository %s/%s%n", //
+                        listener.getLogger().format("Can not resolve commit by hash [%s] on repository %s/%s%n", //
                                 hash, bitbucket.getOwner(), bitbucket.getRepositoryName());
                         return 0;
                     }
@@ -1554,14 +1799,17 @@ public class BitbucketSCMSource extends SCMSource {
                 @Override
                 public boolean exists(@NonNull String path) throws IOException {
                     if (hash == null) {
-                        request.listener().getLogger() //
+                        listener.getLogger() //
                                 .format("Can not resolve path for hash [%s] on repository %s/%s%n", //
                                         hash, bitbucket.getOwner(), bitbucket.getRepositoryName());
                         return false;
                     }
 
                     try {
-                        return bitbucket.checkPathExists(hash, path);
+                        // the content of a commit never changes, nor does the answer
+                        return CommitPathCache.exists(getServerUrl(), getCredentialsId(),
+                                bitbucket.getOwner() + "/" + bitbucket.getRepositoryName(),
+                                hash, path, counter, () -> bitbucket.checkPathExists(hash, path));
                     } catch (InterruptedException e) {
                         throw new IOException("Interrupted", e);
                     }
@@ -1670,4 +1918,82 @@ public class BitbucketSCMSource extends SCMSource {
         }
 
     }
+
+    /**
+     * A pull request whose heads are being evaluated ahead of the scanning thread.
+     */
+    private record PullRequestEvaluation(BitbucketPullRequest pull,
+                                         BitbucketApi client,
+                                         List<PullRequestSCMHead> heads,
+                                         @CheckForNull Future<Map<String, PrefetchedHead>> prefetched) {
+
+        Map<String, PrefetchedHead> prefetchedHeads() throws InterruptedException {
+            if (prefetched == null) {
+                return Collections.emptyMap();
+            }
+            try {
+                return prefetched.get();
+            } catch (ExecutionException e) {
+                LOGGER.log(Level.FINE, "Could not prefetch PR-" + pull.getId() + ", it will be evaluated by the scan", e.getCause());
+                return Collections.emptyMap();
+            }
+        }
+
+        void cancel() {
+            if (prefetched != null) {
+                prefetched.cancel(true);
+            }
+        }
+    }
+
+    private record PrefetchedHead(@CheckForNull Probe probe, @CheckForNull SCMRevision revision, DeferredLog log) {
+    }
+
+    /**
+     * Keeps what is written for a head on a worker thread until the scanning
+     * thread reaches the head, then writes it to the scan log and forwards
+     * whatever is written afterwards.
+     */
+    private static final class DeferredLog extends OutputStream {
+        private final TaskListener listener = new StreamTaskListener(this, StandardCharsets.UTF_8);
+        // guarded by this
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream target;
+
+        TaskListener listener() {
+            return listener;
+        }
+
+        void replayTo(TaskListener scanListener) throws IOException {
+            listener.getLogger().flush();
+            synchronized (this) {
+                if (target == null) {
+                    target = scanListener.getLogger();
+                    buffer.writeTo(target);
+                    buffer = null;
+                }
+            }
+        }
+
+        @Override
+        public synchronized void write(int b) throws IOException {
+            if (target == null) {
+                buffer.write(b);
+            } else {
+                target.write(b);
+            }
+        }
+
+        @Override
+        public synchronized void write(@NonNull byte[] b, int off, int len) throws IOException {
+            if (target == null) {
+                buffer.write(b, off, len);
+            } else {
+                target.write(b, off, len);
+            }
+        }
+    }
+
+    private record CompiledTraits(List<SCMSourceTrait> traits, BitbucketSCMSourceContext context) {
+    }
 }
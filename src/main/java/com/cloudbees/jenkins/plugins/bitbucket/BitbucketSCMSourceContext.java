@@ -107,6 +107,11 @@ public class BitbucketSCMSourceContext extends SCMSourceContext<BitbucketSCMSour
      */
     private boolean useReadableNotificationIds;
 
+    /**
+     * The number of pull requests evaluated at the same time.
+     */
+    private int pullRequestThreads = 1;
+
     /**
      * Constructor.
      *
@@ -252,6 +257,15 @@ public class BitbucketSCMSourceContext extends SCMSourceContext<BitbucketSCMSour
         return useReadableNotificationIds;
     }
 
+    /**
+     * Returns the number of pull requests evaluated at the same time.
+     *
+     * @return the number of pull requests evaluated at the same time, {@code 1} to evaluate them one at a time.
+     */
+    public final int pullRequestThreads() {
+        return pullRequestThreads;
+    }
+
     /**
      * Adds a requirement for branch details to any {@link BitbucketSCMSourceRequest} for this context.
      *
@@ -418,6 +432,18 @@ public class BitbucketSCMSourceContext extends SCMSourceContext<BitbucketSCMSour
         return this;
     }
 
+    /**
+     * Sets the number of pull requests evaluated at the same time.
+     *
+     * @param threads the number of pull requests evaluated at the same time.
+     * @return {@code this} for method chaining.
+     */
+    @NonNull
+    public final BitbucketSCMSourceContext withPullRequestThreads(int threads) {
+        pullRequestThreads = Math.max(1, threads);
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -26,6 +26,7 @@ package com.cloudbees.jenkins.plugins.bitbucket;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApi;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketBranch;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketPullRequest;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.CommitPathCache;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.Util;
@@ -42,6 +43,8 @@ import jenkins.scm.api.SCMHead;
 import jenkins.scm.api.SCMHeadOrigin;
 import jenkins.scm.api.mixin.ChangeRequestCheckoutStrategy;
 import jenkins.scm.api.trait.SCMSourceRequest;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 
 /**
  * The {@link SCMSourceRequest} for bitbucket.
@@ -69,6 +72,14 @@ public class BitbucketSCMSourceRequest extends SCMSourceRequest {
      * {@code true} if all pull requests from public repositories should be ignored.
      */
     private final boolean skipPublicPRs;
+    /**
+     * The number of pull requests evaluated at the same time.
+     */
+    private final int pullRequestThreads;
+    /**
+     * The answers of the path probes of this request.
+     */
+    private final CommitPathCache.Counter probeCounter = new CommitPathCache.Counter();
     /**
      * The {@link ChangeRequestCheckoutStrategy} to create for each origin pull request.
      */
@@ -149,6 +160,7 @@ public class BitbucketSCMSourceRequest extends SCMSourceRequest {
         fetchOriginPRs = context.wantOriginPRs();
         fetchForkPRs = context.wantForkPRs();
         skipPublicPRs = context.skipPublicPRs();
+        pullRequestThreads = context.pullRequestThreads();
         originPRStrategies = fetchOriginPRs && !context.originPRStrategies().isEmpty()
                 ? Collections.unmodifiableSet(EnumSet.copyOf(context.originPRStrategies()))
                 : Collections.<ChangeRequestCheckoutStrategy>emptySet();
@@ -242,6 +254,26 @@ public class BitbucketSCMSourceRequest extends SCMSourceRequest {
         return skipPublicPRs;
     }
 
+    /**
+     * Returns the number of pull requests evaluated at the same time.
+     *
+     * @return the number of pull requests evaluated at the same time, {@code 1} to evaluate them one at a time.
+     */
+    public final int getPullRequestThreads() {
+        return pullRequestThreads;
+    }
+
+    /**
+     * Returns the counter of the answers of the path probes of this request.
+     *
+     * @return the counter of the answers of the path probes of this request.
+     */
+    @NonNull
+    @Restricted(NoExternalUse.class)
+    public final CommitPathCache.Counter getProbeCounter() {
+        return probeCounter;
+    }
+
     /**
      * Returns the {@link ChangeRequestCheckoutStrategy} to create for each origin pull request.
      *
@@ -25,11 +25,15 @@ package com.cloudbees.jenkins.plugins.bitbucket.api;
 
 import com.cloudbees.jenkins.plugins.bitbucket.client.repository.UserRoleInRepository;
 import com.cloudbees.jenkins.plugins.bitbucket.filesystem.BitbucketSCMFile;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.PagedIterable;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import jenkins.scm.api.SCMFile;
 import jenkins.scm.impl.avatars.AvatarImage;
 import org.kohsuke.accmod.Restricted;
@@ -67,6 +71,53 @@ public interface BitbucketApi extends AutoCloseable {
     @NonNull
     List<? extends BitbucketPullRequest> getPullRequests() throws IOException, InterruptedException;
 
+    /**
+     * Returns the pull requests in the repository, implementations may fetch
+     * the next page of pull requests only when the iteration reaches it.
+     * <p>
+     * Errors while fetching a page during the iteration are thrown as
+     * {@link PagedIterable.FetchException}.
+     *
+     * @return the pull requests in the repository.
+     * @throws IOException if there was a network communications error.
+     * @throws InterruptedException if interrupted while waiting on remote communications.
+     */
+    @NonNull
+    default Iterable<? extends BitbucketPullRequest> iteratePullRequests() throws IOException, InterruptedException {
+        return getPullRequests();
+    }
+
+    /**
+     * Returns the open pull requests with the given IDs together with the open
+     * pull requests whose source is one of the given branches.
+     * <p>
+     * A scan that targets few heads, for example after an event, uses this in
+     * place of {@link #iteratePullRequests()} to not list all pull requests of
+     * the repository. The default implementation filters the full listing.
+     *
+     * @param ids the pull request IDs
+     * @param sourceBranchNames the names of the source branches
+     * @return the list of matching pull requests.
+     * @throws IOException if there was a network communications error.
+     * @throws InterruptedException if interrupted while waiting on remote communications.
+     */
+    @NonNull
+    default List<? extends BitbucketPullRequest> getPullRequests(@NonNull Set<String> ids,
+                                                                 @NonNull Set<String> sourceBranchNames)
+            throws IOException, InterruptedException {
+        List<BitbucketPullRequest> pullRequests = new ArrayList<>();
+        if (ids.isEmpty() && sourceBranchNames.isEmpty()) {
+            return pullRequests;
+        }
+        for (BitbucketPullRequest pullRequest : iteratePullRequests()) {
+            if (ids.contains(pullRequest.getId())
+                    || sourceBranchNames.contains(pullRequest.getSource().getBranch().getName())) {
+                pullRequests.add(pullRequest);
+            }
+        }
+        return pullRequests;
+    }
+
     /**
      * Returns a specific pull request.
      *
@@ -141,6 +192,52 @@ public interface BitbucketApi extends AutoCloseable {
     @NonNull
     List<? extends BitbucketBranch> getBranches() throws IOException, InterruptedException;
 
+    /**
+     * Returns the branches with the given names, branches that do not exist
+     * are not part of the result.
+     * <p>
+     * A scan that targets few heads uses this in place of
+     * {@link #iterateBranches()}. The default implementation looks up each
+     * branch with {@link #getBranch(String)}.
+     *
+     * @param branchNames the names of the branches
+     * @return the list of existing branches.
+     * @throws IOException if there was a network communications error.
+     * @throws InterruptedException if interrupted while waiting on remote communications.
+     */
+    @NonNull
+    default List<? extends BitbucketBranch> getBranches(@NonNull Set<String> branchNames)
+            throws IOException, InterruptedException {
+        List<BitbucketBranch> branches = new ArrayList<>();
+        for (String branchName : branchNames) {
+            try {
+                BitbucketBranch branch = getBranch(branchName);
+                if (branch != null) {
+                    branches.add(branch);
+                }
+            } catch (FileNotFoundException e) {
+                // the branch has been deleted
+            }
+        }
+        return branches;
+    }
+
+    /**
+     * Returns the branches in the repository, implementations may fetch the
+     * next page of branches only when the iteration reaches it.
+     * <p>
+     * Errors while fetching a page during the iteration are thrown as
+     * {@link PagedIterable.FetchException}.
+     *
+     * @return the branches in the repository.
+     * @throws IOException if there was a network communications error.
+     * @throws InterruptedException if interrupted while waiting on remote communications.
+     */
+    @NonNull
+    default Iterable<? extends BitbucketBranch> iterateBranches() throws IOException, InterruptedException {
+        return getBranches();
+    }
+
     /**
      * Returns a tag in the repository.
      *
@@ -161,6 +258,52 @@ public interface BitbucketApi extends AutoCloseable {
     @NonNull
     List<? extends BitbucketBranch> getTags() throws IOException, InterruptedException;
 
+    /**
+     * Returns the tags with the given names, tags that do not exist are not
+     * part of the result.
+     * <p>
+     * A scan that targets few heads uses this in place of
+     * {@link #iterateTags()}. The default implementation looks up each tag
+     * with {@link #getTag(String)}.
+     *
+     * @param tagNames the names of the tags
+     * @return the list of existing tags.
+     * @throws IOException if there was a network communications error.
+     * @throws InterruptedException if interrupted while waiting on remote communications.
+     */
+    @NonNull
+    default List<? extends BitbucketBranch> getTags(@NonNull Set<String> tagNames)
+            throws IOException, InterruptedException {
+        List<BitbucketBranch> tags = new ArrayList<>();
+        for (String tagName : tagNames) {
+            try {
+                BitbucketBranch tag = getTag(tagName);
+                if (tag != null) {
+                    tags.add(tag);
+                }
+            } catch (FileNotFoundException e) {
+                // the tag has been deleted
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * Returns the tags in the repository, implementations may fetch the next
+     * page of tags only when the iteration reaches it.
+     * <p>
+     * Errors while fetching a page during the iteration are thrown as
+     * {@link PagedIterable.FetchException}.
+     *
+     * @return the tags in the repository.
+     * @throws IOException if there was a network communications error.
+     * @throws InterruptedException if interrupted while waiting on remote communications.
+     */
+    @NonNull
+    default Iterable<? extends BitbucketBranch> iterateTags() throws IOException, InterruptedException {
+        return getTags();
+    }
+
     /**
      * Resolve the commit object given its hash.
      *
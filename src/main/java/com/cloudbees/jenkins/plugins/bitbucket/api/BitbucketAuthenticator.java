@@ -91,6 +91,19 @@ public interface BitbucketAuthenticator {
     default void configureRequest(HttpRequest request) {
     }
 
+    /**
+     * Discards the authentication configured on a request the server has
+     * rejected. Override this if your authentication method uses credentials
+     * that can expire before their expected lifetime, like access tokens.
+     *
+     * @param request the rejected request, as configured by {@link #configureRequest(HttpRequest)}.
+     * @return {@code true} if new credentials are available and the request
+     *         is worth retrying.
+     */
+    default boolean invalidate(HttpRequest request) {
+        return false;
+    }
+
     /**
      * Provides credentials that can be used for authenticated interactions with
      * SCM.
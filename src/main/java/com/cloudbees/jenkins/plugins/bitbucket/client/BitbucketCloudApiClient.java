@@ -37,26 +37,33 @@ import com.cloudbees.jenkins.plugins.bitbucket.client.branch.BitbucketCloudBranc
 import com.cloudbees.jenkins.plugins.bitbucket.client.branch.BitbucketCloudCommit;
 import com.cloudbees.jenkins.plugins.bitbucket.client.pullrequest.BitbucketPullRequestCommits;
 import com.cloudbees.jenkins.plugins.bitbucket.client.pullrequest.BitbucketPullRequestValue;
-import com.cloudbees.jenkins.plugins.bitbucket.client.pullrequest.BitbucketPullRequests;
 import com.cloudbees.jenkins.plugins.bitbucket.client.repository.BitbucketCloudRepository;
 import com.cloudbees.jenkins.plugins.bitbucket.client.repository.BitbucketRepositoryHook;
-import com.cloudbees.jenkins.plugins.bitbucket.client.repository.BitbucketRepositoryHooks;
 import com.cloudbees.jenkins.plugins.bitbucket.client.repository.BitbucketRepositorySource;
-import com.cloudbees.jenkins.plugins.bitbucket.client.repository.PaginatedBitbucketRepository;
 import com.cloudbees.jenkins.plugins.bitbucket.client.repository.UserRoleInRepository;
+import com.cloudbees.jenkins.plugins.bitbucket.endpoints.AbstractBitbucketEndpoint;
+import com.cloudbees.jenkins.plugins.bitbucket.endpoints.BitbucketCloudEndpoint;
 import com.cloudbees.jenkins.plugins.bitbucket.filesystem.BitbucketSCMFile;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.client.AbstractBitbucketApi;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.EndpointConnectionPool;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.RateLimiter;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.RequestCoalescer;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.ResponseCache;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.credentials.BitbucketUsernamePasswordAuthenticator;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketApiUtils;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.JsonParser;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.PagedIterable;
 import com.cloudbees.plugins.credentials.common.StandardUsernamePasswordCredentials;
 import com.damnhandy.uri.template.UriTemplate;
 import com.damnhandy.uri.template.impl.Operator;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.collect.Lists;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import hudson.Util;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
 import java.awt.image.BufferedImage;
 import java.io.BufferedInputStream;
 import java.io.FileNotFoundException;
@@ -66,23 +73,32 @@ import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import javax.imageio.ImageIO;
 import jenkins.scm.api.SCMFile;
 import jenkins.scm.impl.avatars.AvatarImage;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.apache.hc.client5.http.io.HttpClientConnectionManager;
 import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.HttpStatus;
 import org.apache.hc.core5.http.io.SocketConfig;
 import org.apache.hc.core5.http.message.BasicNameValuePair;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 
 import static java.util.concurrent.TimeUnit.HOURS;
 import static java.util.concurrent.TimeUnit.MINUTES;
@@ -97,43 +113,88 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
     // Limit images to 16k
     private static final int MAX_AVATAR_LENGTH = 16384;
     private static final int MAX_PAGE_LENGTH = 100;
-    protected static final HttpClientConnectionManager connectionManager = connectionManager();
-
+    // Keep the URL of a query short, a query matches at most this number of names or IDs
+    private static final int MAX_QUERY_TERMS = 20;
+    /**
+     * Partial response of the branch and tag listing, only what is needed to
+     * build a {@link BitbucketCloudBranch} with its last commit.
+     */
+    static final String BRANCH_FIELDS = "next,values.name,values.target.hash,values.target.message,"
+            + "values.target.date,values.target.author.raw";
+    /**
+     * Partial response of the pull request listing, the repositories of
+     * source and destination are already a compact representation. The size
+     * of the listing is kept to fetch the remaining pages concurrently.
+     */
+    static final String PULL_REQUEST_FIELDS = "next,size,pagelen,values.id,values.title,values.links.html.href,"
+            + "values.author.account_id,values.author.nickname,"
+            + "values.participants.user.account_id,values.participants.approved,"
+            + "values.source.repository,values.source.branch.name,values.source.commit.hash,"
+            + "values.destination.repository,values.destination.branch.name,values.destination.commit.hash";
+    /**
+     * Partial response of the repository listing used by the navigator.
+     */
+    static final String REPOSITORY_FIELDS = "next,size,pagelen,values.scm,values.full_name,values.owner.username,"
+            + "values.owner.display_name,values.updated_on,values.is_private,values.links,values.project";
+    private static final int MAX_PAGE_THREADS = Integer.getInteger(BitbucketCloudApiClient.class.getName() + ".maxPageThreads", 8);
+    private static final TypeReference<BitbucketCloudPage<BitbucketCloudBranch>> BRANCHES_PAGE = new TypeReference<>() {};
+    private static final TypeReference<BitbucketCloudPage<BitbucketPullRequestValue>> PULL_REQUESTS_PAGE = new TypeReference<>() {};
+    private static final TypeReference<BitbucketCloudPage<BitbucketCloudRepository>> REPOSITORIES_PAGE = new TypeReference<>() {};
+    private static final TypeReference<BitbucketCloudPage<BitbucketRepositoryHook>> HOOKS_PAGE = new TypeReference<>() {};
+    private static final TypeReference<BitbucketCloudPage<BitbucketRepositorySource>> SOURCES_PAGE = new TypeReference<>() {};
+    private final EndpointConnectionPool connectionPool;
+    private final RateLimiter rateLimiter;
     private final CloseableHttpClient client;
     private final String owner;
     private final String projectKey;
     private final String repositoryName;
     private final boolean enableCache;
+    /**
+     * Fetches the pages of listings paged by number concurrently, shared by all clients.
+     */
+    private static final ExecutorService pageExecutor = pageExecutor();
     private static final Cache<String, BitbucketTeam> cachedTeam = new Cache<>(6, HOURS);
     private static final Cache<String, List<BitbucketCloudRepository>> cachedRepositories = new Cache<>(3, HOURS);
-    private static final Cache<String, BitbucketCloudCommit> cachedCommits = new Cache<>(24, HOURS);
+    private static final Cache<String, BitbucketCloudCommit> cachedCommits = commitCache();
+    /**
+     * @deprecated the connections to Bitbucket Cloud come from the pool of its endpoint, sized by its configuration
+     */
+    @Deprecated
+    protected static final HttpClientConnectionManager connectionManager = EndpointConnectionPool.get(API_HOST,
+            EndpointConnectionPool.DEFAULT_MAX_CONNECTIONS, BitbucketCloudApiClient::setupConnectionManager);
     private transient BitbucketRepository cachedRepository;
     private transient String cachedDefaultBranch;
 
-    private static HttpClientConnectionManager connectionManager() {
-        try {
-            int connectTimeout = Integer.getInteger("http.connect.timeout", 10);
-            int socketTimeout = Integer.getInteger("http.socket.timeout", 60);
-
-            ConnectionConfig connCfg = ConnectionConfig.custom()
-                    .setConnectTimeout(connectTimeout, TimeUnit.SECONDS)
-                    .setSocketTimeout(socketTimeout, TimeUnit.SECONDS)
-                    .build();
-
-            SocketConfig socketConfig = SocketConfig.custom()
-                    .setSoTimeout(60, TimeUnit.SECONDS)
-                    .build();
-
-            return PoolingHttpClientConnectionManagerBuilder.create()
-                    .setMaxConnPerRoute(20)
-                    .setMaxConnTotal(22)
-                    .setDefaultConnectionConfig(connCfg)
-                    .setSocketConfigResolver(host -> host.getTargetHost().equals(API_HOST) ? socketConfig : SocketConfig.DEFAULT)
-                    .build();
-        } catch (Exception e) {
-            // in case of exception this avoids ClassNotFoundError which prevents the classloader from loading this class again
-            return null;
-        }
+    private static Cache<String, BitbucketCloudCommit> commitCache() {
+        Cache<String, BitbucketCloudCommit> cache = new Cache<>(24, HOURS, Integer.MAX_VALUE,
+                AbstractBitbucketEndpoint.DEFAULT_COMMIT_CACHE_SIZE * FileUtils.ONE_MB, BitbucketApiUtils::estimateSize);
+        CacheMetrics.register(cache, "CloudCommits", null);
+        return cache;
+    }
+
+    private static ExecutorService pageExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_PAGE_THREADS, MAX_PAGE_THREADS, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new NamingThreadFactory(new DaemonThreadFactory(), "BitbucketCloudApiClient.pages"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static void setupConnectionManager(EndpointConnectionPool pool) {
+        int connectTimeout = Integer.getInteger("http.connect.timeout", 10);
+        int socketTimeout = Integer.getInteger("http.socket.timeout", 60);
+
+        ConnectionConfig connCfg = ConnectionConfig.custom()
+                .setConnectTimeout(connectTimeout, TimeUnit.SECONDS)
+                .setSocketTimeout(socketTimeout, TimeUnit.SECONDS)
+                .build();
+
+        SocketConfig socketConfig = SocketConfig.custom()
+                .setSoTimeout(60, TimeUnit.SECONDS)
+                .build();
+
+        pool.setDefaultConnectionConfig(connCfg);
+        pool.setSocketConfigResolver(route -> route.getTargetHost().equals(API_HOST) ? socketConfig : SocketConfig.DEFAULT);
     }
 
     public static List<String> stats() {
@@ -141,6 +202,13 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
         stats.add("Team: " + cachedTeam.stats().toString());
         stats.add("Repositories : " + cachedRepositories.stats().toString());
         stats.add("Commits: " + cachedCommits.stats().toString());
+        EndpointConnectionPool pool = EndpointConnectionPool.find(API_HOST);
+        stats.add("Connections: " + (pool == null ? "No connection." : pool.stats()));
+        stats.add("Responses: " + ResponseCache.get().stats());
+        stats.add("Coalesced requests (all endpoints): " + RequestCoalescer.get().stats());
+        for (String rateLimit : RateLimiter.stats()) {
+            stats.add("Rate limit " + rateLimit);
+        }
         return stats;
     }
 
@@ -148,6 +216,17 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
         cachedTeam.evictAll();
         cachedRepositories.evictAll();
         cachedCommits.evictAll();
+        ResponseCache.get().evict(API_HOST.toURI());
+    }
+
+    /**
+     * Bounds the commit cache, shared by all the clients, to the given size.
+     *
+     * @param commitCacheSize the size in megabytes
+     */
+    @Restricted(NoExternalUse.class)
+    public static void setCommitCacheSize(int commitCacheSize) {
+        cachedCommits.setMaximumWeight(commitCacheSize * FileUtils.ONE_MB);
     }
 
     @Deprecated
@@ -168,7 +247,11 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
             cachedTeam.setExpireDuration(teamCacheDuration, MINUTES);
             cachedRepositories.setExpireDuration(repositoriesCacheDuration, MINUTES);
         }
-        this.client = super.setupClientBuilder("bitbucket.org").build();
+        this.connectionPool = EndpointConnectionPool.get(API_HOST,
+                AbstractBitbucketEndpoint.findMaxConnections(BitbucketCloudEndpoint.SERVER_URL),
+                BitbucketCloudApiClient::setupConnectionManager);
+        this.rateLimiter = RateLimiter.get(owner, authenticator == null ? null : authenticator.getId());
+        this.client = sharedClient("bitbucket.org");
     }
 
     /**
@@ -195,43 +278,75 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
     @NonNull
     @Override
     public List<BitbucketPullRequestValue> getPullRequests() throws InterruptedException, IOException {
-        List<BitbucketPullRequestValue> pullRequests = new ArrayList<>();
+        return pagedPullRequests(null).toList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public Iterable<BitbucketPullRequestValue> iteratePullRequests() {
+        return pagedPullRequests(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Pull requests are looked up with a query matching IDs and source branch
+     * names.
+     */
+    @NonNull
+    @Override
+    public List<BitbucketPullRequestValue> getPullRequests(@NonNull Set<String> ids,
+                                                           @NonNull Set<String> sourceBranchNames)
+            throws IOException, InterruptedException {
+        List<String> terms = new ArrayList<>();
+        for (String id : ids) {
+            terms.add("id=" + Integer.parseInt(id));
+        }
+        for (String branchName : sourceBranchNames) {
+            terms.add("source.branch.name=" + quote(branchName));
+        }
+        Map<String, BitbucketPullRequestValue> pullRequests = new LinkedHashMap<>();
+        for (List<String> chunk : Lists.partition(terms, MAX_QUERY_TERMS)) {
+            String query = "state=\"OPEN\" AND (" + String.join(" OR ", chunk) + ")";
+            for (BitbucketPullRequestValue pullRequest : pagedPullRequests(query).toList()) {
+                pullRequests.putIfAbsent(pullRequest.getId(), pullRequest);
+            }
+        }
+        return new ArrayList<>(pullRequests.values());
+    }
 
+    private PagedIterable<BitbucketPullRequestValue> pagedPullRequests(@CheckForNull String query) {
         // we can not use the default max pagelen also if documented
         // https://developer.atlassian.com/bitbucket/api/2/reference/resource/repositories/%7Busername%7D/%7Brepo_slug%7D/pullrequests#get
         // so because with values greater than 50 the API returns HTTP 400
         int pageLen = 50;
-        UriTemplate template = UriTemplate.fromTemplate(REPO_URL_TEMPLATE + "/pullrequests{?page,pagelen}")
+        UriTemplate template = UriTemplate.fromTemplate(REPO_URL_TEMPLATE + "/pullrequests{?fields,page,pagelen,q}")
                 .set("owner", owner)
                 .set("repo", repositoryName)
+                .set("fields", PULL_REQUEST_FIELDS)
                 .set("pagelen", pageLen);
-
-        BitbucketPullRequests page;
-        int pageNumber = 1;
-        do {
-            if (Thread.interrupted()) {
-                throw new InterruptedException();
-            }
-            String url = template //
-                    .set("page", pageNumber++) //
-                    .expand();
-            String response = getRequest(url);
-            try {
-                page = JsonParser.toJava(response, BitbucketPullRequests.class);
-            } catch (IOException e) {
-                throw new IOException("I/O error when parsing response from URL: " + url, e);
-            }
-            pullRequests.addAll(page.getValues());
-        } while (page.getNext() != null);
-
-        // PRs with missing destination branch are invalid and should be ignored.
-        pullRequests.removeIf(this::shouldIgnore);
-
-        for (BitbucketPullRequestValue pullRequest : pullRequests) {
-            setupClosureForPRBranch(pullRequest);
+        if (query != null) {
+            template.set("q", query);
         }
 
-        return pullRequests;
+        return new PagedIterable<>(() -> {
+            PagedIterable.Pages<BitbucketPullRequestValue> pages = numberedPages(template, PULL_REQUESTS_PAGE);
+            return () -> {
+                List<BitbucketPullRequestValue> pullRequests = pages.next();
+                if (pullRequests != null) {
+                    // PRs with missing destination branch are invalid and should be ignored.
+                    pullRequests.removeIf(BitbucketCloudApiClient.this::shouldIgnore);
+
+                    for (BitbucketPullRequestValue pullRequest : pullRequests) {
+                        setupClosureForPRBranch(pullRequest);
+                    }
+                }
+                return pullRequests;
+            };
+        });
     }
 
     /**
@@ -459,17 +574,99 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
     }
 
     public List<BitbucketCloudBranch> getBranchesByRef(String nodePath) throws IOException, InterruptedException {
-        String url = UriTemplate.fromTemplate(REPO_URL_TEMPLATE + nodePath + "{?pagelen}")
+        return iterateBranchesByRef(nodePath).toList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public Iterable<BitbucketCloudBranch> iterateBranches() {
+        return iterateBranchesByRef("/refs/branches");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public Iterable<BitbucketCloudBranch> iterateTags() {
+        return iterateBranchesByRef("/refs/tags");
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Branches are looked up with a query matching their names.
+     */
+    @NonNull
+    @Override
+    public List<BitbucketCloudBranch> getBranches(@NonNull Set<String> branchNames) throws IOException, InterruptedException {
+        return getBranchesByName("/refs/branches", branchNames);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Tags are looked up with a query matching their names.
+     */
+    @NonNull
+    @Override
+    public List<BitbucketCloudBranch> getTags(@NonNull Set<String> tagNames) throws IOException, InterruptedException {
+        return getBranchesByName("/refs/tags", tagNames);
+    }
+
+    private List<BitbucketCloudBranch> getBranchesByName(String nodePath, Set<String> names) throws IOException, InterruptedException {
+        List<BitbucketCloudBranch> branches = new ArrayList<>();
+        for (List<String> chunk : Lists.partition(new ArrayList<>(names), MAX_QUERY_TERMS)) {
+            StringBuilder query = new StringBuilder();
+            for (String name : chunk) {
+                if (query.length() > 0) {
+                    query.append(" OR ");
+                }
+                query.append("name=").append(quote(name));
+            }
+            branches.addAll(iterateBranchesByRef(nodePath, query.toString()).toList());
+        }
+        return branches;
+    }
+
+    private PagedIterable<BitbucketCloudBranch> iterateBranchesByRef(String nodePath) {
+        return iterateBranchesByRef(nodePath, null);
+    }
+
+    private PagedIterable<BitbucketCloudBranch> iterateBranchesByRef(String nodePath, @CheckForNull String query) {
+        UriTemplate template = UriTemplate.fromTemplate(REPO_URL_TEMPLATE + nodePath + "{?fields,pagelen,q}")
                 .set("owner", owner)
                 .set("repo", repositoryName)
-                .set("pagelen", MAX_PAGE_LENGTH)
-                .expand();
-        String response = getRequest(url);
-        try {
-            return getAllBranches(response);
-        } catch (IOException e) {
-            throw new IOException("I/O error when parsing response from URL: " + url, e);
+                .set("fields", BRANCH_FIELDS)
+                .set("pagelen", MAX_PAGE_LENGTH);
+        if (query != null) {
+            template.set("q", query);
         }
+        String url = template.expand();
+        return new PagedIterable<>(() -> new PagedIterable.Pages<>() {
+            private String pageURL = url;
+
+            @Override
+            public List<BitbucketCloudBranch> next() throws IOException {
+                if (pageURL == null) {
+                    return null;
+                }
+                BitbucketCloudPage<BitbucketCloudBranch> page = getRequest(pageURL, BRANCHES_PAGE);
+                pageURL = page.isLastPage() ? null : withFields(page.getNext(), BRANCH_FIELDS);
+
+                // Filter the inactive branches out
+                List<BitbucketCloudBranch> activeBranches = new ArrayList<>();
+                for (BitbucketCloudBranch branch: page.getValues()) {
+                    if (branch.isActive()) {
+                        activeBranches.add(branch);
+                    }
+                }
+                return activeBranches;
+            }
+        });
     }
 
     /**
@@ -485,22 +682,18 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
             .expand();
 
         Callable<BitbucketCloudCommit> request = () -> {
-            String response;
             try {
-                response = getRequest(url);
+                return getRequest(url, BitbucketCloudCommit.class);
             } catch (FileNotFoundException e) {
                 return null;
             }
-            try {
-                return JsonParser.toJava(response, BitbucketCloudCommit.class);
-            } catch (IOException e) {
-                throw new IOException("I/O error when parsing response from URL: " + url, e);
-            }
         };
 
         try {
             if (enableCache) {
-                return cachedCommits.get(hash, request);
+                // commits are immutable, the hash is enough to identify one in a repository
+                String cacheKey = API_HOST.toURI() + "::" + owner + "::" + repositoryName + "::" + hash;
+                return cachedCommits.get(cacheKey, request);
             } else {
                 return request.call();
             }
@@ -593,31 +786,11 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
     @NonNull
     @Override
     public List<BitbucketRepositoryHook> getWebHooks() throws IOException, InterruptedException {
-        List<BitbucketRepositoryHook> repositoryHooks = new ArrayList<>();
-        int pageNumber = 1;
         UriTemplate template = UriTemplate.fromTemplate(REPO_URL_TEMPLATE + "/hooks{?page,pagelen}")
                 .set("owner", owner)
                 .set("repo", repositoryName)
-                .set("page", pageNumber)
                 .set("pagelen", MAX_PAGE_LENGTH);
-        String url = template.expand();
-        try {
-            String response = getRequest(url);
-            BitbucketRepositoryHooks page = parsePaginatedRepositoryHooks(response);
-            repositoryHooks.addAll(page.getValues());
-            while (page.getNext() != null) {
-                if (Thread.interrupted()) {
-                    throw new InterruptedException();
-                }
-                pageNumber++;
-                response = getRequest(url = template.set("page", pageNumber).expand());
-                page = parsePaginatedRepositoryHooks(response);
-                repositoryHooks.addAll(page.getValues());
-            }
-            return repositoryHooks;
-        } catch (IOException e) {
-            throw new IOException("I/O error when parsing response from URL: " + url, e);
-        }
+        return new PagedIterable<>(() -> numberedPages(template, HOOKS_PAGE)).toList();
     }
 
     /**
@@ -644,11 +817,6 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
         return getRepository().isPrivate();
     }
 
-    private BitbucketRepositoryHooks parsePaginatedRepositoryHooks(String response) throws IOException {
-        BitbucketRepositoryHooks parsedResponse;
-        parsedResponse = JsonParser.toJava(response, BitbucketRepositoryHooks.class);
-        return parsedResponse;
-    }
 
     /**
      * {@inheritDoc}
@@ -726,8 +894,9 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
             cacheKey.append("::<anonymous>");
         }
 
-        final UriTemplate template = UriTemplate.fromTemplate(V2_API_BASE_URL + "{/owner}{?role,page,pagelen,q}")
+        final UriTemplate template = UriTemplate.fromTemplate(V2_API_BASE_URL + "{/owner}{?fields,role,page,pagelen,q}")
                 .set("owner", owner)
+                .set("fields", REPOSITORY_FIELDS)
                 .set("pagelen", MAX_PAGE_LENGTH);
         if (StringUtils.isNotBlank(projectKey)) {
             template.set("q", "project.key=" + "\"" + projectKey + "\""); // q=project.key="<projectKey>"
@@ -743,20 +912,7 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
         }
 
         Callable<List<BitbucketCloudRepository>> request = () -> {
-            List<BitbucketCloudRepository> repositories = new ArrayList<>();
-            Integer pageNumber = 1;
-            String url, response;
-            PaginatedBitbucketRepository page;
-            do {
-                response = getRequest(url = template.set("page", pageNumber).expand());
-                try {
-                    page = JsonParser.toJava(response, PaginatedBitbucketRepository.class);
-                    repositories.addAll(page.getValues());
-                } catch (IOException e) {
-                    throw new IOException("I/O error when parsing response from URL: " + url, e);
-                }
-                pageNumber++;
-            } while (page.getNext() != null);
+            List<BitbucketCloudRepository> repositories = new PagedIterable<>(() -> numberedPages(template, REPOSITORIES_PAGE)).toList();
             repositories.sort(Comparator.comparing(BitbucketCloudRepository::getRepositoryName));
             return repositories;
         };
@@ -778,6 +934,118 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
         return getRepositories(null);
     }
 
+    /**
+     * Reads a listing paged by number. The first page tells the size of the
+     * listing, the following pages are then fetched concurrently in batches
+     * bounded by the number of requests the rate limiter lets go right away.
+     */
+    private <V> PagedIterable.Pages<V> numberedPages(UriTemplate template, TypeReference<BitbucketCloudPage<V>> type) {
+        return new PagedIterable.Pages<>() {
+            private int pageNumber = 1;
+            // unknown until the first page is read
+            private int pageCount;
+            private boolean lastPage;
+
+            @Override
+            public List<V> next() throws IOException, InterruptedException {
+                if (lastPage) {
+                    return null;
+                }
+                int count = 1;
+                if (pageNumber > 1) {
+                    // the listing could have grown since the first page, go on one page at time
+                    count = Math.max(1, Math.min(pageCount - pageNumber + 1, concurrentPageRequests()));
+                }
+                List<BitbucketCloudPage<V>> pages = getPages(template, type, pageNumber, count);
+                List<V> values = new ArrayList<>();
+                for (BitbucketCloudPage<V> page : pages) {
+                    values.addAll(page.getValues());
+                }
+                BitbucketCloudPage<V> page = pages.get(pages.size() - 1);
+                if (pageNumber == 1 && page.getPageLength() > 0) {
+                    pageCount = (page.getSize() + page.getPageLength() - 1) / page.getPageLength();
+                }
+                pageNumber += pages.size();
+                lastPage = page.isLastPage();
+                return values;
+            }
+        };
+    }
+
+    private int concurrentPageRequests() {
+        int budget = rateLimiter == null ? -1 : rateLimiter.getBudget();
+        return budget < 0 ? MAX_PAGE_THREADS : Math.min(budget, MAX_PAGE_THREADS);
+    }
+
+    /**
+     * Fetches up to {@code count} consecutive pages, concurrently when more than one is requested.
+     *
+     * @return the pages in order, up to the last page
+     */
+    private <V> List<BitbucketCloudPage<V>> getPages(UriTemplate template, TypeReference<BitbucketCloudPage<V>> type,
+                                                     int pageNumber, int count) throws IOException, InterruptedException {
+        if (count <= 1) {
+            return Collections.singletonList(getRequest(template.set("page", pageNumber).expand(), type));
+        }
+
+        List<Future<BitbucketCloudPage<V>>> futures = new ArrayList<>(count);
+        List<BitbucketCloudPage<V>> pages = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                // the template is not thread safe, expand it from the calling thread
+                String url = template.set("page", pageNumber + i).expand();
+                futures.add(pageExecutor.submit(() -> getRequest(url, type)));
+            }
+            for (Future<BitbucketCloudPage<V>> future : futures) {
+                BitbucketCloudPage<V> page = future.get();
+                pages.add(page);
+                if (page.isLastPage()) {
+                    break;
+                }
+            }
+            return pages;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioe) {
+                throw ioe;
+            } else if (cause instanceof InterruptedException ie) {
+                throw ie;
+            } else if (cause instanceof RuntimeException re) {
+                throw re;
+            } else if (cause instanceof Error err) {
+                throw err;
+            }
+            throw new IOException(cause);
+        } finally {
+            for (Future<BitbucketCloudPage<V>> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Quotes a value for a query, see
+     * https://developer.atlassian.com/cloud/bitbucket/rest/intro/#filtering
+     */
+    private static String quote(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    /**
+     * Bitbucket keeps the query parameters in the link to the next page, this
+     * is a safeguard to not fall back to the full representation when it does
+     * not.
+     */
+    private static String withFields(String pageURL, String fields) {
+        if (pageURL.contains("fields=")) {
+            return pageURL;
+        }
+        return UriTemplate.fromTemplate(pageURL.contains("?") ? "{+url}{&fields}" : "{+url}{?fields}")
+                .set("url", pageURL)
+                .set("fields", fields)
+                .expand();
+    }
+
     private BufferedImage getImageRequest(String path) throws IOException {
         try (InputStream inputStream = getRequestAsInputStream(path)) {
             int length = MAX_AVATAR_LENGTH;
@@ -786,9 +1054,14 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
         }
     }
 
+    @Override
+    protected RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
     @Override
     protected HttpClientConnectionManager getConnectionManager() {
-        return connectionManager;
+        return connectionPool;
     }
 
     @NonNull
@@ -803,31 +1076,8 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
         return client;
     }
 
-    private List<BitbucketCloudBranch> getAllBranches(String response) throws IOException {
-        List<BitbucketCloudBranch> branches = new ArrayList<>();
-        BitbucketCloudPage<BitbucketCloudBranch> page = JsonParser.mapper.readValue(response,
-                new TypeReference<BitbucketCloudPage<BitbucketCloudBranch>>(){});
-        branches.addAll(page.getValues());
-        while (!page.isLastPage()){
-            response = getRequest(page.getNext());
-            page = JsonParser.mapper.readValue(response,
-                    new TypeReference<BitbucketCloudPage<BitbucketCloudBranch>>(){});
-            branches.addAll(page.getValues());
-        }
-
-        // Filter the inactive branches out
-        List<BitbucketCloudBranch> activeBranches = new ArrayList<>();
-        for (BitbucketCloudBranch branch: branches) {
-            if (branch.isActive()) {
-                activeBranches.add(branch);
-            }
-        }
-
-        return activeBranches;
-    }
-
     private BitbucketCloudBranch getSingleBranch(String response) throws IOException {
-        return JsonParser.mapper.readValue(response, new TypeReference<BitbucketCloudBranch>(){});
+        return JsonParser.toJava(response, BitbucketCloudBranch.class);
     }
 
     @Override
@@ -843,8 +1093,7 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
         String pageURL = url;
         BitbucketCloudPage<BitbucketRepositorySource> page;
         do {
-            String response = getRequest(pageURL);
-            page = JsonParser.mapper.readValue(response, new TypeReference<BitbucketCloudPage<BitbucketRepositorySource>>(){});
+            page = getRequest(pageURL, SOURCES_PAGE);
 
             for(BitbucketRepositorySource source : page.getValues()){
                 result.add(source.toBitbucketSCMFile(parent));
@@ -876,8 +1125,7 @@ public class BitbucketCloudApiClient extends AbstractBitbucketApi implements Bit
                 .set("branchOrHash", file.getHash() != null ? file.getHash() : file.getRef())
                 .set("path", file.getPath())
                 .expand();
-        String response = getRequest(url);
-        BitbucketRepositorySource src = JsonParser.mapper.readValue(response, BitbucketRepositorySource.class);
+        BitbucketRepositorySource src = getRequest(url, BitbucketRepositorySource.class);
         return src.toBitbucketSCMFile((BitbucketSCMFile) file.parent());
     }
 }
@@ -23,55 +23,104 @@
  */
 package com.cloudbees.jenkins.plugins.bitbucket.client;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntBiFunction;
 
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
+/**
+ * A concurrent cache that loads missing values on demand.
+ * <p>
+ * Loading is done per key, concurrent requests of the same key wait for the
+ * first loader and share its result while other keys are loaded in parallel.
+ * Entries are removed when they expire or, in insertion order, when the
+ * maximum number of entries or the maximum weight is exceeded.
+ */
 public class Cache<K, V> {
 
     private static final int MAX_ENTRIES_DEFAULT = 100;
 
-    private final Map<K, Entry<V>> entries;
+    private final Map<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+
+    private final Queue<Entry<K, V>> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    private final int maxEntries;
+
+    private final ToIntBiFunction<? super K, ? super V> weigher;
+
+    private final AtomicLong weight = new AtomicLong();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private final LongAdder totalLoadNanos = new LongAdder();
+
+    private volatile long maxWeight;
 
-    private long expireAfterNanos;
+    private volatile long expireAfterNanos;
 
     public Cache(final int duration, final TimeUnit unit) {
         this(duration, unit, MAX_ENTRIES_DEFAULT);
     }
 
     public Cache(final int duration, final TimeUnit unit, final int maxEntries) {
-        this.expireAfterNanos = unit.toNanos(duration);
-        this.entries = new LimitedMap<>(maxEntries);
+        this(duration, unit, maxEntries, Long.MAX_VALUE, (k, v) -> 1);
     }
 
-    public synchronized V get(final K key, final Callable<V> callable) throws ExecutionException {
-        if (isExpired(key)) {
-            doRemove(key);
-        }
+    /**
+     * Creates a cache bounded by the total weight of its entries.
+     *
+     * @param duration how long an entry is kept after it was loaded
+     * @param unit the unit of the duration
+     * @param maxEntries the maximum number of entries
+     * @param maxWeight the maximum total weight of the entries
+     * @param weigher estimates the weight of an entry, for example its size in bytes
+     */
+    public Cache(final int duration, final TimeUnit unit, final int maxEntries, final long maxWeight,
+                 final ToIntBiFunction<? super K, ? super V> weigher) {
+        this.expireAfterNanos = unit.toNanos(duration);
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
 
-        if (entries.containsKey(key)) {
-            return entries.get(key).value;
+    public V get(final K key, final Callable<V> callable) throws ExecutionException {
+        Entry<K, V> entry = entries.get(key);
+        if (entry != null && entry.isExpired(System.nanoTime(), expireAfterNanos)) {
+            remove(entry);
+            entry = null;
         }
 
-        V result;
-        try {
-            result = callable.call();
-        } catch (final Exception e) {
-            throw new ExecutionException("Cannot load value for key: " + key, e);
+        if (entry == null) {
+            final Entry<K, V> newEntry = new Entry<>(key);
+            entry = entries.putIfAbsent(key, newEntry);
+            if (entry == null) {
+                missCount.increment();
+                return load(newEntry, callable);
+            }
         }
-
-        return doPut(key, result);
+        hitCount.increment();
+        return entry.get();
     }
 
     public void evictAll() {
-        entries.clear();
+        for (final Entry<K, V> entry : entries.values()) {
+            remove(entry);
+        }
+        insertionOrder.clear();
     }
 
     public int size() {
@@ -82,55 +131,145 @@ public class Cache<K, V> {
         this.expireAfterNanos = unit.toNanos(duration);
     }
 
+    public void setMaximumWeight(final long maxWeight) {
+        this.maxWeight = maxWeight;
+        evictExceeding();
+    }
+
     public Stat stats() {
-        final List<Long> durations = new ArrayList<>();
-        if (entries.size() > 0) {
-            for (final Entry<V> e : entries.values()) {
-                durations.add(System.nanoTime() - e.nanos);
+        final long now = System.nanoTime();
+        int count = 0;
+        long minDuration = Long.MAX_VALUE;
+        long maxDuration = 0L;
+        for (final Entry<K, V> e : entries.values()) {
+            if (e.isDone()) {
+                final long duration = now - e.nanos;
+                minDuration = Math.min(minDuration, duration);
+                maxDuration = Math.max(maxDuration, duration);
+                count++;
             }
-            Collections.sort(durations);
-        } else {
-            durations.add(0L);
-            durations.add(0L);
         }
-        return new Stat(entries.size(), durations.get(0), durations.get(durations.size() - 1));
+        if (count == 0) {
+            minDuration = 0L;
+        }
+        return new Stat(count, minDuration, maxDuration, weight.get(), hitCount.sum(), missCount.sum(),
+                evictionCount.sum(), totalLoadNanos.sum());
     }
 
-    private boolean isExpired(final K key) {
-        final Entry<V> entry = entries.get(key);
-        return entry != null && System.nanoTime() - entry.nanos > expireAfterNanos;
+    private V load(final Entry<K, V> entry, final Callable<V> callable) throws ExecutionException {
+        final long start = System.nanoTime();
+        final V result;
+        final int resultWeight;
+        try {
+            result = callable.call();
+            resultWeight = Math.max(0, weigher.applyAsInt(entry.key, result));
+        } catch (final Throwable e) {
+            // do not cache failures, the next request will try again, the
+            // callers waiting for this entry must not be left waiting on errors either
+            entries.remove(entry.key, entry);
+            final ExecutionException failure = new ExecutionException("Cannot load value for key: " + entry.key, e);
+            entry.fail(failure);
+            if (e instanceof Error error) {
+                throw error;
+            }
+            throw failure;
+        } finally {
+            totalLoadNanos.add(System.nanoTime() - start);
+        }
+        entry.complete(result, resultWeight);
+        if (entry.account()) {
+            weight.addAndGet(entry.weight);
+        }
+        if (entries.get(entry.key) != entry) {
+            // evicted while loading
+            if (entry.unaccount()) {
+                weight.addAndGet(-entry.weight);
+            }
+        } else {
+            insertionOrder.add(entry);
+            evictExceeding();
+        }
+        return result;
     }
 
-    private void doRemove(final K key) {
-        entries.remove(key);
+    private boolean remove(final Entry<K, V> entry) {
+        if (entries.remove(entry.key, entry)) {
+            if (entry.unaccount()) {
+                weight.addAndGet(-entry.weight);
+            }
+            return true;
+        }
+        return false;
     }
 
-    private V doPut(final K key, final V value) {
-        entries.put(key, new Entry<>(value));
-        return value;
+    private void evictExceeding() {
+        Entry<K, V> eldest;
+        while ((eldest = insertionOrder.peek()) != null) {
+            // entries already removed from the map are dropped from the queue on the way
+            final boolean stale = entries.get(eldest.key) != eldest;
+            if (!stale && entries.size() <= maxEntries && weight.get() <= maxWeight) {
+                return;
+            }
+            if (insertionOrder.remove(eldest) && remove(eldest) && !stale) {
+                evictionCount.increment();
+            }
+        }
     }
 
-    private static class LimitedMap<K, V> extends LinkedHashMap<K, V> {
-        private final int maxEntries;
+    private static class Entry<K, V> {
+        private final K key;
+
+        private final CompletableFuture<V> value = new CompletableFuture<>();
+
+        private volatile long nanos;
 
-        public LimitedMap(final int maxEntries) {
-            this.maxEntries = maxEntries;
+        private volatile int weight;
+
+        private final AtomicBoolean accounted = new AtomicBoolean();
+
+        Entry(final K key) {
+            this.key = key;
         }
 
-        @Override
-        protected boolean removeEldestEntry(final java.util.Map.Entry<K, V> eldest) {
-            return size() > maxEntries;
+        void complete(final V result, final int weight) {
+            this.weight = weight;
+            this.nanos = System.nanoTime();
+            value.complete(result);
+        }
+
+        boolean account() {
+            return accounted.compareAndSet(false, true);
         }
-    }
 
-    private static class Entry<V> {
-        private final V value;
+        boolean unaccount() {
+            return accounted.compareAndSet(true, false);
+        }
 
-        private final long nanos;
+        void fail(final ExecutionException failure) {
+            value.completeExceptionally(failure);
+        }
+
+        boolean isDone() {
+            return value.isDone() && !value.isCompletedExceptionally();
+        }
 
-        public Entry(final V value) {
-            this.value = value;
-            nanos = System.nanoTime();
+        boolean isExpired(final long now, final long expireAfterNanos) {
+            return isDone() && now - nanos > expireAfterNanos;
+        }
+
+        V get() throws ExecutionException {
+            try {
+                return value.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ExecutionException("Interrupted while waiting value for key: " + key, e);
+            } catch (ExecutionException e) {
+                // rethrow the failure of the thread that has loaded the value
+                if (e.getCause() instanceof ExecutionException failure) {
+                    throw failure;
+                }
+                throw e;
+            }
         }
     }
 
@@ -141,10 +280,30 @@ public class Cache<K, V> {
 
         private final long maxDuration;
 
+        private final long weight;
+
+        private final long hitCount;
+
+        private final long missCount;
+
+        private final long evictionCount;
+
+        private final long totalLoadTime;
+
         public Stat(final int count, final long minDuration, final long maxDuration) {
+            this(count, minDuration, maxDuration, 0L, 0L, 0L, 0L, 0L);
+        }
+
+        public Stat(final int count, final long minDuration, final long maxDuration, final long weight,
+                    final long hitCount, final long missCount, final long evictionCount, final long totalLoadTime) {
             this.count = count;
             this.minDuration = minDuration;
             this.maxDuration = maxDuration;
+            this.weight = weight;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.totalLoadTime = totalLoadTime;
         }
 
         public int getCount() {
@@ -159,22 +318,56 @@ public class Cache<K, V> {
             return maxDuration;
         }
 
+        public long getWeight() {
+            return weight;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        /**
+         * @return the total time, in nanoseconds, spent loading values.
+         */
+        public long getTotalLoadTime() {
+            return totalLoadTime;
+        }
+
+        public double getHitRate() {
+            final long requestCount = hitCount + missCount;
+            return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+        }
+
+        public long getAverageLoadTime() {
+            return missCount == 0 ? 0L : totalLoadTime / missCount;
+        }
+
         @Override
         public String toString() {
+            final StringBuilder builder = new StringBuilder();
             if (count == 0) {
-                return "No entry.";
+                builder.append("No entry.");
+            } else if (count == 1) {
+                builder.append("1 entry, since ").append(NANOSECONDS.toMinutes(minDuration)).append(
+                        " minutes");
             } else {
-                final StringBuilder builder = new StringBuilder();
-                if (count == 1) {
-                    builder.append("1 entry, since ").append(NANOSECONDS.toMinutes(minDuration)).append(
-                            " minutes");
-                } else {
-                    builder.append(count).append(" entries, since ").append(
-                            NANOSECONDS.toMinutes(minDuration)).append(" (youngest) to ").append(
-                                    NANOSECONDS.toMinutes(maxDuration)).append(" (oldest) minutes.");
-                }
-                return builder.toString();
+                builder.append(count).append(" entries, since ").append(
+                        NANOSECONDS.toMinutes(minDuration)).append(" (youngest) to ").append(
+                                NANOSECONDS.toMinutes(maxDuration)).append(" (oldest) minutes.");
+            }
+            if (hitCount + missCount > 0) {
+                builder.append(String.format(" Hit rate %.1f%% (%d hits, %d misses), average load time %d ms, %d evictions.",
+                        getHitRate() * 100, hitCount, missCount, NANOSECONDS.toMillis(getAverageLoadTime()), evictionCount));
             }
+            return builder.toString();
         }
     }
 }
@@ -0,0 +1,139 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.client;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Publishes the statistics of a {@link Cache} as an MXBean so that JMX
+ * monitoring tools can scrape them.
+ * <p>
+ * A cache is registered as
+ * {@code com.cloudbees.jenkins.plugins.bitbucket:type=Cache,name=<name>[,server=<url>]}.
+ */
+@Restricted(NoExternalUse.class)
+public final class CacheMetrics {
+
+    private static final Logger LOGGER = Logger.getLogger(CacheMetrics.class.getName());
+
+    static final String DOMAIN = "com.cloudbees.jenkins.plugins.bitbucket";
+
+    private CacheMetrics() {
+    }
+
+    /**
+     * The statistics of a cache as seen through JMX.
+     */
+    public interface StatsMXBean {
+        int getEntryCount();
+
+        long getWeight();
+
+        long getHitCount();
+
+        long getMissCount();
+
+        double getHitRate();
+
+        long getEvictionCount();
+
+        long getAverageLoadTimeMillis();
+    }
+
+    /**
+     * Registers the statistics of the cache in the platform MBean server,
+     * replacing the ones registered before under the same name.
+     *
+     * @param cache the cache
+     * @param name the name of the cache
+     * @param serverUrl the server the cache is dedicated to, {@code null} if it is shared
+     */
+    public static void register(@NonNull Cache<?, ?> cache, @NonNull String name, @CheckForNull String serverUrl) {
+        try {
+            ObjectName objectName = objectName(name, serverUrl);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(new StandardMBean(new Stats(cache), StatsMXBean.class, true), objectName);
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Failed to register the statistics of the cache " + name, e);
+        }
+    }
+
+    @NonNull
+    static ObjectName objectName(@NonNull String name, @CheckForNull String serverUrl) throws MalformedObjectNameException {
+        return new ObjectName(DOMAIN + ":type=Cache,name=" + name
+                + (serverUrl == null ? "" : ",server=" + ObjectName.quote(serverUrl)));
+    }
+
+    private record Stats(Cache<?, ?> cache) implements StatsMXBean {
+        @Override
+        public int getEntryCount() {
+            return cache.stats().getCount();
+        }
+
+        @Override
+        public long getWeight() {
+            return cache.stats().getWeight();
+        }
+
+        @Override
+        public long getHitCount() {
+            return cache.stats().getHitCount();
+        }
+
+        @Override
+        public long getMissCount() {
+            return cache.stats().getMissCount();
+        }
+
+        @Override
+        public double getHitRate() {
+            return cache.stats().getHitRate();
+        }
+
+        @Override
+        public long getEvictionCount() {
+            return cache.stats().getEvictionCount();
+        }
+
+        @Override
+        public long getAverageLoadTimeMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(cache.stats().getAverageLoadTime());
+        }
+    }
+}
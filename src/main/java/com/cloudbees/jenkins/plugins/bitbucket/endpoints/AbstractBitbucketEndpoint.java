@@ -24,6 +24,7 @@
 package com.cloudbees.jenkins.plugins.bitbucket.endpoints;
 
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.EndpointConnectionPool;
 import com.cloudbees.plugins.credentials.CredentialsMatchers;
 import com.cloudbees.plugins.credentials.CredentialsProvider;
 import com.cloudbees.plugins.credentials.common.StandardCredentials;
@@ -47,6 +48,11 @@ import org.kohsuke.stapler.DataBoundSetter;
  */
 public abstract class AbstractBitbucketEndpoint extends AbstractDescribableImpl<AbstractBitbucketEndpoint> {
 
+    /**
+     * The default size, in megabytes, of the commit cache.
+     */
+    public static final int DEFAULT_COMMIT_CACHE_SIZE = 16;
+
     /**
      * {@code true} if and only if Jenkins is supposed to auto-manage hooks for this end-point.
      */
@@ -67,6 +73,16 @@ public abstract class AbstractBitbucketEndpoint extends AbstractDescribableImpl<
      */
     private String bitbucketJenkinsRootUrl;
 
+    /**
+     * How many connections to this endpoint can be open at the same time.
+     */
+    private int maxConnections = EndpointConnectionPool.DEFAULT_MAX_CONNECTIONS;
+
+    /**
+     * How much memory, in megabytes, the commits cache can use.
+     */
+    private int commitCacheSize = DEFAULT_COMMIT_CACHE_SIZE;
+
     /**
      * Constructor.
      *
@@ -133,6 +149,72 @@ public abstract class AbstractBitbucketEndpoint extends AbstractDescribableImpl<
         }
     }
 
+    /**
+     * How many connections to this endpoint can be open at the same time.
+     *
+     * @return the size of the connection pool of this endpoint
+     */
+    public int getMaxConnections() {
+        // zero when read from a configuration saved before this setting existed
+        return maxConnections > 0 ? maxConnections : EndpointConnectionPool.DEFAULT_MAX_CONNECTIONS;
+    }
+
+    @DataBoundSetter
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections > 0 ? maxConnections : EndpointConnectionPool.DEFAULT_MAX_CONNECTIONS;
+    }
+
+    /**
+     * How much memory, in megabytes, the commits cache can use.
+     *
+     * @return the size of the commits cache of this endpoint
+     */
+    public int getCommitCacheSize() {
+        // zero when read from a configuration saved before this setting existed
+        return commitCacheSize > 0 ? commitCacheSize : DEFAULT_COMMIT_CACHE_SIZE;
+    }
+
+    @DataBoundSetter
+    public void setCommitCacheSize(int commitCacheSize) {
+        this.commitCacheSize = commitCacheSize > 0 ? commitCacheSize : DEFAULT_COMMIT_CACHE_SIZE;
+    }
+
+    /**
+     * Look up in the current endpoint configurations the size of the
+     * connection pool for the serverUrl.
+     *
+     * @param serverUrl Bitbucket Server URL for the endpoint config
+     * @return the configured number of connections or the default one if
+     *         there is no endpoint for the URL
+     */
+    public static int findMaxConnections(@CheckForNull String serverUrl) {
+        if (Jenkins.getInstanceOrNull() == null) { // because unit test
+            return EndpointConnectionPool.DEFAULT_MAX_CONNECTIONS;
+        }
+        return BitbucketEndpointConfiguration.get()
+                .findEndpoint(serverUrl)
+                .map(AbstractBitbucketEndpoint::getMaxConnections)
+                .orElse(EndpointConnectionPool.DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * Look up in the current endpoint configurations the size of the commit
+     * cache for the serverUrl.
+     *
+     * @param serverUrl Bitbucket Server URL for the endpoint config
+     * @return the configured size in megabytes or the default one if there is
+     *         no endpoint for the URL
+     */
+    public static int findCommitCacheSize(@CheckForNull String serverUrl) {
+        if (Jenkins.getInstanceOrNull() == null) { // because unit test
+            return DEFAULT_COMMIT_CACHE_SIZE;
+        }
+        return BitbucketEndpointConfiguration.get()
+                .findEndpoint(serverUrl)
+                .map(AbstractBitbucketEndpoint::getCommitCacheSize)
+                .orElse(DEFAULT_COMMIT_CACHE_SIZE);
+    }
+
     /**
      * Jenkins Server Root URL to be used by this Bitbucket endpoint.
      * The global setting from Jenkins.get().getRootUrl()
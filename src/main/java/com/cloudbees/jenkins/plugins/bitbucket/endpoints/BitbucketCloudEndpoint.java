@@ -24,6 +24,9 @@
 package com.cloudbees.jenkins.plugins.bitbucket.endpoints;
 
 import com.cloudbees.jenkins.plugins.bitbucket.client.BitbucketCloudApiClient;
+import com.cloudbees.jenkins.plugins.bitbucket.hooks.HookEventQueue;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketCredentials;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.CommitPathCache;
 import com.cloudbees.plugins.credentials.common.StandardCredentials;
 import com.damnhandy.uri.template.UriTemplate;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
@@ -156,6 +159,9 @@ public class BitbucketCloudEndpoint extends AbstractBitbucketEndpoint {
         public FormValidation doShowStats() {
             Jenkins.get().checkPermission(Jenkins.MANAGE);
             List<String> stats = BitbucketCloudApiClient.stats();
+            stats.add("Webhook events: " + HookEventQueue.get().stats());
+            stats.add(BitbucketCredentials.stats());
+            stats.add(CommitPathCache.stats());
             StringBuilder builder = new StringBuilder();
             for (String stat : stats) {
                 builder.append(stat).append("<br>");
@@ -167,6 +173,8 @@ public class BitbucketCloudEndpoint extends AbstractBitbucketEndpoint {
         public FormValidation doClear() {
             Jenkins.get().checkPermission(Jenkins.MANAGE);
             BitbucketCloudApiClient.clearCaches();
+            BitbucketCredentials.clearCache();
+            CommitPathCache.clearCache();
             return FormValidation.ok("Caches cleared");
         }
     }
@@ -23,6 +23,9 @@
  */
 package com.cloudbees.jenkins.plugins.bitbucket.endpoints;
 
+import com.cloudbees.jenkins.plugins.bitbucket.client.BitbucketCloudApiClient;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.EndpointConnectionPool;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketApiUtils;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.Extension;
@@ -35,10 +38,12 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -46,6 +51,7 @@ import jenkins.model.GlobalConfiguration;
 import jenkins.model.Jenkins;
 import net.sf.json.JSONObject;
 import org.apache.commons.lang.StringUtils;
+import org.apache.hc.core5.http.HttpHost;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
 import org.kohsuke.stapler.StaplerRequest2;
@@ -64,6 +70,12 @@ public class BitbucketEndpointConfiguration extends GlobalConfiguration {
      */
     private List<AbstractBitbucketEndpoint> endpoints;
 
+    /**
+     * The endpoints as published to the readers, replaced as a whole each
+     * time the configuration changes so that lookups never wait for a writer.
+     */
+    private transient volatile Snapshot snapshot;
+
     /**
      * Constructor.
      */
@@ -71,6 +83,45 @@ public class BitbucketEndpointConfiguration extends GlobalConfiguration {
         load();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void load() {
+        super.load();
+        publish();
+    }
+
+    private void publish() {
+        Snapshot published = new Snapshot(endpoints == null || endpoints.isEmpty()
+                ? Collections.<AbstractBitbucketEndpoint>singletonList(new BitbucketCloudEndpoint(false, null))
+                : endpoints);
+        Snapshot previous = snapshot;
+        snapshot = published;
+        if (previous != null) {
+            // the connections to the servers no longer configured are closed once no client uses them
+            Set<HttpHost> removed = serverHosts(previous);
+            removed.removeAll(serverHosts(published));
+            removed.forEach(EndpointConnectionPool::evict);
+        }
+        // the commit cache of Bitbucket Cloud is shared by the cloud endpoints, the largest size wins
+        BitbucketCloudApiClient.setCommitCacheSize(published.endpoints.stream()
+                .filter(BitbucketCloudEndpoint.class::isInstance)
+                .mapToInt(AbstractBitbucketEndpoint::getCommitCacheSize)
+                .max()
+                .orElse(AbstractBitbucketEndpoint.DEFAULT_COMMIT_CACHE_SIZE));
+    }
+
+    private static Set<HttpHost> serverHosts(Snapshot snapshot) {
+        Set<HttpHost> hosts = new HashSet<>();
+        for (AbstractBitbucketEndpoint endpoint : snapshot.endpoints) {
+            if (endpoint instanceof BitbucketServerEndpoint) {
+                hosts.add(BitbucketApiUtils.toHttpHost(endpoint.getServerUrl()));
+            }
+        }
+        return hosts;
+    }
+
     /**
      * Gets the {@link BitbucketEndpointConfiguration} singleton.
      *
@@ -151,10 +202,21 @@ public class BitbucketEndpointConfiguration extends GlobalConfiguration {
      * @return the list of endpoints
      */
     @NonNull
-    public synchronized List<AbstractBitbucketEndpoint> getEndpoints() {
-        return endpoints == null || endpoints.isEmpty()
-                ? Collections.<AbstractBitbucketEndpoint>singletonList(new BitbucketCloudEndpoint(false, null))
-                : Collections.unmodifiableList(endpoints);
+    public List<AbstractBitbucketEndpoint> getEndpoints() {
+        return snapshot().endpoints;
+    }
+
+    @NonNull
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // only while the constructor is loading the configuration
+            synchronized (this) {
+                publish();
+                return snapshot;
+            }
+        }
+        return current;
     }
 
     /**
@@ -184,6 +246,7 @@ public class BitbucketEndpointConfiguration extends GlobalConfiguration {
             eps.add(new BitbucketCloudEndpoint(false, null));
         }
         this.endpoints = eps;
+        publish();
         save();
     }
 
@@ -257,14 +320,18 @@ public class BitbucketEndpointConfiguration extends GlobalConfiguration {
      * @param serverURL the server url to check.
      * @return the global configuration for the specified server url or {@code null} if not defined.
      */
-    public synchronized Optional<AbstractBitbucketEndpoint> findEndpoint(@CheckForNull String serverURL) {
-        serverURL = normalizeServerUrl(serverURL);
-        for (AbstractBitbucketEndpoint endpoint : getEndpoints()) {
-            if (Objects.equals(serverURL, endpoint.getServerUrl())) {
-                return Optional.of(endpoint);
-            }
+    public Optional<AbstractBitbucketEndpoint> findEndpoint(@CheckForNull String serverURL) {
+        if (serverURL == null) {
+            return Optional.empty();
+        }
+        Snapshot current = snapshot();
+        // callers mostly pass the URL of a configured endpoint, which is already normalized
+        AbstractBitbucketEndpoint endpoint = current.byServerUrl.get(serverURL);
+        if (endpoint == null) {
+            String normalizedURL = normalizeServerUrl(serverURL);
+            endpoint = normalizedURL == null ? null : current.byServerUrl.get(normalizedURL);
         }
-        return Optional.empty();
+        return Optional.ofNullable(endpoint);
     }
 
     /**
@@ -274,15 +341,15 @@ public class BitbucketEndpointConfiguration extends GlobalConfiguration {
      * @param clazz the class to check.
      * @return the global configuration for the specified server url or {@code null} if not defined.
      */
-    public synchronized <T extends AbstractBitbucketEndpoint> Optional<T> findEndpoint(@CheckForNull String serverURL,
-                                                                                       Class<T> clazz) {
+    public <T extends AbstractBitbucketEndpoint> Optional<T> findEndpoint(@CheckForNull String serverURL,
+                                                                          Class<T> clazz) {
         return findEndpoint(serverURL)
             .filter(clazz::isInstance)
             .map(clazz::cast);
     }
 
     @NonNull
-    public synchronized AbstractBitbucketEndpoint getDefaultEndpoint() {
+    public AbstractBitbucketEndpoint getDefaultEndpoint() {
         return getEndpoints().get(0);
     }
 
@@ -328,4 +395,21 @@ public class BitbucketEndpointConfiguration extends GlobalConfiguration {
         return serverURL.replaceAll("/$", "");
     }
 
+    /**
+     * An immutable copy of the endpoints indexed by server URL.
+     */
+    private static final class Snapshot {
+        private final List<AbstractBitbucketEndpoint> endpoints;
+        private final Map<String, AbstractBitbucketEndpoint> byServerUrl;
+
+        Snapshot(List<AbstractBitbucketEndpoint> endpoints) {
+            this.endpoints = Collections.unmodifiableList(new ArrayList<>(endpoints));
+            Map<String, AbstractBitbucketEndpoint> index = new HashMap<>();
+            for (AbstractBitbucketEndpoint endpoint : this.endpoints) {
+                // keep the first one like the lookup did when the list was scanned
+                index.putIfAbsent(endpoint.getServerUrl(), endpoint);
+            }
+            this.byServerUrl = index;
+        }
+    }
 }
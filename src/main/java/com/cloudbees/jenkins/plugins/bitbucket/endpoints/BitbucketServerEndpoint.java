@@ -23,8 +23,12 @@
  */
 package com.cloudbees.jenkins.plugins.bitbucket.endpoints;
 
+import com.cloudbees.jenkins.plugins.bitbucket.hooks.HookEventQueue;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketCredentials;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.CommitPathCache;
 import com.cloudbees.jenkins.plugins.bitbucket.server.BitbucketServerVersion;
 import com.cloudbees.jenkins.plugins.bitbucket.server.BitbucketServerWebhookImplementation;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.BitbucketServerAPIClient;
 import com.cloudbees.plugins.credentials.common.StandardCredentials;
 import com.damnhandy.uri.template.UriTemplate;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
@@ -37,6 +41,7 @@ import hudson.util.ListBoxModel;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Objects;
+import jenkins.model.Jenkins;
 import jenkins.scm.api.SCMName;
 import org.apache.commons.lang.StringUtils;
 import org.kohsuke.accmod.Restricted;
@@ -44,6 +49,7 @@ import org.kohsuke.accmod.restrictions.NoExternalUse;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.verb.POST;
 
 import static java.util.Objects.requireNonNull;
 
@@ -67,6 +73,11 @@ public class BitbucketServerEndpoint extends AbstractBitbucketEndpoint {
             "source."
     };
 
+    /**
+     * Upper bound of the pages requested at the same time, below the connections allowed per route.
+     */
+    public static final int MAX_CONCURRENT_PAGE_REQUESTS = 8;
+
     /**
      * Optional name to use to describe the end-point.
      */
@@ -97,6 +108,11 @@ public class BitbucketServerEndpoint extends AbstractBitbucketEndpoint {
      */
     private boolean callChanges = true;
 
+    /**
+     * How many pages of a paged resource are requested at the same time, {@code 1} fetches them one after the other.
+     */
+    private int concurrentPageRequests = 1;
+
     /**
      * @param displayName   Optional name to use to describe the end-point.
      * @param serverUrl     The URL of this Bitbucket Server
@@ -162,6 +178,22 @@ public class BitbucketServerEndpoint extends AbstractBitbucketEndpoint {
                 .orElse(BitbucketServerVersion.VERSION_7);
     }
 
+    public int getConcurrentPageRequests() {
+        return concurrentPageRequests;
+    }
+
+    @DataBoundSetter
+    public void setConcurrentPageRequests(int concurrentPageRequests) {
+        this.concurrentPageRequests = Math.max(1, Math.min(concurrentPageRequests, MAX_CONCURRENT_PAGE_REQUESTS));
+    }
+
+    public static int findConcurrentPageRequests(String serverUrl) {
+        return BitbucketEndpointConfiguration.get()
+                .findEndpoint(serverUrl, BitbucketServerEndpoint.class)
+                .map(BitbucketServerEndpoint::getConcurrentPageRequests)
+                .orElse(1);
+    }
+
     @NonNull
     public BitbucketServerVersion getServerVersion() {
         return this.serverVersion;
@@ -214,6 +246,9 @@ public class BitbucketServerEndpoint extends AbstractBitbucketEndpoint {
         if (serverVersion == null) {
             serverVersion = BitbucketServerVersion.VERSION_7;
         }
+        if (concurrentPageRequests <= 0) {
+            concurrentPageRequests = 1;
+        }
 
         return this;
     }
@@ -262,6 +297,31 @@ public class BitbucketServerEndpoint extends AbstractBitbucketEndpoint {
             return items;
         }
 
+        @Restricted(NoExternalUse.class)
+        public FormValidation doShowStats(@QueryParameter String serverUrl) {
+            Jenkins.get().checkPermission(Jenkins.MANAGE);
+            String normalizedUrl = BitbucketEndpointConfiguration.normalizeServerUrl(serverUrl);
+            String stats = BitbucketServerAPIClient.stats(normalizedUrl);
+            String connections = BitbucketServerAPIClient.connectionStats(normalizedUrl);
+            String responses = BitbucketServerAPIClient.responseStats();
+            String coalesced = BitbucketServerAPIClient.coalescedStats();
+            return FormValidation.okWithMarkup(Util.escape(stats) + "<br>" + Util.escape(connections)
+                    + "<br>" + Util.escape(responses) + "<br>" + Util.escape(coalesced)
+                    + "<br>" + Util.escape("Webhook events: " + HookEventQueue.get().stats())
+                    + "<br>" + Util.escape(BitbucketCredentials.stats())
+                    + "<br>" + Util.escape(CommitPathCache.stats()));
+        }
+
+        @POST
+        @Restricted(NoExternalUse.class)
+        public FormValidation doClear(@QueryParameter String serverUrl) {
+            Jenkins.get().checkPermission(Jenkins.MANAGE);
+            BitbucketServerAPIClient.clearCaches(BitbucketEndpointConfiguration.normalizeServerUrl(serverUrl));
+            BitbucketCredentials.clearCache();
+            CommitPathCache.clearCache();
+            return FormValidation.ok("Caches cleared");
+        }
+
         /**
          * Checks that the supplied URL is valid.
          *
@@ -32,23 +32,16 @@ import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApiFactory;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
 import com.cloudbees.jenkins.plugins.bitbucket.endpoints.BitbucketServerEndpoint;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketApiUtils;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketCredentials;
 import com.cloudbees.jenkins.plugins.bitbucket.server.BitbucketServerVersion;
-import com.cloudbees.plugins.credentials.CredentialsMatchers;
-import com.cloudbees.plugins.credentials.CredentialsProvider;
-import com.cloudbees.plugins.credentials.common.StandardCredentials;
-import com.cloudbees.plugins.credentials.domains.URIRequirementBuilder;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.Extension;
-import hudson.Util;
 import hudson.model.Item;
-import hudson.model.Queue;
 import hudson.scm.SCM;
 import hudson.scm.SCMDescriptor;
-import hudson.security.ACL;
 import java.io.IOException;
 import java.lang.annotation.Inherited;
-import jenkins.authentication.tokens.api.AuthenticationTokens;
 import jenkins.scm.api.SCMFile;
 import jenkins.scm.api.SCMFileSystem;
 import jenkins.scm.api.SCMHead;
@@ -113,30 +106,6 @@ public class BitbucketSCMFileSystem extends SCMFileSystem {
             return null;
         }
 
-        private static StandardCredentials lookupScanCredentials(@CheckForNull Item context,
-                                                                 @CheckForNull String scanCredentialsId,
-                                                                 String serverURL) {
-            scanCredentialsId = Util.fixEmpty(scanCredentialsId);
-            if (scanCredentialsId == null) {
-                return null;
-            } else {
-                return CredentialsMatchers.firstOrNull(
-                        CredentialsProvider.lookupCredentialsInItem(
-                                StandardCredentials.class,
-                                context,
-                                context instanceof Queue.Task task
-                                        ? task.getDefaultAuthentication2()
-                                        : ACL.SYSTEM2,
-                                URIRequirementBuilder.fromUri(serverURL).build()
-                        ),
-                        CredentialsMatchers.allOf(
-                                CredentialsMatchers.withId(scanCredentialsId),
-                                AuthenticationTokens.matcher(BitbucketAuthenticator.authenticationContext(serverURL))
-                        )
-                );
-            }
-        }
-
         @Override
         public SCMFileSystem build(@NonNull SCMSource source, @NonNull SCMHead head, @CheckForNull SCMRevision rev)
                 throws IOException, InterruptedException {
@@ -146,9 +115,7 @@ public class BitbucketSCMFileSystem extends SCMFileSystem {
             String owner = src.getRepoOwner();
             String repository = src.getRepository();
             String serverUrl = src.getServerUrl();
-            StandardCredentials credentials = lookupScanCredentials(src.getOwner(), credentialsId, serverUrl);
-
-            BitbucketAuthenticator authenticator = AuthenticationTokens.convert(BitbucketAuthenticator.authenticationContext(serverUrl), credentials);
+            BitbucketAuthenticator authenticator = BitbucketCredentials.lookupAuthenticator(serverUrl, src.getOwner(), credentialsId);
 
             BitbucketApi apiClient = BitbucketApiFactory.newInstance(serverUrl, authenticator, owner, null, repository);
             String ref = null;
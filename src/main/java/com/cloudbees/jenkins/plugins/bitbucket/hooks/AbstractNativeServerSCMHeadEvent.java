@@ -35,7 +35,6 @@ import java.util.Collections;
 import java.util.Map;
 import jenkins.scm.api.SCMHead;
 import jenkins.scm.api.SCMHeadEvent;
-import jenkins.scm.api.SCMHeadObserver;
 import jenkins.scm.api.SCMNavigator;
 import jenkins.scm.api.SCMRevision;
 import jenkins.scm.api.SCMSource;
@@ -99,7 +98,7 @@ abstract class AbstractNativeServerSCMHeadEvent<P> extends SCMHeadEvent<P> {
     }
 
     protected BitbucketSCMSourceContext contextOf(BitbucketSCMSource source) {
-        return new BitbucketSCMSourceContext(null, SCMHeadObserver.none()).withTraits(source.getTraits());
+        return source.getTraitsContext();
     }
 
     private BitbucketSCMSource getMatchingBitbucketSource(SCMSource source) {
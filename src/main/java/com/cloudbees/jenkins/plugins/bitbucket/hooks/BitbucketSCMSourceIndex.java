@@ -0,0 +1,230 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.hooks;
+
+import com.cloudbees.jenkins.plugins.bitbucket.BitbucketSCMSource;
+import com.cloudbees.jenkins.plugins.bitbucket.endpoints.BitbucketEndpointConfiguration;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.XmlFile;
+import hudson.model.Item;
+import hudson.model.Saveable;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.SaveableListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import jenkins.scm.api.SCMSource;
+import jenkins.scm.api.SCMSourceOwner;
+import jenkins.scm.api.SCMSourceOwners;
+import org.apache.commons.lang.StringUtils;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Index of the {@link SCMSourceOwner}s by the Bitbucket repositories their
+ * {@link BitbucketSCMSource}s refer to.
+ * <p>
+ * Hooks resolve the sources of a repository without walking every item of
+ * the instance. The index is built when items are loaded and kept up to date
+ * when items are created, updated, saved or deleted. Matches are verified
+ * against the current configuration of the sources so an item changed
+ * without notification is never reported for a repository it no longer
+ * refers to.
+ */
+@Restricted(NoExternalUse.class)
+@Extension
+public class BitbucketSCMSourceIndex extends ItemListener {
+
+    private final Map<Key, Set<SCMSourceOwner>> ownersByRepository = new ConcurrentHashMap<>();
+    private final Map<SCMSourceOwner, Set<Key>> repositoriesByOwner = new ConcurrentHashMap<>();
+    private volatile boolean initialized;
+
+    @NonNull
+    public static BitbucketSCMSourceIndex get() {
+        ExtensionList<BitbucketSCMSourceIndex> all = ExtensionList.lookup(BitbucketSCMSourceIndex.class);
+        // outside of a running Jenkins there is no item to index
+        return all.isEmpty() ? new BitbucketSCMSourceIndex() : all.get(0);
+    }
+
+    /**
+     * Returns the sources that refer to the given repository.
+     *
+     * @param serverUrl the server of the repository, {@code null} to match
+     *        any server
+     * @param repoOwner the repository owner, compared ignoring case
+     * @param repository the repository name
+     * @param mirrorId the mirror of the repository, {@code null} to match any
+     *        mirror
+     * @return the matching sources, attached to their owner
+     */
+    @NonNull
+    public List<BitbucketSCMSource> findSources(@CheckForNull String serverUrl,
+                                                @NonNull String repoOwner,
+                                                @NonNull String repository,
+                                                @CheckForNull String mirrorId) {
+        if (!initialized) {
+            initialize();
+        }
+        Set<SCMSourceOwner> owners = ownersByRepository.get(new Key(repoOwner, repository));
+        if (owners == null || owners.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String normalizedServerUrl = BitbucketEndpointConfiguration.normalizeServerUrl(serverUrl);
+        List<BitbucketSCMSource> result = new ArrayList<>();
+        for (SCMSourceOwner owner : owners) {
+            for (SCMSource source : owner.getSCMSources()) {
+                if (source instanceof BitbucketSCMSource scmSource
+                        && StringUtils.equalsIgnoreCase(scmSource.getRepoOwner(), repoOwner)
+                        && repository.equals(scmSource.getRepository())
+                        && (normalizedServerUrl == null || normalizedServerUrl.equals(BitbucketEndpointConfiguration.normalizeServerUrl(scmSource.getServerUrl())))
+                        && (mirrorId == null || StringUtils.equalsIgnoreCase(mirrorId, scmSource.getMirrorId()))) {
+                    result.add(scmSource);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void onLoaded() {
+        rebuild();
+    }
+
+    @Override
+    public void onCreated(Item item) {
+        update(item);
+    }
+
+    @Override
+    public void onCopied(Item src, Item item) {
+        update(item);
+    }
+
+    @Override
+    public void onUpdated(Item item) {
+        update(item);
+    }
+
+    @Override
+    public void onDeleted(Item item) {
+        if (item instanceof SCMSourceOwner owner) {
+            remove(owner);
+        }
+        // nested items are not notified when their parent is removed
+        String prefix = item.getFullName() + '/';
+        for (SCMSourceOwner owner : new ArrayList<>(repositoriesByOwner.keySet())) {
+            if (owner.getFullName().startsWith(prefix)) {
+                remove(owner);
+            }
+        }
+    }
+
+    private synchronized void initialize() {
+        if (!initialized) {
+            rebuild();
+        }
+    }
+
+    private synchronized void rebuild() {
+        ownersByRepository.clear();
+        repositoriesByOwner.clear();
+        try (ACLContext context = ACL.as2(ACL.SYSTEM2)) {
+            for (SCMSourceOwner owner : SCMSourceOwners.all()) {
+                add(owner);
+            }
+        }
+        initialized = true;
+    }
+
+    private synchronized void update(Item item) {
+        if (item instanceof SCMSourceOwner owner) {
+            remove(owner);
+            add(owner);
+        }
+    }
+
+    private synchronized void add(SCMSourceOwner owner) {
+        Set<Key> keys = new HashSet<>();
+        for (SCMSource source : owner.getSCMSources()) {
+            if (source instanceof BitbucketSCMSource scmSource) {
+                keys.add(new Key(scmSource.getRepoOwner(), scmSource.getRepository()));
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        repositoriesByOwner.put(owner, keys);
+        for (Key key : keys) {
+            ownersByRepository.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(owner);
+        }
+    }
+
+    private synchronized void remove(SCMSourceOwner owner) {
+        Set<Key> keys = repositoriesByOwner.remove(owner);
+        if (keys == null) {
+            return;
+        }
+        for (Key key : keys) {
+            ownersByRepository.computeIfPresent(key, (k, owners) -> {
+                owners.remove(owner);
+                return owners.isEmpty() ? null : owners;
+            });
+        }
+    }
+
+    /**
+     * Updates the index when the configuration of an {@link SCMSourceOwner}
+     * is saved, for example when an organization folder changes the sources
+     * of its projects.
+     */
+    @Extension
+    public static class SaveListener extends SaveableListener {
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof SCMSourceOwner owner) {
+                get().update(owner);
+            }
+        }
+    }
+
+    /**
+     * Bitbucket matches the repository owner regardless of the case.
+     */
+    private record Key(String owner, String repository) {
+        Key {
+            owner = StringUtils.defaultString(owner).toLowerCase(Locale.ENGLISH);
+            repository = StringUtils.defaultString(repository);
+        }
+    }
+}
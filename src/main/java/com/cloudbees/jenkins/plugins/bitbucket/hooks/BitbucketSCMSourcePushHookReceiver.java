@@ -39,6 +39,7 @@ import jenkins.scm.api.SCMEvent;
 import org.apache.commons.io.IOUtils;
 import org.kohsuke.stapler.HttpResponse;
 import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
 
 /**
  * Process Bitbucket push and pull requests creations/updates hooks.
@@ -69,6 +70,10 @@ public class BitbucketSCMSourcePushHookReceiver extends CrumbExclusion implement
 
     /**
      * Receives Bitbucket push notifications.
+     * <p>
+     * The request is validated and the event queued, it is parsed and
+     * dispatched later by a worker of the {@link HookEventQueue}. When the
+     * queue is full, Bitbucket is asked to deliver the event again later.
      *
      * @param req Stapler request. It contains the payload in the body content
      *          and a header param "X-Event-Key" pointing to the event type.
@@ -77,7 +82,6 @@ public class BitbucketSCMSourcePushHookReceiver extends CrumbExclusion implement
      */
     public HttpResponse doNotify(StaplerRequest2 req) throws IOException {
         String origin = SCMEvent.originOf(req);
-        String body = IOUtils.toString(req.getInputStream(), StandardCharsets.UTF_8);
         String eventKey = req.getHeader("X-Event-Key");
         if (eventKey == null) {
             return HttpResponses.error(HttpServletResponse.SC_BAD_REQUEST, "X-Event-Key HTTP header not found");
@@ -101,13 +105,27 @@ public class BitbucketSCMSourcePushHookReceiver extends CrumbExclusion implement
             LOGGER.log(Level.FINE, "X-Bitbucket-Type header / server_url request parameter not found. Bitbucket Cloud webhook incoming.");
         }
 
+        String body = IOUtils.toString(req.getInputStream(), StandardCharsets.UTF_8);
         HookProcessor hookProcessor = getHookProcessor(type);
-        try {
-            hookProcessor.process(type, body, instanceType, origin, serverUrl);
-        } catch (AbstractMethodError e) {
-            hookProcessor.process(body, instanceType);
+        BitbucketType bitbucketType = instanceType;
+        boolean queued = getEventQueue().offer(() -> {
+            try {
+                hookProcessor.process(type, body, bitbucketType, origin, serverUrl);
+            } catch (AbstractMethodError e) {
+                hookProcessor.process(body, bitbucketType);
+            }
+        });
+        if (!queued) {
+            LOGGER.log(Level.WARNING, "Bitbucket hook {0} from {1} rejected, too many events are waiting to be processed.",
+                    new Object[] {eventKey, origin});
+            return new RetryLater(HookEventQueue.RETRY_AFTER_SECONDS);
         }
-        return HttpResponses.ok();
+        return HttpResponses.status(HttpServletResponse.SC_ACCEPTED);
+    }
+
+    /* For test purpose */
+    HookEventQueue getEventQueue() {
+        return HookEventQueue.get();
     }
 
     /* For test purpose */
@@ -125,4 +143,24 @@ public class BitbucketSCMSourcePushHookReceiver extends CrumbExclusion implement
         return null;
     }
 
+    /**
+     * Back-pressure response, the service is unavailable until the queue of
+     * events drains.
+     */
+    static final class RetryLater implements HttpResponse {
+        private final int retryAfterSeconds;
+
+        RetryLater(int retryAfterSeconds) {
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        @Override
+        public void generateResponse(StaplerRequest2 req, StaplerResponse2 rsp, Object node) throws IOException, ServletException {
+            rsp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            rsp.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            rsp.setContentType("text/plain;charset=UTF-8");
+            rsp.getWriter().print("Too many events are waiting to be processed, retry later.");
+        }
+    }
+
 }
@@ -0,0 +1,146 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.hooks;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Bounded queue of the webhook events received, drained by a pool of
+ * workers that parse and dispatch them.
+ * <p>
+ * The number of workers and the capacity of the queue can be set with the
+ * system properties {@code com.cloudbees.jenkins.plugins.bitbucket.hooks.HookEventQueue.workers}
+ * and {@code com.cloudbees.jenkins.plugins.bitbucket.hooks.HookEventQueue.capacity}.
+ */
+@Restricted(NoExternalUse.class)
+public final class HookEventQueue {
+
+    private static final Logger LOGGER = Logger.getLogger(HookEventQueue.class.getName());
+
+    private static final int WORKERS = Math.max(1, Integer.getInteger(HookEventQueue.class.getName() + ".workers", 2));
+
+    private static final int CAPACITY = Math.max(1, Integer.getInteger(HookEventQueue.class.getName() + ".capacity", 1000));
+
+    /**
+     * Seconds Bitbucket is asked to wait before delivering again an event
+     * rejected because the queue is full.
+     */
+    static final int RETRY_AFTER_SECONDS = Integer.getInteger(HookEventQueue.class.getName() + ".retryAfterSeconds", 30);
+
+    private static final HookEventQueue INSTANCE = new HookEventQueue(WORKERS, CAPACITY);
+
+    private final ThreadPoolExecutor executor;
+
+    private final int capacity;
+
+    private final LongAdder acceptedCount = new LongAdder();
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private final LongAdder processedCount = new LongAdder();
+
+    private final LongAdder failedCount = new LongAdder();
+
+    private final LongAdder totalLatency = new LongAdder();
+
+    private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0L);
+
+    HookEventQueue(int workers, int capacity) {
+        this.capacity = capacity;
+        this.executor = new ThreadPoolExecutor(workers, workers, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                new NamingThreadFactory(new DaemonThreadFactory(), HookEventQueue.class.getName()));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static HookEventQueue get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Queues an event to be processed by a worker.
+     *
+     * @param event the processing of the event
+     * @return {@code false} if the queue is full and the event was dropped
+     */
+    public boolean offer(Runnable event) {
+        final long enqueued = System.nanoTime();
+        try {
+            executor.execute(() -> process(event, enqueued));
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            return false;
+        }
+        acceptedCount.increment();
+        return true;
+    }
+
+    private void process(Runnable event, long enqueued) {
+        try {
+            event.run();
+            processedCount.increment();
+        } catch (RuntimeException e) {
+            failedCount.increment();
+            LOGGER.log(Level.WARNING, "Failed to process a Bitbucket webhook event", e);
+        } finally {
+            // the time from the delivery of the event to the end of its processing
+            long latency = System.nanoTime() - enqueued;
+            totalLatency.add(latency);
+            maxLatency.accumulate(latency);
+        }
+    }
+
+    /**
+     * @return the number of events waiting for a worker.
+     */
+    public int size() {
+        return executor.getQueue().size();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public String stats() {
+        long processed = processedCount.sum();
+        long failed = failedCount.sum();
+        long done = processed + failed;
+        return String.format("%d of %d events queued, %d accepted, %d rejected, %d processed, %d failed, average latency %d ms, max latency %d ms.",
+                size(), capacity, acceptedCount.sum(), rejectedCount.sum(), processed, failed,
+                NANOSECONDS.toMillis(done == 0 ? 0L : totalLatency.sum() / done), NANOSECONDS.toMillis(maxLatency.get()));
+    }
+}
@@ -31,11 +31,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jenkins.scm.api.SCMHeadEvent;
-import jenkins.scm.api.SCMSource;
 import jenkins.scm.api.SCMSourceOwner;
-import jenkins.scm.api.SCMSourceOwners;
 import jenkins.util.SystemProperties;
-import org.apache.commons.lang.StringUtils;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
 
@@ -97,25 +94,31 @@ public abstract class HookProcessor {
      * @param mirrorId the mirror id if applicable, may be null
      */
     protected void scmSourceReIndex(final String owner, final String repository, final String mirrorId) {
+        scmSourceReIndex(null, owner, repository, mirrorId);
+    }
+
+    /**
+     * To be called by implementations once the server, the owner and the repository have been extracted from the payload.
+     *
+     * @param serverUrl the server URL of the repository, may be null to reindex the repository on any server
+     * @param owner the repository owner as configured in the SCMSource
+     * @param repository the repository name as configured in the SCMSource
+     * @param mirrorId the mirror id if applicable, may be null
+     */
+    protected void scmSourceReIndex(final String serverUrl, final String owner, final String repository, final String mirrorId) {
         try (ACLContext context = ACL.as2(ACL.SYSTEM2)) {
-            boolean reindexed = false;
-            for (SCMSourceOwner scmOwner : SCMSourceOwners.all()) {
-                List<SCMSource> sources = scmOwner.getSCMSources();
-                for (SCMSource source : sources) {
-                    // Search for the correct SCM source
-                    if (source instanceof BitbucketSCMSource scmSource
-                            && StringUtils.equalsIgnoreCase(scmSource.getRepoOwner(), owner)
-                            && scmSource.getRepository().equals(repository)
-                            && (mirrorId == null || StringUtils.equalsIgnoreCase(mirrorId, scmSource.getMirrorId()))) {
-                        LOGGER.log(Level.INFO, "Multibranch project found, reindexing " + scmOwner.getName());
-                        // TODO: SCMSourceOwner.onSCMSourceUpdated is deprecated. We may explore options with an
-                        //  SCMEventListener extension and firing SCMSourceEvents.
-                        scmOwner.onSCMSourceUpdated(source);
-                        reindexed = true;
-                    }
+            List<BitbucketSCMSource> sources = BitbucketSCMSourceIndex.get().findSources(serverUrl, owner, repository, mirrorId);
+            for (BitbucketSCMSource source : sources) {
+                SCMSourceOwner scmOwner = source.getOwner();
+                if (scmOwner == null) {
+                    continue;
                 }
+                LOGGER.log(Level.INFO, "Multibranch project found, reindexing " + scmOwner.getName());
+                // TODO: SCMSourceOwner.onSCMSourceUpdated is deprecated. We may explore options with an
+                //  SCMEventListener extension and firing SCMSourceEvents.
+                scmOwner.onSCMSourceUpdated(source);
             }
-            if (!reindexed) {
+            if (sources.isEmpty()) {
                 LOGGER.log(Level.INFO, "No multibranch project matching for reindex on {0}/{1}", new Object[] {owner, repository});
             }
         }
@@ -79,7 +79,7 @@ public class NativeServerPushHookProcessor extends HookProcessor {
                     LOGGER.log(Level.INFO, "Received mirror synchronized event with refLimitExceeded from Bitbucket. Processing with indexing on {0}/{1}. " +
                             "You may skip this scan by adding the system property -D{2}=false on startup.",
                         new Object[]{owner, repositoryName, SCAN_ON_EMPTY_CHANGES_PROPERTY_NAME});
-                    scmSourceReIndex(owner, repositoryName, mirrorId);
+                    scmSourceReIndex(serverUrl, owner, repositoryName, mirrorId);
                     return;
                 }
             } else {
@@ -97,7 +97,7 @@ public class NativeServerPushHookProcessor extends HookProcessor {
                 LOGGER.log(Level.INFO, "Received push hook with empty changes from Bitbucket. Processing indexing on {0}/{1}. " +
                         "You may skip this scan by adding the system property -D{2}=false on startup.",
                     new Object[]{owner, repositoryName, SCAN_ON_EMPTY_CHANGES_PROPERTY_NAME});
-                scmSourceReIndex(owner, repositoryName, mirrorId);
+                scmSourceReIndex(serverUrl, owner, repositoryName, mirrorId);
             } else {
                 LOGGER.log(Level.INFO, "Received push hook with empty changes from Bitbucket for {0}/{1}. Skipping.",
                     new Object[]{owner, repositoryName});
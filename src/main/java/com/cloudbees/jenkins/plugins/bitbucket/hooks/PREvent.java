@@ -39,7 +39,6 @@ import java.util.Map;
 import java.util.Set;
 import jenkins.plugins.git.AbstractGitSCMSource;
 import jenkins.scm.api.SCMHead;
-import jenkins.scm.api.SCMHeadObserver;
 import jenkins.scm.api.SCMHeadOrigin;
 import jenkins.scm.api.SCMRevision;
 import jenkins.scm.api.SCMSource;
@@ -88,8 +87,7 @@ final class PREvent extends AbstractSCMHeadEvent<BitbucketPullRequestEvent> impl
             return Collections.emptyMap();
         }
 
-        BitbucketSCMSourceContext ctx = new BitbucketSCMSourceContext(null, SCMHeadObserver.none())
-                .withTraits(src.getTraits());
+        BitbucketSCMSourceContext ctx = src.getTraitsContext();
         if (!ctx.wantPRs()) {
             // doesn't want PRs, let the push event handle origin branches
             return Collections.emptyMap();
@@ -26,6 +26,7 @@ package com.cloudbees.jenkins.plugins.bitbucket.hooks;
 import com.cloudbees.jenkins.plugins.bitbucket.BitbucketSCMSource;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketPushEvent;
 import com.cloudbees.jenkins.plugins.bitbucket.client.BitbucketCloudWebhookPayload;
+import com.cloudbees.jenkins.plugins.bitbucket.endpoints.BitbucketCloudEndpoint;
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.BitbucketServerWebhookPayload;
 import hudson.RestrictedSince;
 import java.util.logging.Level;
@@ -59,7 +60,9 @@ public class PushHookProcessor extends HookProcessor {
                         LOGGER.log(Level.INFO, "Received push hook with empty changes from Bitbucket. Processing indexing on {0}/{1}. " +
                                 "You may skip this scan by adding the system property -D{2}=false on startup.",
                             new Object[]{owner, repository, SCAN_ON_EMPTY_CHANGES_PROPERTY_NAME});
-                        scmSourceReIndex(owner, repository, null);
+                        // plugin webhooks of Bitbucket Server do not tell which server sent them
+                        String serverUrl = instanceType == BitbucketType.CLOUD ? BitbucketCloudEndpoint.SERVER_URL : null;
+                        scmSourceReIndex(serverUrl, owner, repository, null);
                     } else {
                         LOGGER.log(Level.INFO, "Received push hook with empty changes from Bitbucket for {0}/{1}. Skipping.",
                             new Object[]{owner, repository});
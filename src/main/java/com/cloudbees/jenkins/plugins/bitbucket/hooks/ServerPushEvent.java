@@ -39,7 +39,6 @@ import com.cloudbees.jenkins.plugins.bitbucket.server.client.BitbucketServerAPIC
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.pullrequest.BitbucketServerPullRequest;
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.repository.BitbucketServerRepository;
 import com.cloudbees.jenkins.plugins.bitbucket.server.events.NativeServerChange;
-import com.cloudbees.plugins.credentials.common.StandardCredentials;
 import com.google.common.base.Ascii;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -54,7 +53,6 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import jenkins.authentication.tokens.api.AuthenticationTokens;
 import jenkins.plugins.git.AbstractGitSCMSource;
 import jenkins.scm.api.SCMEvent;
 import jenkins.scm.api.SCMHead;
@@ -172,13 +170,11 @@ final class ServerPushEvent extends AbstractNativeServerSCMHeadEvent<Collection<
     protected BitbucketApi getClient(BitbucketSCMSource src) {
         String serverURL = src.getServerUrl();
 
-        StandardCredentials credentials = BitbucketCredentials.lookupCredentials(
+        BitbucketAuthenticator authenticator = BitbucketCredentials.lookupAuthenticator(
             serverURL,
             src.getOwner(),
-            src.getCredentialsId(),
-            StandardCredentials.class
+            src.getCredentialsId()
         );
-        BitbucketAuthenticator authenticator = AuthenticationTokens.convert(BitbucketAuthenticator.authenticationContext(serverURL), credentials);
         return BitbucketApiFactory.newInstance(serverURL, authenticator, src.getRepoOwner(), null, src.getRepository());
     }
 
@@ -24,7 +24,6 @@
 package com.cloudbees.jenkins.plugins.bitbucket.hooks;
 
 import com.cloudbees.jenkins.plugins.bitbucket.BitbucketSCMSource;
-import com.cloudbees.jenkins.plugins.bitbucket.BitbucketSCMSourceContext;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApi;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApiFactory;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketWebHook;
@@ -43,11 +42,8 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import jenkins.scm.api.SCMHeadObserver;
 import jenkins.scm.api.SCMSource;
 import jenkins.scm.api.SCMSourceOwner;
-import jenkins.scm.api.SCMSourceOwners;
-import org.apache.commons.lang.StringUtils;
 
 /**
  * {@link SCMSourceOwner} item listener that traverse the list of {@link SCMSource} and register
@@ -134,9 +130,7 @@ public class WebhookAutoRegisterListener extends ItemListener {
                 registerHook(source);
             } else {
                 // only complain about being unable to register the hook if someone wants the hook registered.
-                switch (new BitbucketSCMSourceContext(null, SCMHeadObserver.none())
-                        .withTraits(source.getTraits())
-                        .webhookRegistration()) {
+                switch (source.getTraitsContext().webhookRegistration()) {
                     case DISABLE:
                         continue;
                     case SYSTEM:
@@ -171,9 +165,7 @@ public class WebhookAutoRegisterListener extends ItemListener {
                 .findFirst()
                 .orElse(null);
 
-        WebhookConfiguration hookConfig = new BitbucketSCMSourceContext(null, SCMHeadObserver.none())
-            .withTraits(source.getTraits())
-            .webhookConfiguration();
+        WebhookConfiguration hookConfig = source.getTraitsContext().webhookConfiguration();
         if (existingHook == null) {
             LOGGER.log(Level.INFO, "Registering hook for {0}/{1}", new Object[]{source.getRepoOwner(), source.getRepository()});
             bitbucket.registerCommitWebHook(hookConfig.getHook(source));
@@ -197,7 +189,7 @@ public class WebhookAutoRegisterListener extends ItemListener {
                         break;
                     }
                 }
-                if (hook != null && !isUsedSomewhereElse(owner, source.getRepoOwner(), source.getRepository())) {
+                if (hook != null && !isUsedSomewhereElse(owner, source)) {
                     LOGGER.log(Level.INFO, "Removing hook for {0}/{1}",
                             new Object[]{source.getRepoOwner(), source.getRepository()});
                     bitbucket.removeCommitWebHook(hook);
@@ -210,9 +202,7 @@ public class WebhookAutoRegisterListener extends ItemListener {
     }
 
     private BitbucketApi bitbucketApiFor(BitbucketSCMSource source) {
-        switch (new BitbucketSCMSourceContext(null, SCMHeadObserver.none())
-                .withTraits(source.getTraits())
-                .webhookRegistration()) {
+        switch (source.getTraitsContext().webhookRegistration()) {
             case DISABLE:
                 return null;
             case SYSTEM:
@@ -235,17 +225,10 @@ public class WebhookAutoRegisterListener extends ItemListener {
         }
     }
 
-    private boolean isUsedSomewhereElse(SCMSourceOwner owner, String repoOwner, String repoName) {
-        Iterable<SCMSourceOwner> all = SCMSourceOwners.all();
-        for (SCMSourceOwner other : all) {
-            if (owner != other) {
-                for(SCMSource otherSource : other.getSCMSources()) {
-                    if (otherSource instanceof BitbucketSCMSource bbSCMSource
-                            && StringUtils.equalsIgnoreCase(bbSCMSource.getRepoOwner(), repoOwner)
-                            && bbSCMSource.getRepository().equals(repoName)) {
-                        return true;
-                    }
-                }
+    private boolean isUsedSomewhereElse(SCMSourceOwner owner, BitbucketSCMSource source) {
+        for (BitbucketSCMSource other : BitbucketSCMSourceIndex.get().findSources(source.getServerUrl(), source.getRepoOwner(), source.getRepository(), null)) {
+            if (other.getOwner() != owner) {
+                return true;
             }
         }
         return false;
@@ -27,12 +27,10 @@ import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApi;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApiFactory;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketCredentials;
-import com.cloudbees.plugins.credentials.common.StandardCredentials;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import jenkins.authentication.tokens.api.AuthenticationTokens;
 import jenkins.model.Jenkins;
 import jenkins.scm.api.SCMNavigatorOwner;
 import jenkins.scm.impl.avatars.AvatarImage;
@@ -61,8 +59,7 @@ public class BitbucketAvatarImageSource implements AvatarImageSource {
             if (canFetch()) {
                 SCMNavigatorOwner owner = Jenkins.get().getItemByFullName(scmOwner, SCMNavigatorOwner.class);
                 if (owner != null) {
-                    StandardCredentials credentials = BitbucketCredentials.lookupCredentials(serverURL, owner, credentialsId, StandardCredentials.class);
-                    BitbucketAuthenticator authenticator = AuthenticationTokens.convert(BitbucketAuthenticator.authenticationContext(serverURL), credentials);
+                    BitbucketAuthenticator authenticator = BitbucketCredentials.lookupAuthenticator(serverURL, owner, credentialsId);
                     // projectKey and repository are not used to fetch the project avatar
                     // owner can not be null but is not used from the client to retrieve avatar image, we just need authentication
                     try (BitbucketApi client = BitbucketApiFactory.newInstance(serverURL, authenticator, "tmp", null, null)) {
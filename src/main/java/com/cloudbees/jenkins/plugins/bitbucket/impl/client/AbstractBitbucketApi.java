@@ -26,14 +26,19 @@ package com.cloudbees.jenkins.plugins.bitbucket.impl.client;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketRequestException;
 import com.cloudbees.jenkins.plugins.bitbucket.client.ClosingConnectionInputStream;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import hudson.ProxyConfiguration;
 import hudson.util.Secret;
+import java.io.ByteArrayInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.Cleaner;
 import java.net.InetSocketAddress;
 import java.net.Proxy;
 import java.nio.charset.StandardCharsets;
@@ -67,6 +72,7 @@ import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
 import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.HttpStatus;
 import org.apache.hc.core5.http.NameValuePair;
@@ -78,9 +84,14 @@ import org.kohsuke.accmod.restrictions.ProtectedExternally;
 
 @Restricted(ProtectedExternally.class)
 public abstract class AbstractBitbucketApi implements AutoCloseable {
+    // attribute set by authenticators that provide their own socket factories
+    private static final String SOCKET_FACTORY_REGISTRY = "http.socket-factory-registry";
     protected final Logger logger = Logger.getLogger(this.getClass().getName());
     private final BitbucketAuthenticator authenticator;
+    // releases the shared client of the instances that are not closed
+    private static final Cleaner CLEANER = Cleaner.create();
     private HttpClientContext context;
+    private Cleaner.Cleanable cleanable;
 
     protected AbstractBitbucketApi(BitbucketAuthenticator authenticator) {
         this.authenticator = authenticator;
@@ -149,59 +160,105 @@ public abstract class AbstractBitbucketApi implements AutoCloseable {
                 .setDefaultRequestConfig(config)
                 .evictExpiredConnections()
                 .evictIdleConnections(TimeValue.ofSeconds(2))
+                .addResponseInterceptorLast(RateLimiter.RESPONSE_INTERCEPTOR)
                 .disableCookieManagement();
 
         if (authenticator != null) {
             authenticator.configureBuilder(httpClientBuilder);
+        }
+        setupContext();
+        setClientProxyParams(httpClientBuilder);
+        return httpClientBuilder;
+    }
+
+    /**
+     * Leases a client shared with the other instances of this API that connect
+     * to the same host with the same credentials through the same proxy. The
+     * client is released when this instance is closed or garbage collected.
+     *
+     * @param host the host used to build the client when none is shared yet
+     * @return the shared client
+     */
+    @NonNull
+    protected CloseableHttpClient sharedClient(@Nullable String host) {
+        setupContext();
+        Proxy proxy = getProxy();
+        HttpClientRegistry.Key key = new HttpClientRegistry.Key(getClass(), getHost(),
+                authenticator == null ? null : authenticator.getClass().getName() + ':' + authenticator.getId(),
+                proxy == Proxy.NO_PROXY ? null : String.valueOf(proxy.address()));
+        HttpClientRegistry.Lease lease = HttpClientRegistry.acquire(key, () -> setupClientBuilder(host).build());
+        cleanable = CLEANER.register(this, lease);
+        return lease.getClient();
+    }
 
+    private void setupContext() {
+        context = null;
+        if (authenticator != null) {
             context = HttpClientContext.create();
             authenticator.configureContext(context, getHost());
         }
-        setClientProxyParams(httpClientBuilder);
-        return httpClientBuilder;
+
+        Proxy proxy = getProxy();
+        if (proxy == Proxy.NO_PROXY) {
+            return;
+        }
+        ProxyConfiguration proxyConfig = Jenkins.get().proxy;
+        String username = proxyConfig.getUserName();
+        String password = Secret.toString(proxyConfig.getSecretPassword());
+        if (StringUtils.isNotBlank(username)) {
+            logger.fine("Using proxy authentication (user=" + username + ")");
+            HttpHost proxyHttpHost = toHttpHost(proxy);
+            if (context == null) {
+                // may have been already set in com.cloudbees.jenkins.plugins.bitbucket.api.credentials.BitbucketUsernamePasswordAuthenticator.configureContext(HttpClientContext, HttpHost)
+                context = HttpClientContext.create();
+            }
+            CredentialsProvider credentialsProvider = context.getCredentialsProvider();
+            if (credentialsProvider == null) {
+                credentialsProvider = new BasicCredentialsProvider();
+                // may have been already set in com.cloudbees.jenkins.plugins.bitbucket.api.credentials.BitbucketUsernamePasswordAuthenticator.configureContext(HttpClientContext, HttpHost)
+                context.setCredentialsProvider(credentialsProvider);
+            }
+            if (credentialsProvider instanceof CredentialsStore credentialsStore) {
+                credentialsStore.setCredentials(new AuthScope(proxyHttpHost), new UsernamePasswordCredentials(username, password.toCharArray()));
+            }
+            AuthCache authCache = context.getAuthCache();
+            if (authCache == null) {
+                authCache = new BasicAuthCache();
+                context.setAuthCache(authCache);
+            }
+            authCache.put(proxyHttpHost, new BasicScheme());
+        }
     }
 
     protected void setClientProxyParams(HttpClientBuilder builder) {
+        Proxy proxy = getProxy();
+        if (proxy != Proxy.NO_PROXY) {
+            logger.fine("Jenkins proxy: " + proxy.address());
+            builder.setProxy(toHttpHost(proxy));
+        }
+    }
+
+    /**
+     * @return the proxy configured in Jenkins for the host or
+     *         {@link Proxy#NO_PROXY} for a direct connection
+     */
+    @NonNull
+    private Proxy getProxy() {
         Jenkins jenkins = Jenkins.getInstanceOrNull(); // because unit test
         ProxyConfiguration proxyConfig = jenkins != null ? jenkins.proxy : null;
-
-        final Proxy proxy;
-        if (proxyConfig != null) {
-            proxy = proxyConfig.createProxy(getHost().getHostName());
-        } else {
-            proxy = Proxy.NO_PROXY;
+        if (proxyConfig == null) {
+            return Proxy.NO_PROXY;
         }
-
-        if (proxy != Proxy.NO_PROXY && proxy.type() != Proxy.Type.DIRECT) {
-            final InetSocketAddress proxyAddress = (InetSocketAddress) proxy.address();
-            logger.fine("Jenkins proxy: " + proxy.address());
-            HttpHost proxyHttpHost = new HttpHost(proxyAddress.getHostName(), proxyAddress.getPort());
-            builder.setProxy(proxyHttpHost);
-            String username = proxyConfig.getUserName();
-            String password = Secret.toString(proxyConfig.getSecretPassword());
-            if (StringUtils.isNotBlank(username)) {
-                logger.fine("Using proxy authentication (user=" + username + ")");
-                if (context == null) {
-                    // may have been already set in com.cloudbees.jenkins.plugins.bitbucket.api.credentials.BitbucketUsernamePasswordAuthenticator.configureContext(HttpClientContext, HttpHost)
-                    context = HttpClientContext.create();
-                }
-                CredentialsProvider credentialsProvider = context.getCredentialsProvider();
-                if (credentialsProvider == null) {
-                    credentialsProvider = new BasicCredentialsProvider();
-                    // may have been already set in com.cloudbees.jenkins.plugins.bitbucket.api.credentials.BitbucketUsernamePasswordAuthenticator.configureContext(HttpClientContext, HttpHost)
-                    context.setCredentialsProvider(credentialsProvider);
-                }
-                if (credentialsProvider instanceof CredentialsStore credentialsStore) {
-                    credentialsStore.setCredentials(new AuthScope(proxyHttpHost), new UsernamePasswordCredentials(username, password.toCharArray()));
-                }
-                AuthCache authCache = context.getAuthCache();
-                if (authCache == null) {
-                    authCache = new BasicAuthCache();
-                    context.setAuthCache(authCache);
-                }
-                authCache.put(proxyHttpHost, new BasicScheme());
-            }
+        Proxy proxy = proxyConfig.createProxy(getHost().getHostName());
+        if (proxy == Proxy.NO_PROXY || proxy.type() == Proxy.Type.DIRECT) {
+            return Proxy.NO_PROXY;
         }
+        return proxy;
+    }
+
+    private static HttpHost toHttpHost(Proxy proxy) {
+        final InetSocketAddress proxyAddress = (InetSocketAddress) proxy.address();
+        return new HttpHost(proxyAddress.getHostName(), proxyAddress.getPort());
     }
 
     @CheckForNull
@@ -219,7 +276,62 @@ public abstract class AbstractBitbucketApi implements AutoCloseable {
         if (requireAuthentication && authenticator != null) {
             authenticator.configureRequest(request);
         }
-        return getClient().executeOpen(host, request, context);
+        ClassicHttpResponse response = send(host, request);
+        if (response.getCode() == HttpStatus.SC_UNAUTHORIZED
+                && requireAuthentication && authenticator != null
+                && (request.getEntity() == null || request.getEntity().isRepeatable())
+                && authenticator.invalidate(request)) {
+            // the credentials have been revoked or have expired early, retry once with the new ones
+            EntityUtils.consumeQuietly(response.getEntity());
+            response.close();
+            request.removeHeaders(HttpHeaders.AUTHORIZATION);
+            authenticator.configureRequest(request);
+            response = send(host, request);
+        }
+        return response;
+    }
+
+    private ClassicHttpResponse send(HttpHost host, HttpUriRequest request) throws IOException {
+        HttpClientContext requestContext = newRequestContext();
+        RateLimiter rateLimiter = getRateLimiter();
+        if (rateLimiter != null) {
+            rateLimiter.acquire();
+            if (requestContext == null) {
+                requestContext = HttpClientContext.create();
+            }
+            requestContext.setAttribute(RateLimiter.CONTEXT_ATTRIBUTE, rateLimiter);
+        }
+        return getClient().executeOpen(host, request, requestContext);
+    }
+
+    /**
+     * The limiter that paces the requests of this client.
+     *
+     * @return the limiter or {@code null} if the requests are not paced
+     */
+    @CheckForNull
+    protected RateLimiter getRateLimiter() {
+        return null;
+    }
+
+    /**
+     * An {@link HttpClientContext} holds the state of one execution and can not
+     * be shared by concurrent requests, each request gets its own context with
+     * the authentication state configured for this client.
+     */
+    @CheckForNull
+    private HttpClientContext newRequestContext() {
+        if (context == null) {
+            return null;
+        }
+        HttpClientContext requestContext = HttpClientContext.create();
+        requestContext.setCredentialsProvider(context.getCredentialsProvider());
+        requestContext.setAuthCache(context.getAuthCache());
+        Object socketFactoryRegistry = context.getAttribute(SOCKET_FACTORY_REGISTRY);
+        if (socketFactoryRegistry != null) {
+            requestContext.setAttribute(SOCKET_FACTORY_REGISTRY, socketFactoryRegistry);
+        }
+        return requestContext;
     }
 
     protected ClassicHttpResponse executeMethod(HttpUriRequest httpMethod) throws IOException {
@@ -254,6 +366,117 @@ public abstract class AbstractBitbucketApi implements AutoCloseable {
         return doRequest(request, true);
     }
 
+    /**
+     * Reads the content of a successful response while it is received.
+     *
+     * @param <T> the type of the value read from the content
+     */
+    @FunctionalInterface
+    protected interface ContentReader<T> {
+        T read(InputStream content) throws IOException;
+    }
+
+    /**
+     * Executes the request and reads the response content with the given
+     * reader, without buffering the whole content in memory. The content of
+     * error responses is still read to build the exception.
+     *
+     * @return the value read from the content or {@code null} if the response has no content
+     */
+    @CheckForNull
+    protected <T> T doRequest(HttpUriRequest request, ContentReader<T> reader) throws IOException {
+        try (ClassicHttpResponse response = executeMethod(getHost(), request, true)) {
+            return readResponse(request, response, reader);
+        } catch (FileNotFoundException | BitbucketRequestException | JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new IOException("Communication error for url: " + request, e);
+        }
+    }
+
+    /**
+     * Executes the GET request conditionally when the cache holds a previous
+     * response with a validator, the cached content is read again when the
+     * server answers that it has not been modified.
+     */
+    @CheckForNull
+    private <T> T doConditionalRequest(HttpGet request, String key, ResponseCache cache, ContentReader<T> reader) throws IOException {
+        ResponseCache.Entry cached = cache.lookup(key);
+        if (cached != null) {
+            if (cached.getEtag() != null) {
+                request.setHeader(HttpHeaders.IF_NONE_MATCH, cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+            }
+        }
+        try (ClassicHttpResponse response = executeMethod(getHost(), request, true)) {
+            if (response.getCode() == HttpStatus.SC_NOT_MODIFIED && cached != null) {
+                EntityUtils.consumeQuietly(response.getEntity());
+                cache.notModified();
+                return reader.read(cached.getBody());
+            }
+            Header etag = response.getFirstHeader(HttpHeaders.ETAG);
+            Header lastModified = response.getFirstHeader(HttpHeaders.LAST_MODIFIED);
+            if (response.getCode() != HttpStatus.SC_OK || etag == null && lastModified == null || isNoStore(response)) {
+                return readResponse(request, response, reader);
+            }
+            byte[] body = readResponse(request, response, InputStream::readAllBytes);
+            if (body == null) {
+                return null;
+            }
+            cache.store(key, new ResponseCache.Entry(etag == null ? null : etag.getValue(),
+                    lastModified == null ? null : lastModified.getValue(), body));
+            return reader.read(new ByteArrayInputStream(body));
+        } catch (FileNotFoundException | BitbucketRequestException | JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new IOException("Communication error for url: " + request, e);
+        }
+    }
+
+    private static boolean isNoStore(ClassicHttpResponse response) {
+        Header cacheControl = response.getFirstHeader(HttpHeaders.CACHE_CONTROL);
+        return cacheControl != null && StringUtils.containsIgnoreCase(cacheControl.getValue(), "no-store");
+    }
+
+    @CheckForNull
+    private <T> T readResponse(HttpUriRequest request, ClassicHttpResponse response, ContentReader<T> reader) throws IOException {
+        int statusCode = response.getCode();
+        if (statusCode == HttpStatus.SC_NOT_FOUND) {
+            EntityUtils.consumeQuietly(response.getEntity());
+            throw new FileNotFoundException("URL: " + request.getRequestUri());
+        }
+        if (statusCode == HttpStatus.SC_NO_CONTENT) {
+            EntityUtils.consumeQuietly(response.getEntity());
+            // 204, no content
+            return null;
+        }
+        if (statusCode != HttpStatus.SC_OK && statusCode != HttpStatus.SC_CREATED) {
+            throw buildResponseException(response, getResponseContent(response));
+        }
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            return null;
+        }
+        try (InputStream content = entity.getContent()) {
+            return reader.read(content);
+        } finally {
+            // the reader could stop before the end, drain the content to reuse the connection
+            EntityUtils.consumeQuietly(entity);
+        }
+    }
+
+    /**
+     * The cache of the responses to request again conditionally.
+     *
+     * @return the cache or {@code null} to always request the full responses
+     */
+    @CheckForNull
+    protected ResponseCache getResponseCache() {
+        return ResponseCache.get();
+    }
+
     /*
      * Caller's responsible to close the InputStream.
      */
@@ -283,9 +506,41 @@ public abstract class AbstractBitbucketApi implements AutoCloseable {
     }
 
     protected String getRequest(String path) throws IOException {
+        String content = getRequest(path, body -> IOUtils.toString(body, StandardCharsets.UTF_8));
+        // 204, no content
+        return content == null ? "" : content;
+    }
+
+    /**
+     * Parses the JSON content of the response, the response is shared with
+     * the concurrent callers of the same URL.
+     */
+    protected <T> T getRequest(String path, Class<T> type) throws IOException {
+        return getRequest(path, content -> JsonParser.toJava(content, type));
+    }
+
+    /**
+     * Parses the JSON content of the response, the response is shared with
+     * the concurrent callers of the same URL.
+     */
+    protected <T> T getRequest(String path, TypeReference<T> type) throws IOException {
+        return getRequest(path, content -> JsonParser.toJava(content, type));
+    }
+
+    private <T> T getRequest(String path, ContentReader<T> reader) throws IOException {
         HttpGet request = new HttpGet(path);
         request.setAbsoluteRequestUri(true);
-        return doRequest(request);
+        ResponseCache cache = getResponseCache();
+        String key = ResponseCache.key(getHost().toURI(), authenticator == null ? null : authenticator.getId(), path);
+        try {
+            // concurrent callers of the same URL share the response, the body
+            // is kept in memory only when one of them joined before it arrived
+            return RequestCoalescer.get().execute(key, reader::read, shared -> cache == null
+                    ? doRequest(request, shared::read)
+                    : doConditionalRequest(request, key, cache, shared::read));
+        } catch (JsonProcessingException e) {
+            throw new IOException("I/O error when parsing response from URL: " + path, e);
+        }
     }
 
     protected String postRequest(String path, List<? extends NameValuePair> params) throws IOException {
@@ -316,7 +571,12 @@ public abstract class AbstractBitbucketApi implements AutoCloseable {
 
     @Override
     public void close() throws IOException {
-        getClient().close();
+        if (cleanable != null) {
+            // the client is shared, it is closed by the registry once idle
+            cleanable.clean();
+        } else {
+            getClient().close();
+        }
     }
 
     protected BitbucketAuthenticator getAuthenticator() {
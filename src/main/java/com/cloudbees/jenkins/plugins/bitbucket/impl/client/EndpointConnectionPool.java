@@ -0,0 +1,221 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.client;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.Timeout;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * The pool of the connections to one Bitbucket endpoint, sized from the
+ * endpoint configuration.
+ * <p>
+ * Each endpoint gets its own pool so that a busy server does not starve the
+ * others. The pool records how long requests wait to lease a connection to
+ * tell when it is too small for the load.
+ * <p>
+ * The pool of an endpoint removed from the configuration is evicted, it is
+ * closed once no client uses it any more.
+ */
+@Restricted(NoExternalUse.class)
+public class EndpointConnectionPool extends PoolingHttpClientConnectionManager {
+
+    /**
+     * The default number of connections to an endpoint.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS = 20;
+
+    /**
+     * Connections allowed beyond the endpoint limit, to the other hosts
+     * reached by the clients, like the avatar servers.
+     */
+    private static final int EXTRA_CONNECTIONS = 2;
+
+    private static final Map<HttpHost, EndpointConnectionPool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * The pools evicted while clients still used them.
+     */
+    private static final Queue<EndpointConnectionPool> evicted = new ConcurrentLinkedQueue<>();
+
+    private final HttpHost host;
+
+    private final LongAdder leaseCount = new LongAdder();
+
+    private final LongAdder timeoutCount = new LongAdder();
+
+    private final LongAdder totalWaitNanos = new LongAdder();
+
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Returns the pool of the connections to the given host, creating it if
+     * there is none.
+     *
+     * @param host the host of the endpoint
+     * @param maxConnections how many connections the endpoint allows
+     * @param setup configures a new pool
+     * @return the pool resized to the given maximum of connections
+     */
+    @NonNull
+    public static EndpointConnectionPool get(@NonNull HttpHost host, int maxConnections,
+                                             @NonNull Consumer<? super EndpointConnectionPool> setup) {
+        EndpointConnectionPool pool = pools.computeIfAbsent(host, h -> {
+            EndpointConnectionPool newPool = new EndpointConnectionPool(h);
+            setup.accept(newPool);
+            return newPool;
+        });
+        pool.resize(maxConnections);
+        return pool;
+    }
+
+    /**
+     * @param host the host of the endpoint
+     * @return the pool of the connections to the host or {@code null} if no client has connected to it yet.
+     */
+    @CheckForNull
+    public static EndpointConnectionPool find(@NonNull HttpHost host) {
+        return pools.get(host);
+    }
+
+    /**
+     * Evicts the pool of the connections to the given host and the clients
+     * using it. The pool is closed as soon as no client uses it.
+     *
+     * @param host the host of an endpoint removed from the configuration
+     */
+    public static void evict(@NonNull HttpHost host) {
+        EndpointConnectionPool pool = pools.remove(host);
+        HttpClientRegistry.evict(host);
+        if (pool != null) {
+            evicted.add(pool);
+            closeEvicted();
+        }
+    }
+
+    /**
+     * Closes the evicted pools that no client uses any more.
+     */
+    static void closeEvicted() {
+        for (EndpointConnectionPool pool : evicted) {
+            if (!HttpClientRegistry.isInUse(pool.host) && evicted.remove(pool)) {
+                pool.close(CloseMode.GRACEFUL);
+            }
+        }
+    }
+
+    private EndpointConnectionPool(HttpHost host) {
+        this.host = host;
+    }
+
+    private void resize(int maxConnections) {
+        int max = maxConnections > 0 ? maxConnections : DEFAULT_MAX_CONNECTIONS;
+        if (getDefaultMaxPerRoute() != max || getMaxTotal() != max + EXTRA_CONNECTIONS) {
+            setDefaultMaxPerRoute(max);
+            setMaxTotal(max + EXTRA_CONNECTIONS);
+        }
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        LeaseRequest request = super.lease(id, route, requestTimeout, state);
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout) throws InterruptedException, ExecutionException, TimeoutException {
+                long start = System.nanoTime();
+                try {
+                    return request.get(timeout);
+                } catch (TimeoutException e) {
+                    timeoutCount.increment();
+                    throw e;
+                } finally {
+                    long wait = System.nanoTime() - start;
+                    leaseCount.increment();
+                    totalWaitNanos.add(wait);
+                    maxWaitNanos.accumulate(wait);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    /**
+     * @return how many connections have been leased since the pool was created.
+     */
+    public long getLeaseCount() {
+        return leaseCount.sum();
+    }
+
+    /**
+     * @return how many requests have given up waiting for a connection.
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    /**
+     * @return the average time, in milliseconds, spent waiting to lease a connection.
+     */
+    public long getAverageWait() {
+        long count = leaseCount.sum();
+        return count == 0 ? 0L : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum() / count);
+    }
+
+    /**
+     * @return the longest time, in milliseconds, spent waiting to lease a connection.
+     */
+    public long getMaxWait() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    public String stats() {
+        PoolStats stats = getTotalStats();
+        return String.format("%d leased, %d pending, %d available, %d max. %d leases, average wait %d ms, longest wait %d ms, %d timed out.",
+                stats.getLeased(), stats.getPending(), stats.getAvailable(), stats.getMax(),
+                getLeaseCount(), getAverageWait(), getMaxWait(), getTimeoutCount());
+    }
+}
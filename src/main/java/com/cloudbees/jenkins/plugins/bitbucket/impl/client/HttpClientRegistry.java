@@ -0,0 +1,334 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.client;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.model.PeriodicWork;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.HttpHost;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Shares the HTTP clients between the API instances that connect to the same
+ * server with the same credentials through the same proxy.
+ * <p>
+ * Building a client creates its retry strategy and the thread that evicts its
+ * idle connections, sharing it makes building an API instance cheap. Every
+ * instance leases the client and releases it when closed. A client no longer
+ * leased is closed once it has been idle for
+ * {@code com.cloudbees.jenkins.plugins.bitbucket.impl.client.HttpClientRegistry.idleTimeoutSeconds},
+ * five minutes by default.
+ */
+@Restricted(NoExternalUse.class)
+public final class HttpClientRegistry {
+
+    private static final Logger LOGGER = Logger.getLogger(HttpClientRegistry.class.getName());
+
+    private static final long IDLE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(
+            Long.getLong(HttpClientRegistry.class.getName() + ".idleTimeoutSeconds", 300));
+
+    private static final Map<Key, Entry> entries = new HashMap<>();
+
+    /**
+     * The clients evicted while leased, closed once released, guarded by {@code entries}.
+     */
+    private static final List<Entry> evicted = new ArrayList<>();
+
+    private HttpClientRegistry() {
+    }
+
+    /**
+     * Leases the client registered for the given key, building it if there
+     * is none.
+     *
+     * @param key identifies the clients that can be shared
+     * @param builder builds the client when there is none for the key
+     * @return the lease of the client, to release when no longer used
+     */
+    @NonNull
+    public static Lease acquire(@NonNull Key key, @NonNull Supplier<CloseableHttpClient> builder) {
+        List<CloseableHttpClient> idle;
+        Entry entry;
+        synchronized (entries) {
+            idle = removeIdle(System.nanoTime());
+            entry = lease(key, null);
+        }
+        closeAll(idle);
+        if (entry == null) {
+            // built outside of the lock so that releasing and cleaning other clients do not wait for it
+            CloseableHttpClient client = builder.get();
+            synchronized (entries) {
+                entry = lease(key, client);
+            }
+            if (entry.client != client) {
+                // another caller registered its client in the meantime
+                closeAll(List.of(client));
+            }
+        }
+        return new Lease(entry);
+    }
+
+    /**
+     * Closes the clients that have not been leased for longer than the idle
+     * timeout.
+     */
+    public static void closeIdle() {
+        closeIdle(System.nanoTime());
+    }
+
+    static void closeIdle(long now) {
+        List<CloseableHttpClient> idle;
+        synchronized (entries) {
+            idle = removeIdle(now);
+        }
+        closeAll(idle);
+    }
+
+    /**
+     * Evicts the clients that connect to the given host, for example when its
+     * endpoint is removed from the configuration. The clients not leased are
+     * closed now, the others once released.
+     *
+     * @param host the host of the endpoint
+     */
+    public static void evict(@NonNull HttpHost host) {
+        String uri = host.toURI();
+        List<CloseableHttpClient> unused = new ArrayList<>();
+        synchronized (entries) {
+            for (Iterator<Entry> it = entries.values().iterator(); it.hasNext();) {
+                Entry entry = it.next();
+                if (entry.key.host.equals(uri)) {
+                    it.remove();
+                    if (entry.leases == 0) {
+                        unused.add(entry.client);
+                    } else {
+                        evicted.add(entry);
+                    }
+                }
+            }
+        }
+        closeAll(unused);
+    }
+
+    /**
+     * @param host the host of an endpoint
+     * @return {@code true} if a client that connects to the host is registered or still leased.
+     */
+    public static boolean isInUse(@NonNull HttpHost host) {
+        String uri = host.toURI();
+        synchronized (entries) {
+            for (Entry entry : entries.values()) {
+                if (entry.key.host.equals(uri)) {
+                    return true;
+                }
+            }
+            for (Entry entry : evicted) {
+                if (entry.key.host.equals(uri)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * @return the number of clients registered.
+     */
+    public static int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Leases the entry registered for the key, registering the given client
+     * if there is none.
+     *
+     * @return the entry leased, {@code null} if there is none and no client is given
+     */
+    @CheckForNull
+    private static Entry lease(Key key, @CheckForNull CloseableHttpClient client) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            if (client == null) {
+                return null;
+            }
+            entry = new Entry(key, client);
+            entries.put(key, entry);
+        }
+        entry.leases++;
+        return entry;
+    }
+
+    private static List<CloseableHttpClient> removeIdle(long now) {
+        List<CloseableHttpClient> idle = new ArrayList<>();
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext();) {
+            Entry entry = it.next();
+            if (entry.leases == 0 && now - entry.releasedAt > IDLE_TIMEOUT_NANOS) {
+                it.remove();
+                idle.add(entry.client);
+            }
+        }
+        return idle;
+    }
+
+    private static void closeAll(List<CloseableHttpClient> clients) {
+        for (CloseableHttpClient client : clients) {
+            try {
+                client.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Failed to close HTTP client", e);
+            }
+        }
+    }
+
+    /**
+     * Closes the idle clients even when no API instance is built.
+     */
+    @Extension
+    public static class IdleClientsCleaner extends PeriodicWork {
+        @Override
+        public long getRecurrencePeriod() {
+            return MIN;
+        }
+
+        @Override
+        protected void doRun() {
+            closeIdle();
+            EndpointConnectionPool.closeEvicted();
+        }
+    }
+
+    private static final class Entry {
+        private final Key key;
+        private final CloseableHttpClient client;
+        // guarded by entries
+        private int leases;
+        private long releasedAt;
+
+        Entry(Key key, CloseableHttpClient client) {
+            this.key = key;
+            this.client = client;
+        }
+    }
+
+    /**
+     * The use of a shared client by an API instance.
+     */
+    public static final class Lease implements Runnable {
+        private final Entry entry;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        @NonNull
+        public CloseableHttpClient getClient() {
+            return entry.client;
+        }
+
+        /**
+         * Releases the client, only the first call has an effect.
+         */
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                boolean close;
+                synchronized (entries) {
+                    entry.leases--;
+                    entry.releasedAt = System.nanoTime();
+                    close = entry.leases == 0 && evicted.remove(entry);
+                }
+                if (close) {
+                    closeAll(List.of(entry.client));
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            release();
+        }
+    }
+
+    /**
+     * Identifies the clients that are configured the same way.
+     */
+    public static final class Key {
+        private final String type;
+        private final String host;
+        private final String authenticator;
+        private final String proxy;
+
+        /**
+         * @param type the class of the API, it configures the client
+         * @param host the server the client connects to
+         * @param authenticator the type and the credentials identifier of the authenticator, if any
+         * @param proxy the address of the proxy, if any
+         */
+        public Key(@NonNull Class<?> type, @NonNull HttpHost host, @CheckForNull String authenticator, @CheckForNull String proxy) {
+            this.type = type.getName();
+            this.host = host.toURI();
+            this.authenticator = authenticator;
+            this.proxy = proxy;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, host, authenticator, proxy);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof Key key) {
+                return type.equals(key.type) && host.equals(key.host)
+                        && Objects.equals(authenticator, key.authenticator) && Objects.equals(proxy, key.proxy);
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return type + '[' + host + ", " + authenticator + ", " + proxy + ']';
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.client;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.InterruptedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.hc.client5.http.utils.DateUtils;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpResponseInterceptor;
+import org.apache.hc.core5.http.HttpStatus;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.kohsuke.stapler.Stapler;
+
+/**
+ * Paces the requests sent with the same credentials to the same workspace to
+ * stay within the rate limit of Bitbucket Cloud.
+ * <p>
+ * Requests are not paced until Bitbucket reports that the limit is near or
+ * answers {@code 429 Too Many Requests}. From then on, and for an hour after
+ * the last of these signals, requests take a token from a bucket refilled at
+ * the rate of the limit reported by the {@code X-RateLimit-Limit} header.
+ * After a {@code 429} all the background requests wait for the
+ * {@code Retry-After} delay. Requests made while serving a web request, like
+ * filling a form, take their token without waiting so that the UI stays
+ * responsive while the scans slow down.
+ */
+@Restricted(NoExternalUse.class)
+public final class RateLimiter {
+
+    /**
+     * The attribute of the request context that holds the limiter to update with the responses.
+     */
+    static final String CONTEXT_ATTRIBUTE = RateLimiter.class.getName();
+
+    /**
+     * Updates the limiter of the request with every response received, retries included.
+     */
+    static final HttpResponseInterceptor RESPONSE_INTERCEPTOR = (response, entity, context) -> {
+        if (context.getAttribute(CONTEXT_ATTRIBUTE) instanceof RateLimiter limiter) {
+            limiter.update(response);
+        }
+    };
+
+    private static final int DEFAULT_LIMIT = Integer.getInteger(RateLimiter.class.getName() + ".defaultLimit", 1000);
+
+    private static final long DEFAULT_PAUSE_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private static final long PACING_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    private static final Map<String, RateLimiter> limiters = new ConcurrentHashMap<>();
+
+    private final String name;
+
+    // guarded by this
+    private int limit = DEFAULT_LIMIT;
+    private double tokens;
+    private long refilledAt;
+    private long pacingUntil;
+    private long pausedUntil;
+    private boolean pacing;
+    private int waiting;
+
+    private final LongAdder throttledCount = new LongAdder();
+
+    private final LongAdder throttledNanos = new LongAdder();
+
+    private final LongAdder tooManyRequestsCount = new LongAdder();
+
+    RateLimiter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the limiter of the requests sent with the given credentials to
+     * the given workspace.
+     *
+     * @param workspace the workspace of the requests
+     * @param credentialsId the credentials of the requests or {@code null} for anonymous requests
+     * @return the limiter
+     */
+    @NonNull
+    public static RateLimiter get(@NonNull String workspace, @CheckForNull String credentialsId) {
+        String name = workspace + '/' + (credentialsId == null ? "anonymous" : credentialsId);
+        return limiters.computeIfAbsent(name, RateLimiter::new);
+    }
+
+    /**
+     * @return the statistics of the limiters that have paced requests.
+     */
+    @NonNull
+    public static List<String> stats() {
+        List<String> stats = new ArrayList<>();
+        for (RateLimiter limiter : limiters.values()) {
+            if (limiter.throttledCount.sum() > 0 || limiter.tooManyRequestsCount.sum() > 0 || limiter.isPacing()) {
+                stats.add(limiter.toString());
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Waits until the request can be sent.
+     *
+     * @throws InterruptedIOException if interrupted while waiting
+     */
+    public void acquire() throws InterruptedIOException {
+        boolean interactive = Stapler.getCurrentRequest2() != null;
+        long start = System.nanoTime();
+        boolean throttled = false;
+        synchronized (this) {
+            while (true) {
+                long now = System.nanoTime();
+                if (!pacing || now - pacingUntil > 0) {
+                    pacing = false;
+                    break;
+                }
+                refill(now);
+                long delay = Math.max(pausedUntil - now, tokens >= 1 ? 0L : nanosFor(1 - tokens));
+                if (interactive || delay <= 0) {
+                    // interactive requests run ahead and leave the background requests a smaller budget
+                    tokens -= 1;
+                    break;
+                }
+                throttled = true;
+                waiting++;
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for the rate limit of " + name);
+                } finally {
+                    waiting--;
+                }
+            }
+        }
+        if (throttled) {
+            throttledCount.increment();
+            throttledNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Learns the remaining budget from the response.
+     *
+     * @param response a response to a request paced by this limiter
+     */
+    public void update(@NonNull HttpResponse response) {
+        int responseLimit = parseInt(response.getFirstHeader("X-RateLimit-Limit"));
+        boolean nearLimit = Boolean.parseBoolean(headerValue(response.getFirstHeader("X-RateLimit-NearLimit")));
+        boolean tooManyRequests = response.getCode() == HttpStatus.SC_TOO_MANY_REQUESTS;
+        if (tooManyRequests) {
+            tooManyRequestsCount.increment();
+        }
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (responseLimit > 0) {
+                refill(now);
+                limit = responseLimit;
+            }
+            if (!tooManyRequests && !nearLimit) {
+                return;
+            }
+            if (!pacing) {
+                pacing = true;
+                refilledAt = now;
+                tokens = tooManyRequests ? 0 : burst();
+            }
+            pacingUntil = now + PACING_NANOS;
+            if (tooManyRequests) {
+                tokens = Math.min(tokens, 0);
+                long pause = retryAfter(response);
+                if (now + pause - pausedUntil > 0) {
+                    pausedUntil = now + pause;
+                }
+            }
+        }
+    }
+
+    private synchronized boolean isPacing() {
+        return pacing && System.nanoTime() - pacingUntil < 0;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(burst(), tokens + (now - refilledAt) * limit / (double) TimeUnit.HOURS.toNanos(1));
+        refilledAt = now;
+    }
+
+    private double burst() {
+        // a twentieth of the hourly limit, three minutes worth of requests
+        return Math.max(1, limit / 20);
+    }
+
+    private long nanosFor(double missingTokens) {
+        return (long) Math.ceil(missingTokens * TimeUnit.HOURS.toNanos(1) / limit);
+    }
+
+    private static long retryAfter(HttpResponse response) {
+        String value = headerValue(response.getFirstHeader(HttpHeaders.RETRY_AFTER));
+        if (value != null) {
+            try {
+                return TimeUnit.SECONDS.toNanos(Long.parseLong(value));
+            } catch (NumberFormatException ignore) {
+                Instant retryAfterDate = DateUtils.parseStandardDate(value);
+                if (retryAfterDate != null) {
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(0, retryAfterDate.toEpochMilli() - System.currentTimeMillis()));
+                }
+            }
+        }
+        return DEFAULT_PAUSE_NANOS;
+    }
+
+    @CheckForNull
+    private static String headerValue(@CheckForNull Header header) {
+        return header == null ? null : header.getValue();
+    }
+
+    private static int parseInt(@CheckForNull Header header) {
+        try {
+            return header == null ? -1 : Integer.parseInt(header.getValue().trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return the number of requests waiting for their turn.
+     */
+    public synchronized int getQueueLength() {
+        return waiting;
+    }
+
+    /**
+     * @return the number of requests that can be sent right away, or {@code -1} when the requests are not paced.
+     */
+    public synchronized int getBudget() {
+        if (!isPacing()) {
+            return -1;
+        }
+        refill(System.nanoTime());
+        return (int) Math.floor(tokens);
+    }
+
+    /**
+     * @return the total time, in milliseconds, the requests have waited.
+     */
+    public long getThrottledTime() {
+        return TimeUnit.NANOSECONDS.toMillis(throttledNanos.sum());
+    }
+
+    @Override
+    public String toString() {
+        int budget = getBudget();
+        return String.format("%s: %s, %d waiting, %d requests throttled for %d s, %d rate limited responses.",
+                name,
+                budget < 0 ? "not paced" : "budget " + budget + " of " + limit + " requests/hour",
+                getQueueLength(), throttledCount.sum(), TimeUnit.MILLISECONDS.toSeconds(getThrottledTime()),
+                tooManyRequestsCount.sum());
+    }
+}
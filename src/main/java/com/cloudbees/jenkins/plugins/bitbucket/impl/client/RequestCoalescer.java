@@ -0,0 +1,211 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.client;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Shares one request between the callers that make the same GET request at
+ * the same time, for example the sources of several jobs built on the same
+ * repository that process the same event.
+ * <p>
+ * The first caller sends the request, the callers arriving while it is in
+ * flight wait for its response body. Each caller reads the body on its own
+ * so that the objects read are not shared between them.
+ * <p>
+ * The body is kept in memory only when another caller joined the request
+ * before its response arrived, otherwise it is read while it is received.
+ * Callers arriving once the response is being read send their own request.
+ */
+@Restricted(NoExternalUse.class)
+public final class RequestCoalescer {
+
+    private static final RequestCoalescer INSTANCE = new RequestCoalescer();
+
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+
+    private final LongAdder flightCount = new LongAdder();
+
+    private final LongAdder absorbedCount = new LongAdder();
+
+    private final LongAccumulator maxAbsorbed = new LongAccumulator(Math::max, 0L);
+
+    RequestCoalescer() {
+    }
+
+    @NonNull
+    public static RequestCoalescer get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Reads the response body.
+     *
+     * @param <T> the type of the value read from the body
+     */
+    @FunctionalInterface
+    public interface ContentReader<T> {
+        T read(@NonNull InputStream content) throws IOException;
+    }
+
+    /**
+     * Sends a request and reads its response body with the given reader.
+     *
+     * @param <T> the type of the value read from the body
+     */
+    @FunctionalInterface
+    public interface Request<T> {
+        @CheckForNull
+        T execute(@NonNull ContentReader<T> reader) throws IOException;
+    }
+
+    /**
+     * Executes the request unless the same request is already in flight, in
+     * which case it waits for the response of that one.
+     *
+     * @param <T> the type of the value read from the body
+     * @param key identifies the request, it must include the host, the credentials and the URL
+     * @param reader reads the response body for this caller
+     * @param request sends the request, it reads the response body with the reader it is given
+     * @return the value read from the response body, {@code null} if the request had no body
+     * @throws IOException the failure of the request, shared with the other callers of the same flight
+     */
+    @CheckForNull
+    public <T> T execute(@NonNull String key, @NonNull ContentReader<T> reader, @NonNull Request<T> request)
+            throws IOException {
+        Flight flight = new Flight();
+        Flight inFlight;
+        while ((inFlight = flights.putIfAbsent(key, flight)) != null) {
+            if (inFlight.join()) {
+                absorbedCount.increment();
+                byte[] body = inFlight.await();
+                return body == null ? null : reader.read(new ByteArrayInputStream(body));
+            }
+            // its response is already being read for its only caller
+            flights.remove(key, inFlight);
+        }
+        flightCount.increment();
+        try {
+            T value = request.execute(content -> {
+                if (flight.close() == 0) {
+                    return reader.read(content);
+                }
+                byte[] body = content.readAllBytes();
+                flight.response.complete(body);
+                return reader.read(new ByteArrayInputStream(body));
+            });
+            flight.response.complete(null);
+            return value;
+        } catch (IOException | RuntimeException | Error e) {
+            flight.response.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+            maxAbsorbed.accumulate(flight.close());
+        }
+    }
+
+    /**
+     * @return the number of requests sent.
+     */
+    public long getFlightCount() {
+        return flightCount.sum();
+    }
+
+    /**
+     * @return the number of calls that did not send a request because the same request was in flight.
+     */
+    public long getAbsorbedCount() {
+        return absorbedCount.sum();
+    }
+
+    /**
+     * @return the statistics of the requests of all the endpoints.
+     */
+    public String stats() {
+        return String.format("%d requests, %d calls absorbed, at most %d by one request.",
+                getFlightCount(), getAbsorbedCount(), maxAbsorbed.get());
+    }
+
+    private static final class Flight {
+        private final CompletableFuture<byte[]> response = new CompletableFuture<>();
+        private int absorbed;
+        private boolean closed;
+
+        /**
+         * @return {@code false} if the response is already being read and the caller cannot share it.
+         */
+        synchronized boolean join() {
+            if (closed) {
+                return false;
+            }
+            absorbed++;
+            return true;
+        }
+
+        /**
+         * Stops other callers from joining.
+         *
+         * @return the number of callers that joined.
+         */
+        synchronized int close() {
+            closed = true;
+            return absorbed;
+        }
+
+        byte[] await() throws IOException {
+            try {
+                return response.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the same request in flight");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException ioe) {
+                    throw ioe;
+                }
+                if (cause instanceof RuntimeException re) {
+                    throw re;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new IOException(cause);
+            }
+        }
+    }
+}
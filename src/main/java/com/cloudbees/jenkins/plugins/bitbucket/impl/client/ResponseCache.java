@@ -0,0 +1,384 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.client;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Util;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import jenkins.model.Jenkins;
+import org.apache.commons.io.FileUtils;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Keeps the bodies of the responses that have a validator, an {@code ETag}
+ * or a {@code Last-Modified} header, to request them again conditionally and
+ * reuse the body when the server answers {@code 304 Not Modified}.
+ * <p>
+ * The bodies are kept in memory up to
+ * {@code com.cloudbees.jenkins.plugins.bitbucket.impl.client.ResponseCache.maxMemory}
+ * megabytes, 32 by default, the least recently used are evicted first. When
+ * {@code com.cloudbees.jenkins.plugins.bitbucket.impl.client.ResponseCache.maxDisk}
+ * is set to a number of megabytes the responses are also written under
+ * {@code JENKINS_HOME/caches}, so they survive the eviction from memory and
+ * the restarts of Jenkins.
+ */
+@Restricted(NoExternalUse.class)
+public final class ResponseCache {
+
+    private static final Logger LOGGER = Logger.getLogger(ResponseCache.class.getName());
+
+    private static final long MAX_MEMORY = Long.getLong(ResponseCache.class.getName() + ".maxMemory", 32) * FileUtils.ONE_MB;
+
+    private static final long MAX_DISK = Long.getLong(ResponseCache.class.getName() + ".maxDisk", 0) * FileUtils.ONE_MB;
+
+    private static final ResponseCache INSTANCE = new ResponseCache(MAX_MEMORY, MAX_DISK);
+
+    // guarded by this, in access order
+    private final Map<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryWeight;
+
+    private final long maxMemory;
+
+    private final long maxDisk;
+
+    private final AtomicLong diskWeight = new AtomicLong(-1);
+
+    private final LongAdder notModifiedCount = new LongAdder();
+
+    private final LongAdder modifiedCount = new LongAdder();
+
+    ResponseCache(long maxMemory, long maxDisk) {
+        this.maxMemory = maxMemory;
+        this.maxDisk = maxDisk;
+    }
+
+    @NonNull
+    public static ResponseCache get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Builds the key of a response.
+     *
+     * @param host the server of the request
+     * @param credentialsId the credentials of the request, the response depends on their permissions
+     * @param path the URL of the request
+     * @return the key of the response
+     */
+    @NonNull
+    public static String key(@NonNull String host, @CheckForNull String credentialsId, @NonNull String path) {
+        return host + ' ' + Util.fixNull(credentialsId) + ' ' + path;
+    }
+
+    /**
+     * @param key the key of the response
+     * @return the response stored for the key or {@code null} if there is none
+     */
+    @CheckForNull
+    public Entry lookup(@NonNull String key) {
+        synchronized (this) {
+            Entry entry = memory.get(key);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        Entry entry = readFromDisk(key);
+        if (entry != null) {
+            putInMemory(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Stores the response for the key, replacing the previous one.
+     *
+     * @param key the key of the response
+     * @param entry the response
+     */
+    public void store(@NonNull String key, @NonNull Entry entry) {
+        modifiedCount.increment();
+        putInMemory(key, entry);
+        writeToDisk(key, entry);
+    }
+
+    /**
+     * Records that the response stored was reused.
+     */
+    public void notModified() {
+        notModifiedCount.increment();
+    }
+
+    /**
+     * Removes the responses of the given server.
+     *
+     * @param host the server, {@code null} for all the servers
+     */
+    public void evict(@CheckForNull String host) {
+        String prefix = host == null ? "" : host + ' ';
+        synchronized (this) {
+            for (Iterator<Map.Entry<String, Entry>> it = memory.entrySet().iterator(); it.hasNext();) {
+                Map.Entry<String, Entry> entry = it.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    memoryWeight -= entry.getValue().weight();
+                    it.remove();
+                }
+            }
+        }
+        Path dir = diskDirectory();
+        if (dir == null || !Files.isDirectory(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(file -> {
+                try {
+                    if (readKey(file).startsWith(prefix)) {
+                        deleteFromDisk(file);
+                    }
+                } catch (IOException e) {
+                    deleteFromDisk(file);
+                }
+            });
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Failed to clear the response cache", e);
+        }
+    }
+
+    public String stats() {
+        int count;
+        long weight;
+        synchronized (this) {
+            count = memory.size();
+            weight = memoryWeight;
+        }
+        String stats = String.format("%d in memory (%d KB), %d not modified, %d modified",
+                count, weight / FileUtils.ONE_KB, notModifiedCount.sum(), modifiedCount.sum());
+        long disk = diskWeight.get();
+        if (disk >= 0) {
+            stats += String.format(", %d KB on disk", disk / FileUtils.ONE_KB);
+        }
+        return stats + '.';
+    }
+
+    private void putInMemory(String key, Entry entry) {
+        if (entry.weight() > maxMemory / 10) {
+            // large responses would evict too many others
+            return;
+        }
+        synchronized (this) {
+            Entry previous = memory.put(key, entry);
+            if (previous != null) {
+                memoryWeight -= previous.weight();
+            }
+            memoryWeight += entry.weight();
+            for (Iterator<Entry> it = memory.values().iterator(); memoryWeight > maxMemory && it.hasNext();) {
+                memoryWeight -= it.next().weight();
+                it.remove();
+            }
+        }
+    }
+
+    @CheckForNull
+    private Path diskDirectory() {
+        if (maxDisk <= 0) {
+            return null;
+        }
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        if (jenkins == null) {
+            return null;
+        }
+        return new File(jenkins.getRootDir(), "caches/bitbucket-branch-source/responses").toPath();
+    }
+
+    private static Path file(Path dir, String key) {
+        return dir.resolve(Util.getDigestOf(key) + ".bin");
+    }
+
+    @CheckForNull
+    private Entry readFromDisk(String key) {
+        Path dir = diskDirectory();
+        if (dir == null) {
+            return null;
+        }
+        Path file = file(dir, key);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            if (!key.equals(in.readUTF())) {
+                return null;
+            }
+            String etag = in.readUTF();
+            String lastModified = in.readUTF();
+            byte[] body = in.readNBytes(in.readInt());
+            return new Entry(etag.isEmpty() ? null : etag, lastModified.isEmpty() ? null : lastModified, body);
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Failed to read the cached response " + file, e);
+            deleteFromDisk(file);
+            return null;
+        }
+    }
+
+    private static String readKey(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            return in.readUTF();
+        }
+    }
+
+    private void writeToDisk(String key, Entry entry) {
+        Path dir = diskDirectory();
+        if (dir == null || entry.weight() > maxDisk / 10) {
+            return;
+        }
+        try {
+            Files.createDirectories(dir);
+            initDiskWeight(dir);
+            Path file = file(dir, key);
+            Path tmp = Files.createTempFile(dir, "response", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(tmp))) {
+                out.writeUTF(key);
+                out.writeUTF(Util.fixNull(entry.etag));
+                out.writeUTF(Util.fixNull(entry.lastModified));
+                out.writeInt(entry.body.length);
+                out.write(entry.body);
+            }
+            long previous = Files.isRegularFile(file) ? Files.size(file) : 0;
+            long size = Files.size(tmp);
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (diskWeight.addAndGet(size - previous) > maxDisk) {
+                trimDisk(dir);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Failed to write the cached response of " + key, e);
+        }
+    }
+
+    private void initDiskWeight(Path dir) throws IOException {
+        if (diskWeight.get() < 0) {
+            long size = 0;
+            for (Path file : list(dir)) {
+                size += Files.size(file);
+            }
+            diskWeight.compareAndSet(-1, size);
+        }
+    }
+
+    private synchronized void trimDisk(Path dir) throws IOException {
+        List<Path> files = list(dir);
+        files.sort(Comparator.comparingLong(ResponseCache::lastModified));
+        // free some room to not trim on every write
+        for (Iterator<Path> it = files.iterator(); diskWeight.get() > maxDisk * 9 / 10 && it.hasNext();) {
+            deleteFromDisk(it.next());
+        }
+    }
+
+    private void deleteFromDisk(Path file) {
+        try {
+            long size = Files.size(file);
+            if (Files.deleteIfExists(file)) {
+                diskWeight.addAndGet(-size);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Failed to delete the cached response " + file, e);
+        }
+    }
+
+    private static List<Path> list(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> result = new ArrayList<>();
+            files.filter(file -> file.getFileName().toString().endsWith(".bin")).forEach(result::add);
+            return result;
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * A response body with its validators.
+     */
+    public static final class Entry {
+        @CheckForNull
+        private final String etag;
+        @CheckForNull
+        private final String lastModified;
+        @NonNull
+        private final byte[] body;
+
+        public Entry(@CheckForNull String etag, @CheckForNull String lastModified, @NonNull byte[] body) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.body = body;
+        }
+
+        @CheckForNull
+        public String getEtag() {
+            return etag;
+        }
+
+        @CheckForNull
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        @NonNull
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        long weight() {
+            return body.length;
+        }
+    }
+}
@@ -26,7 +26,6 @@ package com.cloudbees.jenkins.plugins.bitbucket.impl.credentials;
 
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketException;
-import com.cloudbees.jenkins.plugins.bitbucket.client.Cache;
 import com.cloudbees.plugins.credentials.CredentialsScope;
 import com.cloudbees.plugins.credentials.common.StandardUsernameCredentials;
 import com.cloudbees.plugins.credentials.common.StandardUsernamePasswordCredentials;
@@ -40,18 +39,17 @@ import com.github.scribejava.core.oauth.OAuth20Service;
 import hudson.model.Descriptor.FormException;
 import hudson.util.Secret;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
 import jenkins.util.SetContextClassLoader;
-import org.apache.commons.codec.digest.DigestUtils;
-import org.apache.commons.lang.StringUtils;
+import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpRequest;
 
 public class BitbucketOAuthAuthenticator implements BitbucketAuthenticator {
-    private static final Cache<String, OAuth2AccessToken> cacheToken = new Cache<>(5, TimeUnit.MINUTES);
+    private static final String BEARER = "Bearer ";
 
     private final String credentialsId;
     private final String username;
     private final Secret password;
+    private final String passwordFingerprint;
 
     /**
      * Constructor.
@@ -62,43 +60,67 @@ public class BitbucketOAuthAuthenticator implements BitbucketAuthenticator {
         this.credentialsId = credentials.getId();
         this.username = credentials.getUsername();
         this.password = credentials.getPassword();
+        this.passwordFingerprint = OAuthTokenManager.fingerprint(Secret.toString(password));
     }
 
-    private OAuth2AccessToken getToken() {
+    private OAuthTokenManager getTokenManager() {
+        return OAuthTokenManager.get(credentialsId, username, passwordFingerprint, () -> {
+            try (SetContextClassLoader cl = new SetContextClassLoader(this.getClass());
+                    OAuth20Service service = new ServiceBuilder(username)
+                        .apiSecret(Secret.toString(password))
+                        .httpClientConfig(JDKHttpClientConfig.defaultConfig())
+                        .build(BitbucketOAuth.instance())) {
+                OAuth2AccessToken token = service.getAccessTokenClientCredentialsGrant();
+                return new OAuthTokenManager.Token(token.getAccessToken(), token.getExpiresIn());
+            }
+        });
+    }
+
+    private String getToken() {
         try {
-            String plainSecret = Secret.toString(password);
-            String cacheKey = DigestUtils.md2Hex(StringUtils.join(new String[] { credentialsId, username, plainSecret }, '/'));
-            return cacheToken.get(cacheKey, () -> {
-                try (SetContextClassLoader cl = new SetContextClassLoader(this.getClass());
-                        OAuth20Service service = new ServiceBuilder(username)
-                            .apiSecret(plainSecret)
-                            .httpClientConfig(JDKHttpClientConfig.defaultConfig())
-                            .build(BitbucketOAuth.instance())) {
-                    return service.getAccessTokenClientCredentialsGrant();
-                }
-            });
+            return getTokenManager().getAccessToken();
         } catch (ExecutionException e) {
-            // unwrap exception
-            Throwable cause = e.getCause();
-            if (cause instanceof OAuth2AccessTokenErrorResponse oauthEx) {
-                throw new BitbucketException(oauthEx.getErrorDescription() + ". Please check configured OAuth credentials client id and secret are correct.", e);
-            }
-            throw new RuntimeException(cause);
+            throw unwrap(e);
         }
     }
 
+    private RuntimeException unwrap(ExecutionException e) {
+        // unwrap exception
+        Throwable cause = e.getCause();
+        if (cause instanceof OAuth2AccessTokenErrorResponse oauthEx) {
+            return new BitbucketException(oauthEx.getErrorDescription() + ". Please check configured OAuth credentials client id and secret are correct.", e);
+        }
+        return new RuntimeException(cause);
+    }
+
     /**
      * Set up request with token in header
      */
     @Override
     public void configureRequest(HttpRequest request) {
-        request.addHeader(OAuthConstants.HEADER, "Bearer " + getToken().getAccessToken());
+        request.addHeader(OAuthConstants.HEADER, BEARER + getToken());
+    }
+
+    /**
+     * Requests a new token when the server rejects the one of the request.
+     */
+    @Override
+    public boolean invalidate(HttpRequest request) {
+        Header header = request.getFirstHeader(OAuthConstants.HEADER);
+        if (header == null || header.getValue() == null || !header.getValue().startsWith(BEARER)) {
+            return false;
+        }
+        try {
+            return getTokenManager().invalidate(header.getValue().substring(BEARER.length()));
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
     }
 
     @Override
     public StandardUsernameCredentials getCredentialsForSCM() {
         try {
-            return new UsernamePasswordCredentialsImpl(CredentialsScope.GLOBAL, getId(), null, "x-token-auth", getToken().getAccessToken());
+            return new UsernamePasswordCredentialsImpl(CredentialsScope.GLOBAL, getId(), null, "x-token-auth", getToken());
         } catch (FormException e) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,247 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.credentials;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Holds the access token of an OAuth consumer.
+ * <p>
+ * The token is requested once and served until it expires, as told by the
+ * token response. Some time before the expiry a new token is requested in
+ * background while the current one is still served. Concurrent requests of a
+ * token, because there is none yet, it has expired or the server has rejected
+ * it, share the same token request.
+ */
+final class OAuthTokenManager {
+    private static final Logger LOGGER = Logger.getLogger(OAuthTokenManager.class.getName());
+
+    /**
+     * Lifetime of a token when the response does not tell it.
+     */
+    private static final long DEFAULT_EXPIRES_IN = TimeUnit.MINUTES.toSeconds(5);
+
+    /**
+     * How long before the expiry the token is refreshed, at most half of its lifetime.
+     */
+    private static final long REFRESH_AHEAD_NANOS = TimeUnit.SECONDS.toNanos(
+            Long.getLong(OAuthTokenManager.class.getName() + ".refreshAheadSeconds", 300));
+
+    /**
+     * How long to wait before a new attempt when a refresh fails.
+     */
+    private static final long RETRY_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private static final Map<String, OAuthTokenManager> managers = new ConcurrentHashMap<>();
+
+    private static final Executor refreshExecutor = refreshExecutor();
+
+    /**
+     * Requests a new token to the authorization server.
+     */
+    @FunctionalInterface
+    interface TokenRequest {
+        /**
+         * @return the new token
+         * @throws Exception if the token could not be obtained
+         */
+        @NonNull
+        Token call() throws Exception;
+    }
+
+    /**
+     * An access token and its lifetime.
+     *
+     * @param value the access token
+     * @param expiresIn the lifetime in seconds or {@code null} if unknown
+     */
+    record Token(@NonNull String value, @CheckForNull Integer expiresIn) {
+    }
+
+    private record State(String value, long expiresAt, long refreshAt) {
+    }
+
+    private final TokenRequest tokenRequest;
+
+    private final LongSupplier clock;
+
+    private volatile State current;
+
+    // guarded by this
+    private CompletableFuture<State> pending;
+
+    OAuthTokenManager(@NonNull TokenRequest tokenRequest, @NonNull LongSupplier clock) {
+        this.tokenRequest = tokenRequest;
+        this.clock = clock;
+    }
+
+    private static Executor refreshExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new NamingThreadFactory(new DaemonThreadFactory(), "BitbucketOAuthTokenManager"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Returns the manager of the given consumer. Credentials that share the
+     * same ID and client ID but not the same secret, for example the same
+     * credentials defined in two folders, get a manager each.
+     *
+     * @param credentialsId the ID of the credentials
+     * @param clientId the client ID of the consumer
+     * @param secretFingerprint a fingerprint of the consumer secret, see {@link #fingerprint(String)}
+     * @param tokenRequest requests a new token, used only by a new manager
+     * @return the token manager
+     */
+    @NonNull
+    static OAuthTokenManager get(@NonNull String credentialsId,
+                                 @NonNull String clientId,
+                                 @NonNull String secretFingerprint,
+                                 @NonNull TokenRequest tokenRequest) {
+        return managers.computeIfAbsent(credentialsId + '/' + clientId + '/' + secretFingerprint,
+                k -> new OAuthTokenManager(tokenRequest, System::nanoTime));
+    }
+
+    /**
+     * Returns a fingerprint of the consumer secret that can be kept in memory
+     * in place of the secret.
+     *
+     * @param secret the consumer secret in plain text
+     * @return the SHA-256 of the secret in hexadecimal
+     */
+    @NonNull
+    static String fingerprint(@NonNull String secret) {
+        return DigestUtils.sha256Hex(secret);
+    }
+
+    /**
+     * Returns a valid access token, waiting for a new one only when there is
+     * no token or the current one has expired.
+     *
+     * @return the access token
+     * @throws ExecutionException if the token could not be obtained
+     */
+    @NonNull
+    String getAccessToken() throws ExecutionException {
+        State state = current;
+        long now = clock.getAsLong();
+        if (state != null && now - state.expiresAt < 0) {
+            if (now - state.refreshAt >= 0) {
+                refresh(state);
+            }
+            return state.value;
+        }
+        return await(refresh(state)).value;
+    }
+
+    /**
+     * Discards a token rejected by the server. Threads rejected with the same
+     * token wait for the same new token.
+     *
+     * @param accessToken the rejected access token
+     * @return {@code true} if a new token is available
+     * @throws ExecutionException if the new token could not be obtained
+     */
+    boolean invalidate(@NonNull String accessToken) throws ExecutionException {
+        State state = current;
+        if (state != null && !accessToken.equals(state.value)) {
+            // already replaced
+            return true;
+        }
+        return !accessToken.equals(await(refresh(state)).value);
+    }
+
+    /**
+     * Starts a token request unless one is running or the given state has
+     * already been replaced.
+     */
+    private synchronized CompletableFuture<State> refresh(@CheckForNull State stale) {
+        if (pending != null) {
+            return pending;
+        }
+        State state = current;
+        if (state != null && state != stale) {
+            return CompletableFuture.completedFuture(state);
+        }
+        CompletableFuture<State> future = CompletableFuture.supplyAsync(this::requestToken, refreshExecutor);
+        pending = future;
+        future.whenComplete((newState, failure) -> {
+            synchronized (this) {
+                if (failure == null) {
+                    current = newState;
+                } else if (stale != null && current == stale) {
+                    // keep serving the current token until it expires, retrying later
+                    LOGGER.log(Level.WARNING, "Failed to refresh the OAuth access token", failure);
+                    current = new State(stale.value, stale.expiresAt, clock.getAsLong() + RETRY_NANOS);
+                }
+                pending = null;
+            }
+        });
+        return future;
+    }
+
+    private State requestToken() {
+        long requestedAt = clock.getAsLong();
+        Token token;
+        try {
+            token = tokenRequest.call();
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+        long lifetime = TimeUnit.SECONDS.toNanos(token.expiresIn() == null ? DEFAULT_EXPIRES_IN : token.expiresIn());
+        long expiresAt = requestedAt + lifetime;
+        return new State(Objects.requireNonNull(token.value()), expiresAt, expiresAt - Math.min(REFRESH_AHEAD_NANOS, lifetime / 2));
+    }
+
+    private static State await(CompletableFuture<State> future) throws ExecutionException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExecutionException("Interrupted while waiting the OAuth access token", e);
+        } catch (ExecutionException e) {
+            // unwrap the failure of the token request
+            Throwable cause = e.getCause() instanceof CompletionException ce ? ce.getCause() : e.getCause();
+            throw new ExecutionException(cause);
+        }
+    }
+}
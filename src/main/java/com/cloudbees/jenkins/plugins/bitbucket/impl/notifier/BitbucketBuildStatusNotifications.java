@@ -54,7 +54,6 @@ import java.net.URL;
 import jenkins.model.JenkinsLocationConfiguration;
 import jenkins.plugins.git.AbstractGitSCMSource;
 import jenkins.scm.api.SCMHead;
-import jenkins.scm.api.SCMHeadObserver;
 import jenkins.scm.api.SCMRevision;
 import jenkins.scm.api.SCMRevisionAction;
 import jenkins.scm.api.SCMSource;
@@ -133,8 +132,7 @@ public final class BitbucketBuildStatusNotifications {
         }
         boolean isCloud = BitbucketApiUtils.isCloud(client);
 
-        BitbucketSCMSourceContext context = new BitbucketSCMSourceContext(null, SCMHeadObserver.none())
-                .withTraits(source.getTraits()); // NOSONAR
+        BitbucketSCMSourceContext context = source.getTraitsContext();
         final Result result = build.getResult();
         final String name = build.getFullDisplayName(); // use the build number as the display name of the status
         String buildDescription = build.getDescription();
@@ -200,8 +198,7 @@ public final class BitbucketBuildStatusNotifications {
 
     private static void sendNotifications(BitbucketSCMSource source, Run<?, ?> build, TaskListener listener)
             throws IOException, InterruptedException {
-        BitbucketSCMSourceContext sourceContext = new BitbucketSCMSourceContext(null,
-            SCMHeadObserver.none()).withTraits(source.getTraits());
+        BitbucketSCMSourceContext sourceContext = source.getTraitsContext();
         if (sourceContext.notificationsDisabled()) {
             listener.getLogger().println("[Bitbucket] Notification is disabled by configuration");
             return;
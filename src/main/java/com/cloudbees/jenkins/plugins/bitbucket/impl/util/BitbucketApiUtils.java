@@ -27,12 +27,14 @@ import com.cloudbees.jenkins.plugins.bitbucket.Messages;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApi;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApiFactory;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketCommit;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketRequestException;
 import com.cloudbees.jenkins.plugins.bitbucket.client.BitbucketCloudApiClient;
 import com.cloudbees.jenkins.plugins.bitbucket.endpoints.BitbucketCloudEndpoint;
 import com.cloudbees.jenkins.plugins.bitbucket.endpoints.BitbucketEndpointConfiguration;
 import com.cloudbees.plugins.credentials.CredentialsProvider;
 import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.Util;
 import hudson.model.Item;
@@ -126,6 +128,26 @@ public class BitbucketApiUtils {
         }
     }
 
+    /**
+     * Estimates the memory, in bytes, retained by a cached commit.
+     *
+     * @param key the cache key
+     * @param commit the cached commit, could be {@code null} if not found
+     * @return the estimated size in bytes
+     */
+    public static int estimateSize(@NonNull String key, @CheckForNull BitbucketCommit commit) {
+        // object headers, references and the 16 bytes overhead of each String
+        int size = 64 + 2 * key.length();
+        if (commit != null) {
+            size += 96;
+            size += 2 * (StringUtils.length(commit.getHash())
+                    + StringUtils.length(commit.getMessage())
+                    + StringUtils.length(commit.getAuthor())
+                    + StringUtils.length(commit.getDate()));
+        }
+        return size;
+    }
+
     public static HttpHost toHttpHost(String url) {
         try {
             // it's needed because the serverURL can contains a context root different than '/' and the HttpHost must contains only schema, host and port
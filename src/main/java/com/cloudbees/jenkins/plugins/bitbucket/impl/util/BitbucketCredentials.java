@@ -24,20 +24,32 @@
 package com.cloudbees.jenkins.plugins.bitbucket.impl.util;
 
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
+import com.cloudbees.jenkins.plugins.bitbucket.client.Cache;
 import com.cloudbees.jenkins.plugins.bitbucket.endpoints.BitbucketEndpointConfiguration;
 import com.cloudbees.plugins.credentials.CredentialsMatchers;
 import com.cloudbees.plugins.credentials.CredentialsProvider;
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
 import com.cloudbees.plugins.credentials.common.StandardCertificateCredentials;
 import com.cloudbees.plugins.credentials.common.StandardCredentials;
 import com.cloudbees.plugins.credentials.common.StandardListBoxModel;
 import com.cloudbees.plugins.credentials.domains.URIRequirementBuilder;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.ItemGroup;
 import hudson.model.Queue;
+import hudson.model.Saveable;
+import hudson.model.User;
+import hudson.model.listeners.SaveableListener;
 import hudson.security.ACL;
 import hudson.security.AccessControlled;
 import hudson.util.FormValidation;
 import hudson.util.ListBoxModel;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import jenkins.authentication.tokens.api.AuthenticationTokens;
 import jenkins.model.Jenkins;
 import jenkins.scm.api.SCMSourceOwner;
@@ -48,6 +60,16 @@ import org.springframework.security.core.Authentication;
  * Utility class for common code accessing credentials
  */
 public class BitbucketCredentials {
+    private static final Logger LOGGER = Logger.getLogger(BitbucketCredentials.class.getName());
+
+    /**
+     * Credentials resolved in the last seconds by item, server and credentials
+     * ID. Webhook events and notifications resolve the same few credentials
+     * over and over, walking all the credentials providers each time.
+     */
+    private static final Cache<Key, Resolved> resolved = new Cache<>(
+            Integer.getInteger(BitbucketCredentials.class.getName() + ".cacheDuration", 60), TimeUnit.SECONDS, 1000);
+
     private BitbucketCredentials() {
         throw new IllegalAccessError("Utility class");
     }
@@ -58,26 +80,77 @@ public class BitbucketCredentials {
                                                                       @CheckForNull String id,
                                                                       @NonNull Class<T> type) {
         if (StringUtils.isNotBlank(id) && context != null) {
-            Authentication authentication = context instanceof Queue.Task task
-                    ? task.getDefaultAuthentication2()
-                    : ACL.SYSTEM2;
+            return type.cast(resolve(serverUrl, context, id, type).credentials());
+        }
+        return null;
+    }
 
-            return CredentialsMatchers.firstOrNull(
-                    CredentialsProvider.lookupCredentialsInItem(
-                            type,
-                            context,
-                            authentication,
-                            URIRequirementBuilder.fromUri(serverUrl).build()
-                    ),
-                    CredentialsMatchers.allOf(
-                            CredentialsMatchers.withId(id),
-                            CredentialsMatchers.anyOf(CredentialsMatchers.instanceOf(type))
-                    )
-            );
+    /**
+     * Looks up the credentials like
+     * {@link #lookupCredentials(String, SCMSourceOwner, String, Class)} and
+     * returns the authenticator they convert to.
+     *
+     * @param serverUrl the server to authenticate against
+     * @param context the item that uses the credentials
+     * @param id the credentials ID
+     * @return the authenticator or {@code null} if there are no such credentials
+     *         or they cannot authenticate against the server
+     */
+    @CheckForNull
+    public static BitbucketAuthenticator lookupAuthenticator(@CheckForNull String serverUrl,
+                                                             @CheckForNull SCMSourceOwner context,
+                                                             @CheckForNull String id) {
+        if (StringUtils.isNotBlank(id) && context != null) {
+            return resolve(serverUrl, context, id, StandardCredentials.class).authenticator();
         }
         return null;
     }
 
+    private static Resolved resolve(String serverUrl, SCMSourceOwner context, String id, Class<? extends StandardCredentials> type) {
+        try {
+            return resolved.get(new Key(context.getFullName(), serverUrl, id, type), () -> {
+                Authentication authentication = context instanceof Queue.Task task
+                        ? task.getDefaultAuthentication2()
+                        : ACL.SYSTEM2;
+
+                StandardCredentials credentials = CredentialsMatchers.firstOrNull(
+                        CredentialsProvider.lookupCredentialsInItem(
+                                type,
+                                context,
+                                authentication,
+                                URIRequirementBuilder.fromUri(serverUrl).build()
+                        ),
+                        CredentialsMatchers.allOf(
+                                CredentialsMatchers.withId(id),
+                                CredentialsMatchers.anyOf(CredentialsMatchers.instanceOf(type))
+                        )
+                );
+                return new Resolved(credentials, AuthenticationTokens.convert(BitbucketAuthenticator.authenticationContext(serverUrl), credentials));
+            });
+        } catch (ExecutionException e) {
+            // unwrap exception
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Statistics about the credentials lookups, the hits are the lookups
+     * served without walking the credentials providers.
+     *
+     * @return a human readable summary
+     */
+    public static String stats() {
+        return "Credentials: " + resolved.stats();
+    }
+
+    public static void clearCache() {
+        resolved.evictAll();
+    }
+
     public static ListBoxModel fillCredentialsIdItems(SCMSourceOwner context, String serverURL) {
         StandardListBoxModel result = new StandardListBoxModel();
         result.includeEmptyValue();
@@ -137,4 +210,25 @@ public class BitbucketCredentials {
         }
     }
 
+    /**
+     * Forgets the resolved credentials when a credentials store may have
+     * changed. The credentials stores of the system, of the folders and of
+     * the users are saved with their owner.
+     */
+    @Extension
+    public static class SaveListener extends SaveableListener {
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof SystemCredentialsProvider || o instanceof ItemGroup || o instanceof User) {
+                LOGGER.log(Level.FINE, "Credentials may have changed, clearing {0} resolved credentials", resolved.size());
+                resolved.evictAll();
+            }
+        }
+    }
+
+    private record Key(String item, String serverUrl, String id, Class<?> type) {
+    }
+
+    private record Resolved(@CheckForNull StandardCredentials credentials, @CheckForNull BitbucketAuthenticator authenticator) {
+    }
 }
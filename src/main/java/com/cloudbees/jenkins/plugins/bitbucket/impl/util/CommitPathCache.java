@@ -0,0 +1,157 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.util;
+
+import com.cloudbees.jenkins.plugins.bitbucket.client.Cache;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Remembers whether a path exists in a commit of a repository, the answer
+ * of a commit never changes. The same commit is often probed for a branch,
+ * its pull request and each checkout strategy of the pull request, and again
+ * on every scan.
+ * <p>
+ * An answer is shared by all the items that probe the same path of the same
+ * commit on the same server with the same credentials. Items using other
+ * credentials ask Bitbucket on their own, so that an answer is never given
+ * to credentials that could not read the repository.
+ * <p>
+ * The answers, negative ones included, are kept in memory for
+ * {@code com.cloudbees.jenkins.plugins.bitbucket.impl.util.CommitPathCache.cacheDuration}
+ * hours, 24 by default, and up to
+ * {@code com.cloudbees.jenkins.plugins.bitbucket.impl.util.CommitPathCache.maxEntries}
+ * answers, 10000 by default.
+ */
+@Restricted(NoExternalUse.class)
+public final class CommitPathCache {
+
+    private static final Cache<Key, Boolean> paths = new Cache<>(
+            Integer.getInteger(CommitPathCache.class.getName() + ".cacheDuration", 24), TimeUnit.HOURS,
+            Integer.getInteger(CommitPathCache.class.getName() + ".maxEntries", 10000));
+
+    private CommitPathCache() {
+        throw new IllegalAccessError("Utility class");
+    }
+
+    /**
+     * Asks Bitbucket whether a path exists in a commit.
+     */
+    public interface PathProbe {
+        boolean exists() throws IOException, InterruptedException;
+    }
+
+    /**
+     * Returns whether the path exists in the commit, asking the probe only
+     * if the answer is not known yet.
+     *
+     * @param serverUrl the URL of the Bitbucket server
+     * @param credentialsId the identifier of the credentials used to ask Bitbucket, if any
+     * @param repository the full name of the repository
+     * @param hash the hash of the commit
+     * @param path the path to look for
+     * @param counter the counter of the answers of the current scan
+     * @param probe asks Bitbucket when the answer is not known
+     * @return {@code true} if the path exists in the commit
+     * @throws IOException if the probe failed
+     * @throws InterruptedException if interrupted while waiting for the probe
+     */
+    public static boolean exists(@NonNull String serverUrl,
+                                 @CheckForNull String credentialsId,
+                                 @NonNull String repository,
+                                 @NonNull String hash,
+                                 @NonNull String path,
+                                 @NonNull Counter counter,
+                                 @NonNull PathProbe probe) throws IOException, InterruptedException {
+        boolean[] probed = new boolean[1];
+        try {
+            boolean exists = paths.get(new Key(serverUrl, credentialsId, repository, hash, path), () -> {
+                probed[0] = true;
+                return probe.exists();
+            });
+            if (probed[0]) {
+                counter.misses.increment();
+            } else {
+                counter.hits.increment();
+            }
+            return exists;
+        } catch (ExecutionException e) {
+            // unwrap exception
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioe) {
+                throw ioe;
+            } else if (cause instanceof InterruptedException ie) {
+                throw ie;
+            } else if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Statistics about the path probes, the hits are the answers served
+     * without asking Bitbucket.
+     *
+     * @return a human readable summary
+     */
+    public static String stats() {
+        return "Commit paths: " + paths.stats();
+    }
+
+    public static void clearCache() {
+        paths.evictAll();
+    }
+
+    /**
+     * Counts the answers of the probes of a scan.
+     */
+    public static final class Counter {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        /**
+         * @return the number of answers served without asking Bitbucket
+         */
+        public long hits() {
+            return hits.sum();
+        }
+
+        /**
+         * @return the number of answers Bitbucket was asked for
+         */
+        public long misses() {
+            return misses.sum();
+        }
+    }
+
+    private record Key(String serverUrl, String credentialsId, String repository, String hash, String path) {
+    }
+}
@@ -23,15 +23,17 @@
  */
 package com.cloudbees.jenkins.plugins.bitbucket.impl.util;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.util.StdDateFormat;
-import com.google.common.base.Charsets;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.Reader;
-import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
 
@@ -43,16 +45,49 @@ public final class JsonParser {
 
     public static final ObjectMapper mapper = createObjectMapper();
 
+    /**
+     * Readers are immutable and thread safe, they are built once per target
+     * type so the deserializer is not looked up again for each response.
+     */
+    private static final ClassValue<ObjectReader> readers = new ClassValue<>() {
+        @Override
+        protected ObjectReader computeValue(Class<?> type) {
+            return mapper.readerFor(type);
+        }
+    };
+
+    private static final Map<Type, ObjectReader> genericReaders = new ConcurrentHashMap<>();
+
+    public static ObjectReader readerFor(Class<?> type) {
+        return readers.get(type);
+    }
+
+    public static ObjectReader readerFor(TypeReference<?> type) {
+        return genericReaders.computeIfAbsent(type.getType(), t -> mapper.readerFor(mapper.constructType(t)));
+    }
+
     public static <T> T toJava(String data, Class<T> type) throws IOException {
-        return toJava(new StringReader(data), type);
+        return readerFor(type).readValue(data);
+    }
+
+    public static <T> T toJava(String data, TypeReference<T> type) throws IOException {
+        return readerFor(type).readValue(data);
     }
 
+    /**
+     * Parses the UTF-8 bytes as they are read, Jackson decodes them in its own
+     * recycled buffers without an intermediate character copy.
+     */
     public static <T> T toJava(InputStream data, Class<T> type) throws IOException {
-        return toJava(new InputStreamReader(data, Charsets.UTF_8), type);
+        return readerFor(type).readValue(data);
+    }
+
+    public static <T> T toJava(InputStream data, TypeReference<T> type) throws IOException {
+        return readerFor(type).readValue(data);
     }
 
     public static <T> T toJava(Reader data, Class<T> type) throws IOException{
-        return mapper.readValue(data, type);
+        return readerFor(type).readValue(data);
     }
 
     public static String toJson(Object value) throws IOException {
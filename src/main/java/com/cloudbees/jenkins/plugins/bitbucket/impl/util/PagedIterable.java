@@ -0,0 +1,191 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.util;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * An {@link Iterable} over a paged resource that fetches the next page only
+ * when the consumer has gone through the values of the current one.
+ * <p>
+ * The pages already fetched are kept, later calls of {@link #iterator()}
+ * replay them and only fetch the pages no iteration has reached yet. Errors
+ * while fetching a page are thrown as {@link FetchException}.
+ *
+ * @param <T> the type of values
+ */
+@Restricted(NoExternalUse.class)
+public final class PagedIterable<T> implements Iterable<T> {
+
+    /**
+     * The pages of a resource, read one after the other.
+     *
+     * @param <T> the type of values
+     */
+    @FunctionalInterface
+    public interface Pages<T> {
+        /**
+         * Fetches the next page.
+         *
+         * @return the values of the next page or {@code null} when the last page has already been read
+         * @throws IOException if there was a network communications error.
+         * @throws InterruptedException if interrupted while waiting on remote communications.
+         */
+        @CheckForNull
+        List<T> next() throws IOException, InterruptedException;
+    }
+
+    private final Supplier<Pages<T>> pages;
+
+    // guarded by this
+    private Pages<T> cursor;
+    private final List<List<T>> fetched = new ArrayList<>();
+    private boolean lastPageRead;
+
+    public PagedIterable(@NonNull Supplier<Pages<T>> pages) {
+        this.pages = pages;
+    }
+
+    /**
+     * Fetches all pages.
+     *
+     * @return all the values
+     * @throws IOException if there was a network communications error.
+     * @throws InterruptedException if interrupted while waiting on remote communications.
+     */
+    @NonNull
+    public List<T> toList() throws IOException, InterruptedException {
+        List<T> values = new ArrayList<>();
+        List<T> page;
+        for (int index = 0; (page = page(index)) != null; index++) {
+            values.addAll(page);
+        }
+        return values;
+    }
+
+    @NonNull
+    @Override
+    public Iterator<T> iterator() {
+        return new PageIterator();
+    }
+
+    /**
+     * Returns a page, fetching the pages up to it if no iteration reached it yet.
+     *
+     * @param index the index of the page
+     * @return the values of the page or {@code null} if there are less pages
+     */
+    @CheckForNull
+    private synchronized List<T> page(int index) throws IOException, InterruptedException {
+        while (fetched.size() <= index) {
+            if (lastPageRead) {
+                return null;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (cursor == null) {
+                cursor = pages.get();
+            }
+            List<T> page = cursor.next();
+            if (page == null) {
+                lastPageRead = true;
+                return null;
+            }
+            fetched.add(page);
+        }
+        return fetched.get(index);
+    }
+
+    private class PageIterator implements Iterator<T> {
+        private int index;
+        private Iterator<T> current = Collections.emptyIterator();
+        private boolean done;
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (done) {
+                    return false;
+                }
+                List<T> page;
+                try {
+                    page = page(index);
+                } catch (IOException | InterruptedException e) {
+                    throw new FetchException(e);
+                }
+                if (page == null) {
+                    done = true;
+                } else {
+                    index++;
+                    current = page.iterator();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+    }
+
+    /**
+     * Thrown while iterating when a page can not be fetched.
+     */
+    public static class FetchException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        FetchException(Exception cause) {
+            super(cause);
+        }
+
+        /**
+         * Rethrows the original exception.
+         *
+         * @throws IOException if the page could not be fetched.
+         * @throws InterruptedException if interrupted while fetching the page.
+         */
+        public void unwrap() throws IOException, InterruptedException {
+            Throwable cause = getCause();
+            if (cause instanceof InterruptedException interruptedEx) {
+                throw interruptedEx;
+            }
+            throw (IOException) cause;
+        }
+    }
+}
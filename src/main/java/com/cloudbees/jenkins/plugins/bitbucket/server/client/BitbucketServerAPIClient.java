@@ -35,14 +35,21 @@ import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketRepository;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketRequestException;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketTeam;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketWebHook;
+import com.cloudbees.jenkins.plugins.bitbucket.client.Cache;
+import com.cloudbees.jenkins.plugins.bitbucket.client.CacheMetrics;
 import com.cloudbees.jenkins.plugins.bitbucket.client.repository.UserRoleInRepository;
+import com.cloudbees.jenkins.plugins.bitbucket.endpoints.AbstractBitbucketEndpoint;
 import com.cloudbees.jenkins.plugins.bitbucket.endpoints.BitbucketEndpointConfiguration;
 import com.cloudbees.jenkins.plugins.bitbucket.endpoints.BitbucketServerEndpoint;
 import com.cloudbees.jenkins.plugins.bitbucket.filesystem.BitbucketSCMFile;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.client.AbstractBitbucketApi;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.EndpointConnectionPool;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.RequestCoalescer;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.client.ResponseCache;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.credentials.BitbucketUsernamePasswordAuthenticator;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.BitbucketApiUtils;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.JsonParser;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.PagedIterable;
 import com.cloudbees.jenkins.plugins.bitbucket.server.BitbucketServerVersion;
 import com.cloudbees.jenkins.plugins.bitbucket.server.BitbucketServerWebhookImplementation;
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.branch.BitbucketServerBranch;
@@ -54,6 +61,10 @@ import com.cloudbees.jenkins.plugins.bitbucket.server.client.mirror.BitbucketMir
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.pullrequest.BitbucketServerPullRequest;
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.pullrequest.BitbucketServerPullRequestCanMerge;
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.pullrequest.BitbucketServerPullRequests;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.repository.BitbucketServerBrowseChildren;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.repository.BitbucketServerBrowseDirectory;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.repository.BitbucketServerBrowseEntry;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.repository.BitbucketServerBrowseLines;
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.repository.BitbucketServerProject;
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.repository.BitbucketServerRepositories;
 import com.cloudbees.jenkins.plugins.bitbucket.server.client.repository.BitbucketServerRepository;
@@ -62,12 +73,12 @@ import com.cloudbees.jenkins.plugins.bitbucket.server.client.repository.NativeBi
 import com.cloudbees.plugins.credentials.common.StandardUsernamePasswordCredentials;
 import com.damnhandy.uri.template.UriTemplate;
 import com.damnhandy.uri.template.impl.Operator;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import hudson.Util;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
 import java.awt.image.BufferedImage;
 import java.io.BufferedInputStream;
 import java.io.FileNotFoundException;
@@ -77,9 +88,19 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 import java.util.logging.Level;
 import javax.imageio.ImageIO;
@@ -87,15 +108,18 @@ import jenkins.scm.api.SCMFile;
 import jenkins.scm.api.SCMFile.Type;
 import jenkins.scm.impl.avatars.AvatarImage;
 import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.io.HttpClientConnectionManager;
 import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.HttpStatus;
 import org.apache.hc.core5.http.message.BasicNameValuePair;
+import org.eclipse.jgit.lib.Constants;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 
 import static java.util.Objects.requireNonNull;
 import static org.apache.commons.lang.StringUtils.abbreviate;
@@ -138,19 +162,63 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
     private static final String API_MIRRORS_FOR_REPO_PATH = "/rest/mirroring/1.0/repos/{id}/mirrors";
     private static final String API_MIRRORS_PATH = "/rest/mirroring/1.0/mirrorServers";
     private static final Integer DEFAULT_PAGE_LIMIT = 200;
+    private static final int MAX_PAGE_THREADS = Integer.getInteger(BitbucketServerAPIClient.class.getName() + ".maxPageThreads", 16);
 
-    protected static final HttpClientConnectionManager connectionManager = connectionManager();
+    /**
+     * Commits resolved by hash, shared by all clients of the same server.
+     */
+    private static final Map<String, Cache<String, BitbucketServerCommit>> cachedCommits = new ConcurrentHashMap<>();
 
-    private static HttpClientConnectionManager connectionManager() {
-        try {
-            PoolingHttpClientConnectionManager connManager = new PoolingHttpClientConnectionManager(); // NOSONAR
-            connManager.setDefaultMaxPerRoute(20);
-            connManager.setMaxTotal(22);
-            return connManager;
-        } catch (Exception e) {
-            // in case of exception this avoids ClassNotFoundError which prevents the classloader from loading this class again
-            return null;
+    /**
+     * Fetches the pages of paged resources requested concurrently, shared by all clients.
+     */
+    private static final ExecutorService pageExecutor = pageExecutor();
+
+    private static ExecutorService pageExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_PAGE_THREADS, MAX_PAGE_THREADS, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new NamingThreadFactory(new DaemonThreadFactory(), "BitbucketServerAPIClient.pages"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    public static String stats(@NonNull String serverUrl) {
+        Cache<String, BitbucketServerCommit> cache = cachedCommits.get(serverUrl);
+        return "Commits: " + (cache == null ? "No entry." : cache.stats().toString());
+    }
+
+    public static String connectionStats(@NonNull String serverUrl) {
+        EndpointConnectionPool pool = EndpointConnectionPool.find(BitbucketApiUtils.toHttpHost(serverUrl));
+        return "Connections: " + (pool == null ? "No connection." : pool.stats());
+    }
+
+    public static String responseStats() {
+        return "Responses: " + ResponseCache.get().stats();
+    }
+
+    public static String coalescedStats() {
+        return "Coalesced requests (all endpoints): " + RequestCoalescer.get().stats();
+    }
+
+    public static void clearCaches(@NonNull String serverUrl) {
+        Cache<String, BitbucketServerCommit> cache = cachedCommits.get(serverUrl);
+        if (cache != null) {
+            cache.evictAll();
         }
+        ResponseCache.get().evict(BitbucketApiUtils.toHttpHost(serverUrl).toURI());
+    }
+
+    private static Cache<String, BitbucketServerCommit> commitCacheFor(@NonNull String serverUrl) {
+        long maxWeight = AbstractBitbucketEndpoint.findCommitCacheSize(serverUrl) * FileUtils.ONE_MB;
+        Cache<String, BitbucketServerCommit> cache = cachedCommits.computeIfAbsent(serverUrl,
+                k -> {
+                    Cache<String, BitbucketServerCommit> commits = new Cache<>(24, TimeUnit.HOURS, Integer.MAX_VALUE,
+                            maxWeight, BitbucketApiUtils::estimateSize);
+                    CacheMetrics.register(commits, "ServerCommits", k);
+                    return commits;
+                });
+        cache.setMaximumWeight(maxWeight);
+        return cache;
     }
 
     /**
@@ -168,6 +236,9 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
     private final String baseURL;
     private final BitbucketServerWebhookImplementation webhookImplementation;
     private final CloseableHttpClient client;
+    private final EndpointConnectionPool connectionManager;
+    private final Cache<String, BitbucketServerCommit> commitCache;
+    private int concurrentPageRequests = 1;
 
     @Deprecated
     public BitbucketServerAPIClient(@NonNull String baseURL, @NonNull String owner, @CheckForNull String repositoryName,
@@ -190,7 +261,19 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
         this.repositoryName = repositoryName;
         this.baseURL = Util.removeTrailingSlash(baseURL);
         this.webhookImplementation = requireNonNull(webhookImplementation);
-        this.client = setupClientBuilder(baseURL).build();
+        this.connectionManager = EndpointConnectionPool.get(getHost(), AbstractBitbucketEndpoint.findMaxConnections(this.baseURL), pool -> {});
+        this.client = sharedClient(baseURL);
+        this.commitCache = commitCacheFor(BitbucketEndpointConfiguration.normalizeServerUrl(this.baseURL));
+    }
+
+    /**
+     * Sets how many pages of a paged resource are requested at the same time once the first page is read.
+     *
+     * @param concurrentPageRequests the number of pages, {@code 1} to fetch pages one after the other
+     */
+    @Restricted(NoExternalUse.class)
+    public void setConcurrentPageRequests(int concurrentPageRequests) {
+        this.concurrentPageRequests = Math.max(1, concurrentPageRequests);
     }
 
     /**
@@ -262,31 +345,95 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
         return getPullRequests(template);
     }
 
-    private List<BitbucketServerPullRequest> getPullRequests(UriTemplate template)
-        throws IOException, InterruptedException {
-        List<BitbucketServerPullRequest> pullRequests = getResources(template, BitbucketServerPullRequests.class);
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Pull requests of a branch are looked up by their source ref and the
+     * others one by one.
+     */
+    @NonNull
+    @Override
+    public List<BitbucketServerPullRequest> getPullRequests(@NonNull Set<String> ids,
+                                                            @NonNull Set<String> sourceBranchNames)
+            throws IOException, InterruptedException {
+        Map<String, BitbucketServerPullRequest> pullRequests = new LinkedHashMap<>();
+        for (String branchName : sourceBranchNames) {
+            for (BitbucketServerPullRequest pullRequest : getOutgoingOpenPullRequests(Constants.R_HEADS + branchName)) {
+                pullRequests.putIfAbsent(pullRequest.getId(), pullRequest);
+            }
+        }
+        for (String id : ids) {
+            if (pullRequests.containsKey(id)) {
+                continue;
+            }
+            try {
+                BitbucketServerPullRequest pullRequest = (BitbucketServerPullRequest) getPullRequestById(Integer.valueOf(id));
+                if ("OPEN".equals(pullRequest.getState()) && !shouldIgnore(pullRequest)) {
+                    pullRequests.put(id, pullRequest);
+                }
+            } catch (FileNotFoundException e) {
+                // the pull request has been deleted
+            }
+        }
+        return new ArrayList<>(pullRequests.values());
+    }
 
-        pullRequests.removeIf(this::shouldIgnore);
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public Iterable<BitbucketServerPullRequest> iteratePullRequests() throws IOException, InterruptedException {
+        UriTemplate template = UriTemplate
+                .fromTemplate(this.baseURL + API_PULL_REQUESTS_PATH)
+                .set("owner", getUserCentricOwner())
+                .set("repo", repositoryName);
 
         BitbucketServerEndpoint endpoint = BitbucketEndpointConfiguration.get()
                 .findEndpoint(this.baseURL, BitbucketServerEndpoint.class)
                 .orElse(null);
-
-        for (BitbucketServerPullRequest pullRequest : pullRequests) {
-            setupPullRequest(pullRequest, endpoint);
+        if (isRefetchPullRequests(endpoint)) {
+            // all pull requests must be set up before they are read again
+            return getPullRequests(template);
         }
+        return new PagedIterable<>(() -> pullRequestPages(template, endpoint));
+    }
 
-        if (endpoint != null) {
+    private List<BitbucketServerPullRequest> getPullRequests(UriTemplate template)
+        throws IOException, InterruptedException {
+        BitbucketServerEndpoint endpoint = BitbucketEndpointConfiguration.get()
+                .findEndpoint(this.baseURL, BitbucketServerEndpoint.class)
+                .orElse(null);
+
+        List<BitbucketServerPullRequest> pullRequests = new PagedIterable<>(() -> pullRequestPages(template, endpoint)).toList();
+
+        if (isRefetchPullRequests(endpoint)) {
             // Get PRs again as revisions could be changed by other events during setupPullRequest
-            if (endpoint.isCallChanges() && BitbucketServerVersion.VERSION_7.equals(endpoint.getServerVersion())) {
-                pullRequests = getResources(template, BitbucketServerPullRequests.class);
-                pullRequests.removeIf(this::shouldIgnore);
-            }
+            pullRequests = getResources(template, BitbucketServerPullRequests.class);
+            pullRequests.removeIf(this::shouldIgnore);
         }
 
         return pullRequests;
     }
 
+    private PagedIterable.Pages<BitbucketServerPullRequest> pullRequestPages(UriTemplate template, BitbucketServerEndpoint endpoint) {
+        PagedIterable.Pages<BitbucketServerPullRequest> pages = resourcePages(template, BitbucketServerPullRequests.class);
+        return () -> {
+            List<BitbucketServerPullRequest> pullRequests = pages.next();
+            if (pullRequests != null) {
+                pullRequests.removeIf(this::shouldIgnore);
+                for (BitbucketServerPullRequest pullRequest : pullRequests) {
+                    setupPullRequest(pullRequest, endpoint);
+                }
+            }
+            return pullRequests;
+        };
+    }
+
+    private static boolean isRefetchPullRequests(@CheckForNull BitbucketServerEndpoint endpoint) {
+        return endpoint != null && endpoint.isCallChanges() && BitbucketServerVersion.VERSION_7.equals(endpoint.getServerVersion());
+    }
+
     private void setupPullRequest(BitbucketServerPullRequest pullRequest, BitbucketServerEndpoint endpoint) throws IOException, InterruptedException {
         // set commit closure to make commit information available when needed, in a similar way to when request branches
         setupClosureForPRBranch(pullRequest);
@@ -596,20 +743,48 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
         return getServerBranches(API_BRANCHES_PATH);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public Iterable<BitbucketServerBranch> iterateBranches() {
+        return iterateServerBranches(API_BRANCHES_PATH);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public Iterable<BitbucketServerBranch> iterateTags() {
+        return iterateServerBranches(API_TAGS_PATH);
+    }
+
     private List<BitbucketServerBranch> getServerBranches(String apiPath) throws IOException, InterruptedException {
+        return iterateServerBranches(apiPath).toList();
+    }
+
+    private PagedIterable<BitbucketServerBranch> iterateServerBranches(String apiPath) {
         UriTemplate template = UriTemplate
                 .fromTemplate(this.baseURL + apiPath)
                 .set("owner", getUserCentricOwner())
                 .set("repo", repositoryName);
 
-        List<BitbucketServerBranch> branches = getResources(template, BitbucketServerBranches.class);
-        for (final BitbucketServerBranch branch : branches) {
-            if (branch != null) {
-                branch.setCommitClosure(new CommitClosure(branch.getRawNode()));
-            }
-        }
-
-        return branches;
+        return new PagedIterable<>(() -> {
+            PagedIterable.Pages<BitbucketServerBranch> pages = resourcePages(template, BitbucketServerBranches.class);
+            return () -> {
+                List<BitbucketServerBranch> branches = pages.next();
+                if (branches != null) {
+                    for (final BitbucketServerBranch branch : branches) {
+                        if (branch != null) {
+                            branch.setCommitClosure(new CommitClosure(branch.getRawNode()));
+                        }
+                    }
+                }
+                return branches;
+            };
+        });
     }
 
     private BitbucketServerBranch getSingleBranch(String branchName) throws IOException, InterruptedException {
@@ -639,8 +814,21 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
                 .set("repo", repositoryName)
                 .set("hash", hash)
                 .expand();
-        String response = getRequest(url);
-        return JsonParser.toJava(response, BitbucketServerCommit.class);
+
+        Callable<BitbucketServerCommit> request = () -> getRequest(url, BitbucketServerCommit.class);
+
+        try {
+            // commits are immutable, the hash is enough to identify one in a repository
+            return commitCache.get(getUserCentricOwner() + "::" + repositoryName + "::" + hash, request);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioe) {
+                throw ioe;
+            } else if (cause instanceof InterruptedException ie) {
+                throw ie;
+            }
+            throw new IOException("Cannot resolve commit " + hash + " from URL: " + url, cause);
+        }
     }
 
     /** {@inheritDoc} */
@@ -857,33 +1045,103 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
     }
 
     private <V> List<V> getResources(UriTemplate template, Class<? extends PagedApiResponse<V>> clazz) throws IOException, InterruptedException {
-        List<V> resources = new ArrayList<>();
+        return new PagedIterable<>(() -> resourcePages(template, clazz)).toList();
+    }
 
-        PagedApiResponse<V> page;
-        Integer pageNumber = 0;
-        Integer limit = DEFAULT_PAGE_LIMIT;
-        do {
-            if (Thread.interrupted()) {
-                throw new InterruptedException();
-            }
-            String url = template //
-                    .set("start", pageNumber) //
-                    .set("limit", limit) //
-                    .expand();
-            String response = getRequest(url);
-            try {
-                page = JsonParser.toJava(response, clazz);
-            } catch (IOException e) {
-                throw new IOException("I/O error when parsing response from URL: " + url, e);
+    /**
+     * Reads the pages of a resource, the values of several pages are returned
+     * at once when pages are requested concurrently.
+     */
+    private <V> PagedIterable.Pages<V> resourcePages(UriTemplate template, Class<? extends PagedApiResponse<V>> clazz) {
+        return new PagedIterable.Pages<>() {
+            private Integer pageNumber = 0;
+            private Integer limit = DEFAULT_PAGE_LIMIT;
+            // the first page tells how many values the server returns per page
+            private int pageCount = 1;
+            private boolean lastPage;
+
+            @Override
+            public List<V> next() throws IOException, InterruptedException {
+                if (lastPage) {
+                    return null;
+                }
+                List<V> values = new ArrayList<>();
+                PagedApiResponse<V> page = null;
+                for (PagedApiResponse<V> p : getPages(template, clazz, pageNumber, limit, pageCount)) {
+                    values.addAll(p.getValues());
+                    page = p;
+                }
+
+                limit = page.getLimit();
+                pageNumber = page.getNextPageStart();
+                pageCount = concurrentPageRequests;
+                // no further batch is requested once a page reports it is the last one
+                lastPage = page.isLastPage() || pageNumber == null;
+                return values;
             }
-            resources.addAll(page.getValues());
+        };
+    }
 
-            limit = page.getLimit();
-            pageNumber = page.getNextPageStart();
-        } while (!page.isLastPage());
+    /**
+     * Fetches up to {@code count} consecutive pages, concurrently when more than one is requested.
+     *
+     * @return the pages in order, up to the last page or the first page that does not end where the next one starts
+     */
+    private <V> List<PagedApiResponse<V>> getPages(UriTemplate template, Class<? extends PagedApiResponse<V>> clazz,
+                                                   int start, int limit, int count) throws IOException, InterruptedException {
+        if (count <= 1) {
+            return Collections.singletonList(getPage(pageUrl(template, start, limit), clazz));
+        }
+
+        List<Future<PagedApiResponse<V>>> futures = new ArrayList<>(count);
+        List<PagedApiResponse<V>> pages = new ArrayList<>(count);
+        try {
+            AtomicBoolean lastPageRead = new AtomicBoolean();
+            // no page after the last one is requested once the last one has been read
+            for (int i = 0; i < count && !lastPageRead.get(); i++) {
+                // the template is not thread safe, expand it from the calling thread
+                String url = pageUrl(template, start + i * limit, limit);
+                futures.add(pageExecutor.submit(() -> {
+                    PagedApiResponse<V> page = getPage(url, clazz);
+                    if (page.isLastPage()) {
+                        lastPageRead.set(true);
+                    }
+                    return page;
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                PagedApiResponse<V> page = futures.get(i).get();
+                pages.add(page);
+                Integer nextPageStart = page.getNextPageStart();
+                if (page.isLastPage() || nextPageStart == null || nextPageStart != start + (i + 1) * limit) {
+                    break;
+                }
+            }
+            return pages;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioe) {
+                throw ioe;
+            } else if (cause instanceof InterruptedException ie) {
+                throw ie;
+            }
+            throw new IOException(cause);
+        } finally {
+            for (Future<PagedApiResponse<V>> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
 
+    private static String pageUrl(UriTemplate template, int start, int limit) {
+        return template //
+                .set("start", start) //
+                .set("limit", limit) //
+                .expand();
+    }
 
-        return resources;
+    private <V> PagedApiResponse<V> getPage(String url, Class<? extends PagedApiResponse<V>> clazz) throws IOException {
+        return getRequest(url, clazz);
     }
 
     private <V> V getResource(UriTemplate template, Class<? extends PagedApiResponse<V>> clazz, Predicate<V> filter) throws IOException, InterruptedException {
@@ -899,12 +1157,7 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
                 .set("start", pageNumber) //
                 .set("limit", limit) //
                 .expand();
-            String response = getRequest(url);
-            try {
-                page = JsonParser.toJava(response, clazz);
-            } catch (IOException e) {
-                throw new IOException("I/O error when parsing response from URL: " + url, e);
-            }
+            page = getRequest(url, clazz);
 
             for(V item : page.getValues()) {
                 if(filter.test(item)) {
@@ -958,34 +1211,31 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
                 .set("at", branchOrHash)
                 .set("start", start)
                 .set("limit", 500);
-        String url = template.expand();
-        String response = getRequest(url);
-        Map<String,Object> content = JsonParser.mapper.readValue(response, new TypeReference<Map<String,Object>>(){});
-        Map page = (Map) content.get("children");
-        List<Map> values = (List<Map>) page.get("values");
-        collectFileAndDirectories(directory, values, files);
-        while (!(boolean)page.get("isLastPage")){
-            start += (int) content.get("size");
-            url = template
+        BitbucketServerBrowseChildren page = getRequest(template.expand(), BitbucketServerBrowseDirectory.class).getChildren();
+        collectFileAndDirectories(directory, page.getValues(), files);
+        while (!page.isLastPage()) {
+            start = nextPageStart(page, start);
+            String url = template
                     .set("start", start)
                     .expand();
-            response = getRequest(url);
-            content = JsonParser.mapper.readValue(response, new TypeReference<Map<String,Object>>(){});
-            page = (Map) content.get("children");
+            page = getRequest(url, BitbucketServerBrowseDirectory.class).getChildren();
+            collectFileAndDirectories(directory, page.getValues(), files);
         }
         return files;
     }
 
-    private void collectFileAndDirectories(BitbucketSCMFile parent, List<Map> values, List<SCMFile> files) {
-        for(Map file:values) {
-            String type = (String) file.get("type");
-            List<String> components = (List<String>) ((Map)file.get("path")).get("components");
-            SCMFile.Type fileType = null;
-            if (type.equals("FILE")) {
-                fileType = SCMFile.Type.REGULAR_FILE;
-            } else if(type.equals("DIRECTORY")){
-                fileType = SCMFile.Type.DIRECTORY;
-            }
+    private static int nextPageStart(PagedApiResponse<?> page, int start) {
+        Integer nextPageStart = page.getNextPageStart();
+        if (nextPageStart != null) {
+            return nextPageStart;
+        }
+        return start + (page.getSize() != null ? page.getSize() : page.getValues().size());
+    }
+
+    private void collectFileAndDirectories(BitbucketSCMFile parent, List<BitbucketServerBrowseEntry> values, List<SCMFile> files) {
+        for (BitbucketServerBrowseEntry file : values) {
+            List<String> components = file.getPath().getComponents();
+            SCMFile.Type fileType = toFileType(file.getType());
             if (!components.isEmpty() && fileType != null) {
                 // revision is set to null as fetched values from server API do not give us revision hash
                 // Later on hash is not needed anyways when file content is fetched from server API
@@ -994,6 +1244,16 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
         }
     }
 
+    @CheckForNull
+    private static SCMFile.Type toFileType(@CheckForNull String type) {
+        if ("FILE".equals(type)) {
+            return SCMFile.Type.REGULAR_FILE;
+        } else if ("DIRECTORY".equals(type)) {
+            return SCMFile.Type.DIRECTORY;
+        }
+        return null;
+    }
+
     @Override
     public InputStream getFileContent(BitbucketSCMFile file) throws IOException, InterruptedException {
         List<String> lines = new ArrayList<>();
@@ -1007,31 +1267,26 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
                 .set("at", branchOrHash)
                 .set("start", start)
                 .set("limit", 500);
-        String url = template.expand();
-        String response = getRequest(url);
-        Map<String,Object> content = collectLines(response, lines);
-
-        while(!(boolean)content.get("isLastPage")){
-            start += (int) content.get("size");
-            url = template
+        BitbucketServerBrowseLines page = getRequest(template.expand(), BitbucketServerBrowseLines.class);
+        collectLines(page, lines);
+        while (!page.isLastPage()) {
+            start = nextPageStart(page, start);
+            String url = template
                     .set("start", start)
                     .expand();
-            response = getRequest(url);
-            content = collectLines(response, lines);
+            page = getRequest(url, BitbucketServerBrowseLines.class);
+            collectLines(page, lines);
         }
         return IOUtils.toInputStream(StringUtils.join(lines,'\n'), StandardCharsets.UTF_8);
     }
 
-    private Map<String,Object> collectLines(String response, final List<String> lines) throws IOException {
-        Map<String,Object> content = JsonParser.mapper.readValue(response, new TypeReference<Map<String,Object>>(){});
-        List<Map<String, String>> lineMap = (List<Map<String, String>>) content.get("lines");
-        for(Map<String,String> line: lineMap){
-            String text = line.get("text");
-            if(text != null){
+    private void collectLines(BitbucketServerBrowseLines page, final List<String> lines) {
+        for (BitbucketServerBrowseLines.Line line : page.getValues()) {
+            String text = line.getText();
+            if (text != null) {
                 lines.add(text);
             }
         }
-        return content;
     }
 
     @SuppressFBWarnings("NP_NULL_ON_SOME_PATH_FROM_RETURN_VALUE")
@@ -1049,10 +1304,9 @@ public class BitbucketServerAPIClient extends AbstractBitbucketApi implements Bi
                 .expand();
         Type type = Type.OTHER;
         try {
-            String response = getRequest(url);
-            JsonNode typeNode = JsonParser.mapper.readTree(response).path("type");
-            if (!typeNode.isMissingNode() && !typeNode.isNull()) {
-                String responseType = typeNode.asText();
+            BitbucketServerBrowseEntry entry = getRequest(url, BitbucketServerBrowseEntry.class);
+            String responseType = entry != null ? entry.getType() : null;
+            if (responseType != null) {
                 if ("FILE".equals(responseType)) {
                     type = Type.REGULAR_FILE;
                     // type = Type.LINK; does not matter if getFileContent on the linked file/directory returns the content
@@ -27,6 +27,7 @@ import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApi;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApiFactory;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
 import com.cloudbees.jenkins.plugins.bitbucket.endpoints.BitbucketCloudEndpoint;
+import com.cloudbees.jenkins.plugins.bitbucket.endpoints.BitbucketServerEndpoint;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -50,6 +51,8 @@ public class BitbucketServerApiFactory extends BitbucketApiFactory {
         if (StringUtils.isBlank(serverURL)) {
             throw new IllegalArgumentException("serverUrl is required");
         }
-        return new BitbucketServerAPIClient(serverURL, owner, repository, authenticator, false);
+        BitbucketServerAPIClient client = new BitbucketServerAPIClient(serverURL, owner, repository, authenticator, false);
+        client.setConcurrentPageRequests(BitbucketServerEndpoint.findConcurrentPageRequests(serverURL));
+        return client;
     }
 }
@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.trait;
+
+import com.cloudbees.jenkins.plugins.bitbucket.BitbucketSCMNavigatorContext;
+import com.cloudbees.jenkins.plugins.bitbucket.Messages;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.util.FormValidation;
+import jenkins.scm.api.trait.SCMNavigatorContext;
+import jenkins.scm.api.trait.SCMNavigatorTrait;
+import jenkins.scm.api.trait.SCMNavigatorTraitDescriptor;
+import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.QueryParameter;
+
+/**
+ * Evaluates several repositories of the organization at the same time
+ * during a scan, instead of one after the other.
+ *
+ * @author Nikolas Falco
+ */
+public class ConcurrentRepositoryProcessingTrait extends SCMNavigatorTrait {
+
+    private final int threads;
+
+    @DataBoundConstructor
+    public ConcurrentRepositoryProcessingTrait(int threads) {
+        this.threads = threads;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    @Override
+    protected void decorateContext(SCMNavigatorContext<?, ?> context) {
+        ((BitbucketSCMNavigatorContext) context).withRepositoryThreads(threads);
+    }
+
+    /**
+     * Our descriptor.
+     */
+    @Symbol("bitbucketConcurrentRepositoryProcessing")
+    @Extension
+    public static class DescriptorImpl extends SCMNavigatorTraitDescriptor {
+
+        public FormValidation doCheckThreads(@QueryParameter final int threads) {
+            if (threads < 2) {
+                return FormValidation.error("Invalid value. Threads must be greater than 1");
+            }
+            return FormValidation.ok();
+        }
+
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return Messages.ConcurrentRepositoryProcessingTrait_displayName();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Class<? extends SCMNavigatorContext> getContextClass() {
+            return BitbucketSCMNavigatorContext.class;
+        }
+    }
+
+}
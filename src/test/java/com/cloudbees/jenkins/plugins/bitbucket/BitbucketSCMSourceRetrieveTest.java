@@ -139,6 +139,7 @@ public class BitbucketSCMSourceRetrieveTest {
         List<BitbucketCloudBranch> branches =
             Collections.singletonList(new BitbucketCloudBranch(BRANCH_NAME, COMMIT_HASH, 0));
         when(client.getBranches()).thenReturn(branches);
+        when(client.iterateBranches()).thenReturn(branches);
 
         verifyExpectedClientApiCalls(instance, client);
     }
@@ -156,6 +157,7 @@ public class BitbucketSCMSourceRetrieveTest {
         List<BitbucketServerBranch> branches =
             Collections.singletonList(new BitbucketServerBranch(BRANCH_NAME, COMMIT_HASH));
         when(client.getBranches()).thenReturn(branches);
+        when(client.iterateBranches()).thenReturn(branches);
         when(client.getRepository()).thenReturn(repository);
 
         verifyExpectedClientApiCalls(instance, client);
@@ -193,8 +195,10 @@ public class BitbucketSCMSourceRetrieveTest {
         verify(apiClient, Mockito.times(1)).getPullRequestById(PR_ID);
         // The event is a HasPullRequests, so this call should be skipped in favor of getting PRs from the event itself
         verify(apiClient, Mockito.never()).getPullRequests();
+        verify(apiClient, Mockito.never()).iteratePullRequests();
         // Fetch tags trait was not enabled on the BitbucketSCMSource
         verify(apiClient, Mockito.never()).getTags();
+        verify(apiClient, Mockito.never()).iterateTags();
     }
 
     private static final class HeadEvent extends SCMHeadEvent<BitbucketPullRequestEvent> implements HasPullRequests {
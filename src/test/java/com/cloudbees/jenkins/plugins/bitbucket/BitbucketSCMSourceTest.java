@@ -970,6 +970,24 @@ class BitbucketSCMSourceTest {
             });
     }
 
+    @Test
+    void verify_traits_context_is_reused_until_traits_change() {
+        BitbucketSCMSource instance = new BitbucketSCMSource("amuniz", "test-repos");
+        instance.setTraits(List.of(new BranchDiscoveryTrait(true, true)));
+        BitbucketSCMSourceContext context = instance.getTraitsContext();
+        assertThat(context.wantBranches()).isTrue();
+        assertThat(instance.getTraitsContext()).isSameAs(context);
+
+        instance.setTraits(List.of(new WebhookRegistrationTrait(WebhookRegistration.DISABLE)));
+        context = instance.getTraitsContext();
+        assertThat(context.wantBranches()).isFalse();
+        assertThat(context.webhookRegistration()).isEqualTo(WebhookRegistration.DISABLE);
+
+        // deprecated setters change the traits in place
+        instance.setAutoRegisterHook(true);
+        assertThat(instance.getTraitsContext().webhookRegistration()).isEqualTo(WebhookRegistration.ITEM);
+    }
+
     private ThrowingConsumer<SCMSourceTrait> publicRepoTrait() {
         return trait -> assertThat(trait).isInstanceOf(PublicRepoPullRequestFilterTrait.class);
     }
@@ -25,7 +25,10 @@ package com.cloudbees.jenkins.plugins.bitbucket;
 
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketHref;
 import com.cloudbees.jenkins.plugins.bitbucket.client.BitbucketCloudApiClient;
+import com.cloudbees.jenkins.plugins.bitbucket.client.branch.BitbucketCloudBranch;
 import com.cloudbees.jenkins.plugins.bitbucket.endpoints.BitbucketCloudEndpoint;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.CommitPathCache;
+import com.cloudbees.jenkins.plugins.bitbucket.trait.ConcurrentPullRequestProcessingTrait;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.model.TaskListener;
 import hudson.plugins.git.GitSCM;
@@ -35,6 +38,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import jenkins.plugins.git.AbstractGitSCMSource.SCMRevisionImpl;
 import jenkins.scm.api.SCMHead;
 import jenkins.scm.api.SCMHeadObserver;
@@ -43,6 +47,7 @@ import jenkins.scm.api.SCMSource;
 import jenkins.scm.api.SCMSourceCriteria;
 import jenkins.scm.api.SCMSourceOwner;
 import jenkins.scm.api.mixin.ChangeRequestCheckoutStrategy;
+import jenkins.scm.api.trait.SCMSourceTrait;
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Test;
@@ -54,6 +59,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class BranchScanningTest {
@@ -68,6 +76,7 @@ public class BranchScanningTest {
     @Before
     public void clearMockFactory() {
         BitbucketMockApiFactory.clear();
+        CommitPathCache.clearCache();
     }
 
     @Test
@@ -129,6 +138,44 @@ public class BranchScanningTest {
         assertEquals("PR-23", observer.getBranches().get(1));
     }
 
+    @Test
+    public void scanTestPullRequestsConcurrently() throws Exception {
+        BitbucketSCMSource source = getBitbucketSCMSourceMock(true);
+        List<SCMSourceTrait> traits = new ArrayList<>(source.getTraits());
+        traits.add(new ConcurrentPullRequestProcessingTrait(4));
+        source.setTraits(traits);
+        BitbucketCloudApiClient client = BitbucketClientMockUtils.getAPIClientMock(true, false);
+        BitbucketMockApiFactory.add(BitbucketCloudEndpoint.SERVER_URL, client);
+        SCMHeadObserverImpl observer = new SCMHeadObserverImpl();
+        source.fetch(observer, BitbucketClientMockUtils.getTaskListenerMock());
+
+        // Only branch1 and my-feature-branch PR must be observed
+        assertEquals(2, observer.getBranches().size());
+        assertEquals("branch1", observer.getBranches().get(0));
+        assertEquals("PR-23", observer.getBranches().get(1));
+        // the scanning thread reuses the answer of the probe run ahead of time
+        verify(client, times(1)).checkPathExists("e851558f77c098d21af6bb8cc54a423f7cf12147", "markerfile.txt");
+    }
+
+    @Test
+    public void scanTestTargetedBranch() throws Exception {
+        BitbucketSCMSource source = getBitbucketSCMSourceMock(true);
+        BitbucketCloudApiClient client = BitbucketClientMockUtils.getAPIClientMock(true, false);
+        BitbucketCloudBranch branch = client.getBranch(branchName);
+        when(client.getBranches(Set.of(branchName))).thenReturn(List.of(branch));
+        BitbucketMockApiFactory.add(BitbucketCloudEndpoint.SERVER_URL, client);
+
+        SCMHeadObserver.Selector observer = SCMHeadObserver.select(new BranchSCMHead(branchName));
+        source.fetch(observer, BitbucketClientMockUtils.getTaskListenerMock());
+
+        assertEquals("52fc8e220d77ec400f7fc96a91d2fd0bb1bc553a", ((SCMRevisionImpl) observer.result()).getHash());
+        // only the requested branch and its pull requests are looked up
+        verify(client).getBranches(Set.of(branchName));
+        verify(client).getPullRequests(Set.of(), Set.of(branchName));
+        verify(client, never()).iterateBranches();
+        verify(client, never()).iteratePullRequests();
+    }
+
     @Test
     public void gitSCMTest() throws Exception {
         BitbucketMockApiFactory.add(BitbucketCloudEndpoint.SERVER_URL,
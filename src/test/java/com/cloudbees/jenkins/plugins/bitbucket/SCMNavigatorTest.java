@@ -23,17 +23,21 @@
  */
 package com.cloudbees.jenkins.plugins.bitbucket;
 
+import com.cloudbees.jenkins.plugins.bitbucket.trait.ConcurrentRepositoryProcessingTrait;
 import com.google.common.collect.ImmutableList;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.model.TaskListener;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import jenkins.scm.api.SCMSource;
 import jenkins.scm.api.SCMSourceObserver;
 import jenkins.scm.api.SCMSourceObserver.ProjectObserver;
 import jenkins.scm.api.SCMSourceOwner;
+import jenkins.scm.api.trait.SCMTrait;
 import jenkins.scm.impl.NullSCMSource;
 import org.junit.ClassRule;
 import org.junit.Test;
@@ -119,10 +123,38 @@ public class SCMNavigatorTest {
         }
     }
 
+    @Test
+    public void teamRepositoriesDiscoveringConcurrently() throws IOException, InterruptedException {
+        BitbucketMockApiFactory.add("http://bitbucket.test",
+                BitbucketClientMockUtils.getAPIClientMock(true, false));
+        BitbucketSCMNavigator navigator = new BitbucketSCMNavigator("myteam", null, null);
+        navigator.setPattern("repo(.*)");
+        navigator.setBitbucketServerUrl("http://bitbucket.test");
+        List<SCMTrait<? extends SCMTrait<?>>> traits = new ArrayList<>(navigator.getTraits());
+        traits.add(new ConcurrentRepositoryProcessingTrait(4));
+        navigator.setTraits(traits);
+        final SCMSourceOwner mock = Mockito.mock(SCMSourceOwner.class);
+        when(mock.getSCMSources()).thenReturn(Collections.singletonList(new BitbucketSCMSource("myteam", "repo1")));
+        SCMSourceObserverImpl observer = new SCMSourceObserverImpl(BitbucketClientMockUtils.getTaskListenerMock(),
+                                                                   mock);
+        navigator.visitSources(observer);
+
+        List<String> observed = observer.getObserved();
+        // Only 2 repositories match the pattern, in any order
+        assertEquals("There must be 2 repositories in the team", new HashSet<>(Arrays.asList("repo1", "repo2")), new HashSet<>(observed));
+        assertEquals(2, observed.size());
+
+        for (ProjectObserver obs : observer.getProjectObservers()) {
+            List<SCMSource> sources = ((SCMSourceObserverImpl.ProjectObserverImpl) obs).getSources();
+            assertEquals("Only one source must be created per observed repository", 1, sources.size());
+            assertEquals(((BitbucketSCMSource) sources.get(0)).getRepoOwner(), "myteam");
+        }
+    }
+
     private class SCMSourceObserverImpl extends SCMSourceObserver {
 
-        List<String> observed = new ArrayList<>();
-        List<ProjectObserver> projectObservers = new ArrayList<>();
+        List<String> observed = Collections.synchronizedList(new ArrayList<>());
+        List<ProjectObserver> projectObservers = Collections.synchronizedList(new ArrayList<>());
         TaskListener listener;
         SCMSourceOwner owner;
 
@@ -0,0 +1,64 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.benchmark;
+
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Builds the payloads of the benchmarks from the recorded API responses.
+ */
+final class BenchmarkPayloads {
+
+    private BenchmarkPayloads() {
+    }
+
+    static byte[] read(String resource) throws IOException {
+        try (InputStream is = BenchmarkPayloads.class.getResourceAsStream(resource)) {
+            if (is == null) {
+                throw new IOException("Missing payload " + resource);
+            }
+            return is.readAllBytes();
+        }
+    }
+
+    /**
+     * Repeats the values of a recorded page until the page has the given size.
+     */
+    static byte[] page(String resource, int size) throws IOException {
+        ObjectNode page = (ObjectNode) JsonParser.mapper.readTree(read(resource));
+        ArrayNode recorded = (ArrayNode) page.get("values");
+        ArrayNode values = page.putArray("values");
+        for (int i = 0; i < size; i++) {
+            JsonNode value = recorded.get(i % recorded.size());
+            values.add(value.deepCopy());
+        }
+        page.put("size", size);
+        return JsonParser.mapper.writeValueAsBytes(page);
+    }
+}
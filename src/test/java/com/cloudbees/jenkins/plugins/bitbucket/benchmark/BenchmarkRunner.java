@@ -0,0 +1,71 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.benchmark;
+
+import jenkins.benchmark.jmh.BenchmarkFinder;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs every class annotated with {@link jenkins.benchmark.jmh.JmhBenchmark}.
+ * <p>
+ * The benchmarks do not reach any remote service, recorded payloads are
+ * served from the test resources. Run them with {@code mvn test -Dbenchmark},
+ * the report is written to {@code jmh-report.json}. A subset can be selected
+ * with {@code -Djmh.include=<regexp>}.
+ * <p>
+ * The {@code gc} profiler reports the bytes allocated per operation, for
+ * example per parsed page, unless {@code -Djmh.gcProfiler=false} is given.
+ */
+class BenchmarkRunner {
+
+    @Test
+    void runJmhBenchmarks() throws Exception {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .warmupIterations(Integer.getInteger("jmh.warmupIterations", 2))
+                .warmupTime(TimeValue.seconds(5))
+                .measurementIterations(Integer.getInteger("jmh.measurementIterations", 5))
+                .forks(Integer.getInteger("jmh.forks", 1))
+                .shouldFailOnError(true)
+                .shouldDoGC(true)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-report.json");
+        if (!"false".equals(System.getProperty("jmh.gcProfiler"))) {
+            options.addProfiler(GCProfiler.class);
+        }
+
+        String include = System.getProperty("jmh.include");
+        if (include != null) {
+            options.include(include);
+        } else {
+            new BenchmarkFinder(getClass()).findBenchmarks(options);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.benchmark;
+
+import com.cloudbees.jenkins.plugins.bitbucket.client.Cache;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Measures {@link Cache} lookups from many threads, when every key is cached
+ * and when the keys requested exceed the capacity of the cache so that values
+ * are loaded and entries evicted while other threads read.
+ */
+@JmhBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class CacheBenchmark {
+
+    private static final int CAPACITY = 1000;
+
+    /**
+     * Number of distinct keys requested, above {@value #CAPACITY} the cache
+     * evicts entries.
+     */
+    @Param({"1000", "4000"})
+    private int keys;
+
+    private Cache<Integer, String> cache;
+
+    @State(Scope.Thread)
+    public static class Keys {
+        private final SplittableRandom random = new SplittableRandom();
+
+        int next(int bound) {
+            return random.nextInt(bound);
+        }
+    }
+
+    @Setup
+    public void setup() throws ExecutionException {
+        cache = new Cache<>(1, TimeUnit.HOURS, CAPACITY);
+        for (int i = 0; i < Math.min(keys, CAPACITY); i++) {
+            int key = i;
+            cache.get(key, () -> String.valueOf(key));
+        }
+    }
+
+    @Benchmark
+    public String get(Keys state) throws ExecutionException {
+        int key = state.next(keys);
+        return cache.get(key, () -> String.valueOf(key));
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.benchmark;
+
+import com.cloudbees.jenkins.plugins.bitbucket.client.BitbucketCloudPage;
+import com.cloudbees.jenkins.plugins.bitbucket.client.branch.BitbucketCloudBranch;
+import com.cloudbees.jenkins.plugins.bitbucket.client.pullrequest.BitbucketPullRequests;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.JsonParser;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.branch.BitbucketServerBranches;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.pullrequest.BitbucketServerPullRequests;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.repository.BitbucketServerRepositories;
+import com.fasterxml.jackson.core.type.TypeReference;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the parsing of recorded pages of the Bitbucket APIs as done by
+ * the clients.
+ * <ul>
+ * <li>a page of Server branches read in a String before parsing it against
+ * the same page parsed from the response stream</li>
+ * <li>pages of Cloud branches and pull requests parsed with a new
+ * {@link TypeReference} resolved by the mapper on each call against the
+ * readers cached by {@link JsonParser}</li>
+ * <li>pages of Server pull requests and repositories parsed from the
+ * response stream</li>
+ * </ul>
+ * The pages repeat the recorded values up to the page size.
+ */
+@JmhBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseParsingBenchmark {
+
+    private static final String SERVER_PAYLOAD_ROOT = "/com/cloudbees/jenkins/plugins/bitbucket/server/payload/";
+    private static final String CLOUD_PAYLOAD_ROOT = "/com/cloudbees/jenkins/plugins/bitbucket/client/payload/";
+
+    private static final TypeReference<BitbucketCloudPage<BitbucketCloudBranch>> BRANCHES_PAGE = new TypeReference<>() {};
+
+    @Param({"25", "100"})
+    private int pageSize;
+
+    private byte[] serverBranches;
+    private byte[] serverPullRequests;
+    private byte[] serverRepositories;
+    private byte[] cloudBranches;
+    private byte[] cloudPullRequests;
+
+    @Setup
+    public void setup() throws IOException {
+        serverBranches = BenchmarkPayloads.page(SERVER_PAYLOAD_ROOT + "1.0-projects-amuniz-repos-test-repos-branches_start_0_limit_200.json", pageSize);
+        serverPullRequests = BenchmarkPayloads.page(SERVER_PAYLOAD_ROOT + "1.0-projects-amuniz-repos-test-repos-pull-requests_start_0_limit_200.json", pageSize);
+        serverRepositories = BenchmarkPayloads.page(SERVER_PAYLOAD_ROOT + "1.0-projects-amuniz-repos_start_0_limit_200.json", pageSize);
+        cloudBranches = BenchmarkPayloads.page(CLOUD_PAYLOAD_ROOT + "2.0-repositories-amuniz-test-repos-refs-branches_pagelen_100.json", pageSize);
+        cloudPullRequests = BenchmarkPayloads.page(CLOUD_PAYLOAD_ROOT + "2.0-repositories-amuniz-test-repos-pullrequests_page_1_pagelen_50.json", pageSize);
+    }
+
+    @Benchmark
+    public BitbucketServerBranches parseFromString() throws IOException {
+        try (InputStream content = new ByteArrayInputStream(serverBranches)) {
+            String response = IOUtils.toString(content, StandardCharsets.UTF_8);
+            return JsonParser.toJava(response, BitbucketServerBranches.class);
+        }
+    }
+
+    @Benchmark
+    public BitbucketServerBranches parseFromStream() throws IOException {
+        try (InputStream content = new ByteArrayInputStream(serverBranches)) {
+            return JsonParser.toJava(content, BitbucketServerBranches.class);
+        }
+    }
+
+    @Benchmark
+    public BitbucketCloudPage<BitbucketCloudBranch> cloudBranchesWithMapper() throws IOException {
+        return JsonParser.mapper.readValue(cloudBranches, new TypeReference<BitbucketCloudPage<BitbucketCloudBranch>>() {});
+    }
+
+    @Benchmark
+    public BitbucketCloudPage<BitbucketCloudBranch> cloudBranchesWithReader() throws IOException {
+        return JsonParser.readerFor(BRANCHES_PAGE).readValue(cloudBranches);
+    }
+
+    @Benchmark
+    public BitbucketPullRequests cloudPullRequestsWithMapper() throws IOException {
+        return JsonParser.mapper.readValue(cloudPullRequests, BitbucketPullRequests.class);
+    }
+
+    @Benchmark
+    public BitbucketPullRequests cloudPullRequestsWithReader() throws IOException {
+        return JsonParser.readerFor(BitbucketPullRequests.class).readValue(cloudPullRequests);
+    }
+
+    @Benchmark
+    public BitbucketServerPullRequests serverPullRequests() throws IOException {
+        return JsonParser.toJava(new ByteArrayInputStream(serverPullRequests), BitbucketServerPullRequests.class);
+    }
+
+    @Benchmark
+    public BitbucketServerRepositories serverRepositories() throws IOException {
+        return JsonParser.toJava(new ByteArrayInputStream(serverRepositories), BitbucketServerRepositories.class);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.benchmark;
+
+import com.cloudbees.jenkins.plugins.bitbucket.BitbucketSCMSource;
+import com.cloudbees.jenkins.plugins.bitbucket.BranchDiscoveryTrait;
+import com.cloudbees.jenkins.plugins.bitbucket.endpoints.BitbucketEndpointConfiguration;
+import com.cloudbees.jenkins.plugins.bitbucket.endpoints.BitbucketServerEndpoint;
+import hudson.model.TaskListener;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import jenkins.benchmark.jmh.JmhBenchmarkState;
+import jenkins.scm.api.SCMHead;
+import jenkins.scm.api.SCMHeadObserver;
+import jenkins.scm.api.SCMRevision;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.model.MediaType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+/**
+ * Measures a branch scan of a Bitbucket Server repository, from the HTTP
+ * requests to the heads found, against a local mock server that replays the
+ * recorded payloads.
+ */
+@JmhBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RetrieveBenchmark {
+
+    private static final String PAYLOAD_ROOT = "/com/cloudbees/jenkins/plugins/bitbucket/server/payload/";
+    private static final String REPOSITORY_PATH = "/rest/api/1.0/projects/amuniz/repos/test-repos";
+
+    public static class ServerState extends JmhBenchmarkState {
+
+        @Param({"10", "100"})
+        private int branches;
+
+        private ClientAndServer mockServer;
+
+        private BitbucketSCMSource source;
+
+        @Override
+        public void setup() throws Exception {
+            mockServer = ClientAndServer.startClientAndServer();
+            String serverURL = "http://localhost:" + mockServer.getPort();
+            BitbucketEndpointConfiguration.get().addEndpoint(new BitbucketServerEndpoint("benchmark", serverURL, false, null));
+
+            serve(REPOSITORY_PATH, BenchmarkPayloads.read(PAYLOAD_ROOT + "1.0-projects-amuniz-repos-test-repos.json"));
+            serve(REPOSITORY_PATH + "/branches", BenchmarkPayloads.page(PAYLOAD_ROOT + "1.0-projects-amuniz-repos-test-repos-branches_start_0_limit_200.json", branches));
+            serve(REPOSITORY_PATH + "/commits/.*", BenchmarkPayloads.read(PAYLOAD_ROOT + "1.0-projects-amuniz-repos-test-repos-commits-046d9a3c1532acf4cf08fe93235c00e4d673c1d2.json"));
+
+            source = new BitbucketSCMSource("amuniz", "test-repos");
+            source.setServerUrl(serverURL);
+            source.setTraits(List.of(new BranchDiscoveryTrait(true, true)));
+        }
+
+        private void serve(String path, byte[] payload) {
+            mockServer.when(request().withMethod("GET").withPath(path))
+                .respond(response().withStatusCode(200).withContentType(MediaType.APPLICATION_JSON).withBody(payload));
+        }
+
+        @Override
+        public void tearDown() {
+            mockServer.stop();
+        }
+    }
+
+    @Benchmark
+    public Map<SCMHead, SCMRevision> retrieveBranches(ServerState state) throws IOException, InterruptedException {
+        return state.source.fetch(SCMHeadObserver.collect(), TaskListener.NULL).result();
+    }
+}
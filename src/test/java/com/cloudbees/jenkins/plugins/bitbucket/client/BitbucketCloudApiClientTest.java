@@ -24,10 +24,12 @@
 package com.cloudbees.jenkins.plugins.bitbucket.client;
 
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApi;
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketBuildStatus;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketBuildStatus.Status;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketWebHook;
 import com.cloudbees.jenkins.plugins.bitbucket.client.BitbucketIntegrationClientFactory.IAuditable;
+import com.cloudbees.jenkins.plugins.bitbucket.client.BitbucketIntegrationClientFactory.IRequestAudit;
 import com.cloudbees.jenkins.plugins.bitbucket.client.repository.BitbucketCloudRepository;
 import com.cloudbees.jenkins.plugins.bitbucket.endpoints.BitbucketCloudEndpoint;
 import com.cloudbees.jenkins.plugins.bitbucket.impl.util.JsonParser;
@@ -36,12 +38,20 @@ import hudson.ProxyConfiguration;
 import io.jenkins.cli.shaded.org.apache.commons.lang.RandomStringUtils;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.commons.io.IOUtils;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.classic.methods.HttpPut;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.HttpRequest;
 import org.junit.jupiter.api.Test;
 import org.jvnet.hudson.test.JenkinsRule;
@@ -50,8 +60,11 @@ import org.mockito.ArgumentCaptor;
 
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 class BitbucketCloudApiClientTest {
@@ -115,6 +128,44 @@ class BitbucketCloudApiClientTest {
         assertThat(repository.getUpdatedOn()).isEqualTo(expectedDate);
     }
 
+    @Test
+    void get_webhooks_reads_all_pages_in_order() throws Exception {
+        BitbucketApi client = BitbucketIntegrationClientFactory.getClient(getClass().getPackageName().replace('.', '/')
+                + "/BitbucketCloudApiClientTest/pages", BitbucketCloudEndpoint.SERVER_URL, "amuniz", "test-repos");
+
+        List<? extends BitbucketWebHook> webHooks = client.getWebHooks();
+
+        // the first page tells there are three pages, the two others are requested together
+        assertThat(webHooks.stream().map(BitbucketWebHook::getDescription))
+            .containsExactly("hook 1", "hook 2", "hook 3", "hook 4", "hook 5");
+        verify(((IAuditable) client).getAudit(), times(3)).request(any(HttpRequest.class));
+    }
+
+    @Test
+    void interrupting_a_concurrent_page_fetch_cancels_the_page_requests() throws Exception {
+        CountDownLatch pagesInFlight = new CountDownLatch(2);
+        CountDownLatch pagesCancelled = new CountDownLatch(2);
+        BitbucketApi client = new BlockingPagesClient(pagesInFlight, pagesCancelled);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread scan = new Thread(() -> {
+            try {
+                client.getWebHooks();
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        scan.start();
+        // the first page tells there are three pages, the two others are requested together
+        assertThat(pagesInFlight.await(10, TimeUnit.SECONDS)).isTrue();
+
+        scan.interrupt();
+        scan.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertThat(scan.isAlive()).isFalse();
+        assertThat(failure.get()).isInstanceOf(InterruptedException.class);
+        assertThat(pagesCancelled.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
     @Test
     void verifyUpdateWebhookURL() throws Exception {
         BitbucketApi client = BitbucketIntegrationClientFactory.getApiMockClient(BitbucketCloudEndpoint.SERVER_URL);
@@ -131,4 +182,45 @@ class BitbucketCloudApiClientTest {
                 assertThat(put.getRequestUri()).isEqualTo("https://api.bitbucket.org/2.0/repositories/amuniz/test-repos/hooks/%7B202cf34e-7ccf-44b7-ba6b-8827a14d5324%7D"));
     }
 
+
+    /**
+     * Serves the first page of the webhooks and holds the requests of the
+     * other pages until they are interrupted.
+     */
+    private static final class BlockingPagesClient extends BitbucketCloudApiClient implements IAuditable {
+        private final CountDownLatch pagesInFlight;
+        private final CountDownLatch pagesCancelled;
+        private final IRequestAudit audit = mock(IRequestAudit.class);
+
+        BlockingPagesClient(CountDownLatch pagesInFlight, CountDownLatch pagesCancelled) {
+            super(false, 0, 0, "amuniz", null, "test-repos", mock(BitbucketAuthenticator.class));
+            this.pagesInFlight = pagesInFlight;
+            this.pagesCancelled = pagesCancelled;
+        }
+
+        @Override
+        protected ClassicHttpResponse executeMethod(HttpHost host,
+                                                    HttpUriRequest httpMethod,
+                                                    boolean requireAuthentication) throws IOException {
+            String uri = httpMethod.getRequestUri();
+            audit.request(httpMethod);
+            if (uri.contains("page=1&")) {
+                return loadResponseFromResources(BitbucketCloudApiClientTest.class, uri,
+                        "BitbucketCloudApiClientTest/pages/2.0-repositories-amuniz-test-repos-hooks_page_1_pagelen_100.json");
+            }
+            pagesInFlight.countDown();
+            try {
+                new CountDownLatch(1).await();
+                throw new IllegalStateException("page request not interrupted");
+            } catch (InterruptedException e) {
+                pagesCancelled.countDown();
+                throw new InterruptedIOException();
+            }
+        }
+
+        @Override
+        public IRequestAudit getAudit() {
+            return audit;
+        }
+    }
 }
@@ -0,0 +1,142 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.client;
+
+import com.cloudbees.jenkins.plugins.bitbucket.client.branch.BitbucketCloudBranch;
+import com.cloudbees.jenkins.plugins.bitbucket.client.pullrequest.BitbucketPullRequests;
+import com.cloudbees.jenkins.plugins.bitbucket.client.repository.PaginatedBitbucketRepository;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.InputStream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that the partial responses requested to Bitbucket Cloud for list
+ * endpoints still carry every field the scan reads, comparing the DTOs parsed
+ * from the recorded payloads with those parsed from their projection.
+ */
+class BitbucketCloudPartialResponseTest {
+
+    private static final String PAYLOAD_ROOT = "/com/cloudbees/jenkins/plugins/bitbucket/client/payload/";
+
+    @Test
+    void branch_fields() throws Exception {
+        for (String payload : new String[] {"2.0-repositories-amuniz-test-repos-refs-branches_pagelen_100.json",
+                                            "2.0-repositories-amuniz-test-repos-refs-tags_pagelen_100.json"}) {
+            JsonNode full = read(PAYLOAD_ROOT + payload);
+            JsonNode partial = project(full, BitbucketCloudApiClient.BRANCH_FIELDS);
+            TypeReference<BitbucketCloudPage<BitbucketCloudBranch>> type = new TypeReference<>() {};
+
+            BitbucketCloudPage<BitbucketCloudBranch> expected = JsonParser.toJava(full.toString(), type);
+            BitbucketCloudPage<BitbucketCloudBranch> actual = JsonParser.toJava(partial.toString(), type);
+
+            assertThat(actual.getValues()).isNotEmpty()
+                .usingRecursiveFieldByFieldElementComparator()
+                .isEqualTo(expected.getValues());
+            assertThat(actual.getNext()).isEqualTo(expected.getNext());
+        }
+    }
+
+    @Test
+    void pull_request_fields() throws Exception {
+        JsonNode full = read(PAYLOAD_ROOT + "2.0-repositories-amuniz-test-repos-pullrequests_page_1_pagelen_50.json");
+        JsonNode partial = project(full, BitbucketCloudApiClient.PULL_REQUEST_FIELDS);
+
+        BitbucketPullRequests expected = JsonParser.toJava(full.toString(), BitbucketPullRequests.class);
+        BitbucketPullRequests actual = JsonParser.toJava(partial.toString(), BitbucketPullRequests.class);
+
+        assertThat(actual.getValues()).isNotEmpty()
+            .usingRecursiveFieldByFieldElementComparator()
+            .isEqualTo(expected.getValues());
+        assertThat(actual.getNext()).isEqualTo(expected.getNext());
+    }
+
+    @Test
+    void repository_fields() throws Exception {
+        ObjectNode full = JsonParser.mapper.createObjectNode();
+        full.putArray("values").add(read("BitbucketCloudApiClientTest/getRepositoryPayload.json"));
+        full.put("next", "https://api.bitbucket.org/2.0/repositories/amuniz?page=2");
+        JsonNode partial = project(full, BitbucketCloudApiClient.REPOSITORY_FIELDS);
+
+        PaginatedBitbucketRepository expected = JsonParser.toJava(full.toString(), PaginatedBitbucketRepository.class);
+        PaginatedBitbucketRepository actual = JsonParser.toJava(partial.toString(), PaginatedBitbucketRepository.class);
+
+        assertThat(actual.getValues()).isNotEmpty()
+            .usingRecursiveFieldByFieldElementComparator()
+            .isEqualTo(expected.getValues());
+        assertThat(actual.getNext()).isEqualTo(expected.getNext());
+    }
+
+    private JsonNode read(String resource) throws IOException {
+        try (InputStream is = getClass().getResourceAsStream(resource)) {
+            assertThat(is).as("resource " + resource).isNotNull();
+            return JsonParser.mapper.readTree(is);
+        }
+    }
+
+    /*
+     * Applies the fields parameter as Bitbucket does, a path selects the
+     * member of each element when it crosses an array.
+     */
+    private static JsonNode project(JsonNode source, String fields) {
+        ObjectNode target = JsonParser.mapper.createObjectNode();
+        for (String field : fields.split(",")) {
+            copy(source, target, field.split("\\."), 0);
+        }
+        return target;
+    }
+
+    private static void copy(JsonNode source, ObjectNode target, String[] path, int index) {
+        String name = path[index];
+        JsonNode child = source.get(name);
+        if (child == null || child.isNull()) {
+            return;
+        }
+        if (index == path.length - 1) {
+            target.set(name, child.deepCopy());
+        } else if (child.isArray()) {
+            ArrayNode array;
+            if (target.get(name) instanceof ArrayNode existing) {
+                array = existing;
+            } else {
+                array = target.putArray(name);
+                for (int i = 0; i < child.size(); i++) {
+                    array.addObject();
+                }
+            }
+            for (int i = 0; i < child.size(); i++) {
+                copy(child.get(i), (ObjectNode) array.get(i), path, index + 1);
+            }
+        } else {
+            ObjectNode object = target.get(name) instanceof ObjectNode existing ? existing : target.putObject(name);
+            copy(child, object, path, index + 1);
+        }
+    }
+}
@@ -32,6 +32,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import org.apache.commons.io.IOUtils;
 import org.apache.hc.client5.http.classic.methods.HttpUriRequest;
 import org.apache.hc.core5.http.ClassicHttpResponse;
@@ -164,7 +165,11 @@ public class BitbucketIntegrationClientFactory {
             String uri = httpMethod.getRequestUri();
             audit.request(httpMethod);
 
+            // payloads of list endpoints are recorded as full responses, see BitbucketCloudPartialResponseTest
             String path = uri.replace(API_ENDPOINT, "");
+            for (String fields : List.of(BRANCH_FIELDS, PULL_REQUEST_FIELDS, REPOSITORY_FIELDS)) {
+                path = path.replace("fields=" + fields.replace(",", "%2C") + "&", "");
+            }
             if (path.startsWith("/")) {
                 path = path.replaceFirst("/", "");
             }
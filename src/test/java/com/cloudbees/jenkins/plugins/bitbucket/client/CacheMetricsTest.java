@@ -0,0 +1,72 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.client;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheMetricsTest {
+
+    @Test
+    void test_statistics_are_published_over_jmx() throws Exception {
+        Cache<String, String> cache = new Cache<>(5, TimeUnit.HOURS);
+        CacheMetrics.register(cache, "Test", "https://bitbucket.example.com");
+        cache.get("a key", () -> "a value");
+        cache.get("a key", () -> "a value");
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("com.cloudbees.jenkins.plugins.bitbucket:type=Cache,name=Test,server=\"https://bitbucket.example.com\"");
+        try {
+            assertThat(server.getAttribute(name, "EntryCount")).isEqualTo(1);
+            assertThat(server.getAttribute(name, "HitCount")).isEqualTo(1L);
+            assertThat(server.getAttribute(name, "MissCount")).isEqualTo(1L);
+            assertThat(server.getAttribute(name, "HitRate")).isEqualTo(0.5);
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @Test
+    void test_registering_again_replaces_the_statistics() throws Exception {
+        Cache<String, String> first = new Cache<>(5, TimeUnit.HOURS);
+        Cache<String, String> second = new Cache<>(5, TimeUnit.HOURS);
+        second.get("a key", () -> "a value");
+
+        CacheMetrics.register(first, "Replaced", null);
+        CacheMetrics.register(second, "Replaced", null);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("com.cloudbees.jenkins.plugins.bitbucket:type=Cache,name=Replaced");
+        try {
+            assertThat(server.getAttribute(name, "MissCount")).isEqualTo(1L);
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
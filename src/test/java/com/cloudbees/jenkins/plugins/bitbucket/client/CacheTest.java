@@ -23,11 +23,21 @@
  */
 package com.cloudbees.jenkins.plugins.bitbucket.client;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -77,4 +87,183 @@ public class CacheTest {
         cache.get("another key", callable);
         assertEquals(10, cache.size());
     }
+
+    @Test
+    public void ensure_concurrent_loads_of_same_key_are_merged() throws Exception {
+        final Cache<String, Long> cache = new Cache<>(5, TimeUnit.HOURS);
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final Callable<Long> callable = () -> {
+            loads.incrementAndGet();
+            release.await();
+            return 1L;
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                results.add(executor.submit(() -> cache.get("a key", callable)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<Long> result : results) {
+                assertEquals(Long.valueOf(1L), result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void ensure_different_keys_are_loaded_in_parallel() throws Exception {
+        final Cache<String, Long> cache = new Cache<>(5, TimeUnit.HOURS);
+        final CountDownLatch allLoading = new CountDownLatch(2);
+        final Callable<Long> callable = () -> {
+            allLoading.countDown();
+            // a global lock on the cache would never let the second key start loading
+            assertTrue(allLoading.await(5, TimeUnit.SECONDS));
+            return 1L;
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Long> first = executor.submit(() -> cache.get("first key", callable));
+            Future<Long> second = executor.submit(() -> cache.get("second key", callable));
+            assertEquals(Long.valueOf(1L), first.get(10, TimeUnit.SECONDS));
+            assertEquals(Long.valueOf(1L), second.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void ensure_failures_are_not_cached() throws Exception {
+        final Cache<String, Long> cache = new Cache<>(5, TimeUnit.HOURS);
+        final Callable<Long> callable = mock(Callable.class);
+        when(callable.call()).thenThrow(new IllegalStateException()).thenReturn(1L);
+
+        try {
+            cache.get("a key", callable);
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(0, cache.size());
+        assertEquals(Long.valueOf(1L), cache.get("a key", callable));
+
+        verify(callable, times(2)).call();
+    }
+
+    @Test
+    public void ensure_errors_do_not_block_waiting_callers() throws Exception {
+        final Cache<String, Long> cache = new Cache<>(5, TimeUnit.HOURS);
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch waiting = new CountDownLatch(1);
+        final Callable<Long> callable = () -> {
+            loading.countDown();
+            assertTrue(waiting.await(5, TimeUnit.SECONDS));
+            throw new LinkageError("cannot load");
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Long> first = executor.submit(() -> cache.get("a key", callable));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<Long> second = executor.submit(() -> {
+                waiting.countDown();
+                return cache.get("a key", () -> 2L);
+            });
+            try {
+                first.get(10, TimeUnit.SECONDS);
+                fail("LinkageError expected");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof LinkageError);
+            }
+            // depending on when it arrived the second caller waited for the error or loaded the key itself
+            try {
+                assertEquals(Long.valueOf(2L), second.get(10, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof ExecutionException);
+                assertTrue(e.getCause().getCause() instanceof LinkageError);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(Long.valueOf(3L), cache.get("a key", () -> 3L));
+    }
+
+    @Test
+    public void ensure_weigher_failures_are_not_cached() throws Exception {
+        final AtomicInteger weighed = new AtomicInteger();
+        final Cache<String, Long> cache = new Cache<>(5, TimeUnit.HOURS, 10, 100, (k, v) -> {
+            if (weighed.getAndIncrement() == 0) {
+                throw new IllegalStateException("cannot weigh");
+            }
+            return 1;
+        });
+
+        try {
+            cache.get("a key", () -> 1L);
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(0, cache.size());
+        assertEquals(Long.valueOf(2L), cache.get("a key", () -> 2L));
+        assertEquals(1, cache.stats().getWeight());
+    }
+
+    @Test
+    public void ensure_stats_reports_youngest_and_oldest_entries() throws Exception {
+        final Cache<String, Long> cache = new Cache<>(5, TimeUnit.HOURS);
+        assertEquals(0, cache.stats().getCount());
+
+        cache.get("first key", () -> 1L);
+        Thread.sleep(50);
+        cache.get("second key", () -> 2L);
+
+        Cache.Stat stat = cache.stats();
+        assertEquals(2, stat.getCount());
+        assertTrue(stat.getMinDuration() < stat.getMaxDuration());
+    }
+
+    @Test
+    public void ensure_max_weight_works() throws Exception {
+        final Cache<String, String> cache = new Cache<>(5, TimeUnit.HOURS, Integer.MAX_VALUE, 100, (key, value) -> value.length());
+
+        cache.get("first key", () -> "0123456789".repeat(4));
+        cache.get("second key", () -> "0123456789".repeat(4));
+        assertEquals(2, cache.size());
+        assertEquals(80, cache.stats().getWeight());
+
+        cache.get("third key", () -> "0123456789".repeat(4));
+        assertEquals(2, cache.size());
+        assertEquals(80, cache.stats().getWeight());
+        assertEquals(1, cache.stats().getEvictionCount());
+
+        // the eldest entry has been evicted
+        final Callable<String> callable = mock(Callable.class);
+        when(callable.call()).thenReturn("reloaded");
+        assertEquals("reloaded", cache.get("first key", callable));
+        verify(callable).call();
+    }
+
+    @Test
+    public void ensure_hits_and_misses_are_counted() throws Exception {
+        final Cache<String, Long> cache = new Cache<>(5, TimeUnit.HOURS);
+
+        cache.get("a key", () -> 1L);
+        cache.get("a key", () -> 1L);
+        cache.get("a key", () -> 1L);
+        cache.get("another key", () -> 1L);
+
+        Cache.Stat stat = cache.stats();
+        assertEquals(2, stat.getHitCount());
+        assertEquals(2, stat.getMissCount());
+        assertEquals(0.5, stat.getHitRate(), 0.001);
+        assertEquals(0, stat.getEvictionCount());
+    }
 }
@@ -470,6 +470,21 @@ class BitbucketEndpointConfigurationTest {
             });
     }
 
+    @Test
+    void given__instanceWithServer__when__updatingServer__then__updatedEndpointFound() {
+        BitbucketEndpointConfiguration instance = new BitbucketEndpointConfiguration();
+        instance.setEndpoints(Collections.singletonList(
+                new BitbucketServerEndpoint("Example Inc", "https://bitbucket.example.com/", true, "first")));
+        List<AbstractBitbucketEndpoint> before = instance.getEndpoints();
+
+        instance.updateEndpoint(new BitbucketServerEndpoint("Example Inc", "https://bitbucket.example.com", true, "second"));
+        assertThat(instance.findEndpoint("https://BITBUCKET.EXAMPLE.COM:443/"))
+            .hasValueSatisfying(endpoint -> assertThat(endpoint.getCredentialsId()).isEqualTo("second"));
+        // the list returned before is a snapshot of the previous configuration
+        assertThat(before).singleElement()
+            .satisfies(endpoint -> assertThat(endpoint.getCredentialsId()).isEqualTo("first"));
+    }
+
     @Test
     void given__instanceWithServers__when__findingNonExistingEndpoint__then__endpointNotFound() {
         BitbucketEndpointConfiguration instance = new BitbucketEndpointConfiguration();
@@ -689,6 +704,7 @@ class BitbucketEndpointConfigurationTest {
         assertThat(endpoint1.isEnableCache()).isTrue();
         assertThat(endpoint1.getTeamCacheDuration()).isEqualTo(1);
         assertThat(endpoint1.getRepositoriesCacheDuration()).isEqualTo(2);
+        assertThat(endpoint1.getCommitCacheSize()).isEqualTo(32);
 
         BitbucketServerEndpoint serverEndpoint;
         serverEndpoint = (BitbucketServerEndpoint) instance.getEndpoints().get(1);
@@ -698,6 +714,8 @@ class BitbucketEndpointConfigurationTest {
         assertThat(serverEndpoint.getCredentialsId()).isEqualTo("second");
         assertThat(serverEndpoint.isCallCanMerge()).isFalse();
         assertThat(serverEndpoint.isCallChanges()).isTrue();
+        assertThat(serverEndpoint.getCommitCacheSize()).isEqualTo(64);
+        assertThat(serverEndpoint.getMaxConnections()).isEqualTo(20);
         assertThat(serverEndpoint.getWebhookImplementation()).isEqualTo(BitbucketServerWebhookImplementation.PLUGIN);
         assertThat(serverEndpoint.getServerVersion()).isEqualTo(BitbucketServerVersion.VERSION_7);
 
@@ -0,0 +1,97 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.hooks;
+
+import com.cloudbees.jenkins.plugins.bitbucket.BitbucketSCMSource;
+import java.util.List;
+import jenkins.branch.BranchSource;
+import org.jenkinsci.plugins.workflow.multibranch.WorkflowMultiBranchProject;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.MockFolder;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@WithJenkins
+class BitbucketSCMSourceIndexTest {
+
+    private static final String SERVER_URL = "https://bitbucket.server";
+
+    private static JenkinsRule r;
+
+    @BeforeAll
+    static void init(JenkinsRule rule) {
+        r = rule;
+    }
+
+    @Test
+    void verify_sources_are_found_by_repository() throws Exception {
+        WorkflowMultiBranchProject project = r.jenkins.createProject(WorkflowMultiBranchProject.class, "by-repository");
+        BitbucketSCMSource source = new BitbucketSCMSource("AMUNIZ", "index-repos");
+        source.setServerUrl(SERVER_URL);
+        source.setMirrorId("mirror");
+        project.getSourcesList().add(new BranchSource(source));
+
+        BitbucketSCMSourceIndex index = BitbucketSCMSourceIndex.get();
+        assertThat(index.findSources(null, "amuniz", "index-repos", null)).containsExactly(source);
+        assertThat(index.findSources(SERVER_URL + '/', "amuniz", "index-repos", "MIRROR")).containsExactly(source);
+        assertThat(index.findSources("https://bitbucket.org", "amuniz", "index-repos", null)).isEmpty();
+        assertThat(index.findSources(SERVER_URL, "amuniz", "index-repos", "other-mirror")).isEmpty();
+        assertThat(index.findSources(SERVER_URL, "amuniz", "INDEX-REPOS", null)).isEmpty();
+    }
+
+    @Test
+    void verify_index_follows_source_changes() throws Exception {
+        WorkflowMultiBranchProject project = r.jenkins.createProject(WorkflowMultiBranchProject.class, "source-changes");
+        BitbucketSCMSource source = new BitbucketSCMSource("amuniz", "changed-repos");
+        project.getSourcesList().add(new BranchSource(source));
+
+        BitbucketSCMSourceIndex index = BitbucketSCMSourceIndex.get();
+        assertThat(index.findSources(null, "amuniz", "changed-repos", null)).containsExactly(source);
+
+        BitbucketSCMSource replacement = new BitbucketSCMSource("amuniz", "replacement-repos");
+        project.getSourcesList().replaceBy(List.of(new BranchSource(replacement)));
+        assertThat(index.findSources(null, "amuniz", "changed-repos", null)).isEmpty();
+        assertThat(index.findSources(null, "amuniz", "replacement-repos", null)).containsExactly(replacement);
+
+        project.delete();
+        assertThat(index.findSources(null, "amuniz", "replacement-repos", null)).isEmpty();
+    }
+
+    @Test
+    void verify_nested_projects_are_removed_with_their_folder() throws Exception {
+        MockFolder folder = r.createFolder("folder");
+        WorkflowMultiBranchProject project = folder.createProject(WorkflowMultiBranchProject.class, "nested");
+        BitbucketSCMSource source = new BitbucketSCMSource("amuniz", "nested-repos");
+        project.getSourcesList().add(new BranchSource(source));
+
+        BitbucketSCMSourceIndex index = BitbucketSCMSourceIndex.get();
+        assertThat(index.findSources(null, "amuniz", "nested-repos", null)).containsExactly(source);
+
+        folder.delete();
+        assertThat(index.findSources(null, "amuniz", "nested-repos", null)).isEmpty();
+    }
+}
@@ -27,16 +27,24 @@ import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.CountDownLatch;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.kohsuke.stapler.HttpResponse;
 import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -60,6 +68,7 @@ class BitbucketSCMSourcePushHookReceiverTest {
         sut = spy(new BitbucketSCMSourcePushHookReceiver());
         hookProcessor = mock(HookProcessor.class);
         doReturn(hookProcessor).when(sut).getHookProcessor(any(HookEventType.class));
+        doReturn(new HookEventQueue(1, 10)).when(sut).getEventQueue();
     }
 
     @Test
@@ -76,7 +85,7 @@ class BitbucketSCMSourcePushHookReceiverTest {
         sut.doNotify(req);
 
         verify(sut).getHookProcessor(HookEventType.PULL_REQUEST_CREATED);
-        verify(hookProcessor).process(
+        verify(hookProcessor, timeout(5000)).process(
                 eq(HookEventType.PULL_REQUEST_CREATED),
                 anyString(),
                 eq(BitbucketType.CLOUD),
@@ -98,7 +107,7 @@ class BitbucketSCMSourcePushHookReceiverTest {
         sut.doNotify(req);
 
         verify(sut).getHookProcessor(HookEventType.PULL_REQUEST_DECLINED);
-        verify(hookProcessor).process(
+        verify(hookProcessor, timeout(5000)).process(
                 eq(HookEventType.PULL_REQUEST_DECLINED),
                 anyString(),
                 eq(BitbucketType.CLOUD),
@@ -106,6 +115,44 @@ class BitbucketSCMSourcePushHookReceiverTest {
                 eq("https://bitbucket.org"));
     }
 
+    @Test
+    void test_event_rejected_when_queue_is_full() throws Exception {
+        HookEventQueue queue = new HookEventQueue(1, 1);
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        queue.offer(() -> {
+            processing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        processing.await();
+        assertThat(queue.offer(() -> {})).isTrue();
+        doReturn(queue).when(sut).getEventQueue();
+
+        when(req.getHeader("X-Event-Key")).thenReturn("pullrequest:created");
+        when(req.getHeader("X-Bitbucket-Type")).thenReturn("cloud");
+        when(req.getInputStream()).thenReturn(loadResource("pullrequest_created.json"));
+
+        try {
+            HttpResponse response = sut.doNotify(req);
+
+            StaplerResponse2 rsp = mock(StaplerResponse2.class);
+            StringWriter content = new StringWriter();
+            when(rsp.getWriter()).thenReturn(new PrintWriter(content));
+            response.generateResponse(req, rsp, null);
+
+            verify(rsp).setStatus(503);
+            verify(rsp).setHeader("Retry-After", String.valueOf(HookEventQueue.RETRY_AFTER_SECONDS));
+            assertThat(queue.getRejectedCount()).isEqualTo(1);
+        } finally {
+            release.countDown();
+        }
+        verify(hookProcessor, never()).process(any(HookEventType.class), anyString(), any(BitbucketType.class), anyString(), anyString());
+    }
+
     private ServletInputStream loadResource(String resource) {
         final InputStream delegate = this.getClass().getResourceAsStream("cloud/" + resource);
         return new ServletInputStream() {
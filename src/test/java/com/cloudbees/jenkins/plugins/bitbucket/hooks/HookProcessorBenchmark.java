@@ -0,0 +1,113 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.hooks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import jenkins.scm.api.SCMHeadEvent;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures how many webhook payloads per second the processors turn into
+ * {@link SCMHeadEvent}s. Events are returned instead of being fired, this
+ * leaves out the work done by the SCM event listeners.
+ */
+@JmhBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HookProcessorBenchmark {
+
+    private static final String SERVER_URL = "http://localhost:7990";
+
+    private String cloudPush;
+    private String cloudPullRequest;
+    private String nativePush;
+
+    private HookProcessor pushProcessor;
+    private HookProcessor pullRequestProcessor;
+    private HookProcessor nativePushProcessor;
+
+    private SCMHeadEvent<?> event;
+
+    @Setup
+    public void setup() throws IOException {
+        cloudPush = loadResource("cloud/commit_created.json");
+        cloudPullRequest = loadResource("cloud/pullrequest_created.json");
+        nativePush = loadResource("native/pushPayload.json");
+
+        pushProcessor = new PushHookProcessor() {
+            @Override
+            protected void notifyEvent(SCMHeadEvent<?> event, int delaySeconds) {
+                HookProcessorBenchmark.this.event = event;
+            }
+        };
+        pullRequestProcessor = new PullRequestHookProcessor() {
+            @Override
+            protected void notifyEvent(SCMHeadEvent<?> event, int delaySeconds) {
+                HookProcessorBenchmark.this.event = event;
+            }
+        };
+        nativePushProcessor = new NativeServerPushHookProcessor() {
+            @Override
+            protected void notifyEvent(SCMHeadEvent<?> event, int delaySeconds) {
+                HookProcessorBenchmark.this.event = event;
+            }
+        };
+    }
+
+    @Benchmark
+    public SCMHeadEvent<?> cloudPush() {
+        pushProcessor.process(HookEventType.PUSH, cloudPush, BitbucketType.CLOUD, "origin");
+        return event;
+    }
+
+    @Benchmark
+    public SCMHeadEvent<?> cloudPullRequest() {
+        pullRequestProcessor.process(HookEventType.PULL_REQUEST_CREATED, cloudPullRequest, BitbucketType.CLOUD, "origin");
+        return event;
+    }
+
+    @Benchmark
+    public SCMHeadEvent<?> nativeServerPush() {
+        nativePushProcessor.process(HookEventType.SERVER_REFS_CHANGED, nativePush, BitbucketType.SERVER, "origin", SERVER_URL);
+        return event;
+    }
+
+    private String loadResource(String resource) throws IOException {
+        try (InputStream stream = getClass().getResourceAsStream(resource)) {
+            return IOUtils.toString(stream, StandardCharsets.UTF_8);
+        }
+    }
+}
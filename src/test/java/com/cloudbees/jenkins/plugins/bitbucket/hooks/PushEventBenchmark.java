@@ -0,0 +1,115 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.hooks;
+
+import com.cloudbees.jenkins.plugins.bitbucket.BitbucketSCMSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import jenkins.scm.api.SCMHeadEvent;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the cost of matching a push event against every source of an
+ * instance, as done by the SCM event listeners for each multibranch project,
+ * when a single source is about the pushed repository.
+ */
+@JmhBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PushEventBenchmark {
+
+    private static final String SERVER_URL = "http://localhost:7990";
+
+    @Param({"10", "100", "1000"})
+    private int sources;
+
+    private List<BitbucketSCMSource> candidates;
+
+    private SCMHeadEvent<?> cloudPush;
+    private SCMHeadEvent<?> serverPush;
+
+    @Setup
+    public void setup() throws IOException {
+        candidates = new ArrayList<>(sources);
+        for (int i = 1; i < sources; i++) {
+            candidates.add(new BitbucketSCMSource("owner" + i, "repository" + i));
+        }
+        // the repository of the recorded payloads
+        candidates.add(sources / 2, new BitbucketSCMSource("amuniz", "test-repos"));
+
+        HookProcessor pushProcessor = new PushHookProcessor() {
+            @Override
+            protected void notifyEvent(SCMHeadEvent<?> event, int delaySeconds) {
+                cloudPush = event;
+            }
+        };
+        pushProcessor.process(HookEventType.PUSH, loadResource("cloud/commit_created.json"), BitbucketType.CLOUD, "origin");
+
+        HookProcessor nativePushProcessor = new NativeServerPushHookProcessor() {
+            @Override
+            protected void notifyEvent(SCMHeadEvent<?> event, int delaySeconds) {
+                serverPush = event;
+            }
+        };
+        nativePushProcessor.process(HookEventType.SERVER_REFS_CHANGED, loadResource("native/pushPayload.json"), BitbucketType.SERVER, "origin", SERVER_URL);
+    }
+
+    @Benchmark
+    public int cloudPushHeads() {
+        return heads(cloudPush);
+    }
+
+    @Benchmark
+    public int serverPushHeads() {
+        return heads(serverPush);
+    }
+
+    private int heads(SCMHeadEvent<?> event) {
+        int count = 0;
+        for (BitbucketSCMSource source : candidates) {
+            count += event.heads(source).size();
+        }
+        return count;
+    }
+
+    private String loadResource(String resource) throws IOException {
+        try (InputStream stream = getClass().getResourceAsStream(resource)) {
+            return IOUtils.toString(stream, StandardCharsets.UTF_8);
+        }
+    }
+}
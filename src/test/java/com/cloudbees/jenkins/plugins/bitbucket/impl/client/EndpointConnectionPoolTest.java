@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class EndpointConnectionPoolTest {
+
+    @Test
+    void test_pool_per_endpoint() {
+        AtomicInteger setups = new AtomicInteger();
+        HttpHost host = new HttpHost("https", "pool.example.com");
+        EndpointConnectionPool pool = EndpointConnectionPool.get(host, 5, p -> setups.incrementAndGet());
+        try {
+            assertThat(EndpointConnectionPool.get(host, 5, p -> setups.incrementAndGet())).isSameAs(pool);
+            assertThat(EndpointConnectionPool.find(host)).isSameAs(pool);
+            assertThat(EndpointConnectionPool.get(new HttpHost("https", "other.example.com"), 5, p -> {})).isNotSameAs(pool);
+            assertThat(setups).hasValue(1);
+            assertThat(pool.getDefaultMaxPerRoute()).isEqualTo(5);
+            assertThat(pool.getMaxTotal()).isEqualTo(7);
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    void test_pool_resized_when_configuration_changes() {
+        HttpHost host = new HttpHost("https", "resize.example.com");
+        EndpointConnectionPool pool = EndpointConnectionPool.get(host, 5, p -> {});
+        try {
+            EndpointConnectionPool.get(host, 40, p -> {});
+            assertThat(pool.getDefaultMaxPerRoute()).isEqualTo(40);
+
+            EndpointConnectionPool.get(host, 0, p -> {});
+            assertThat(pool.getDefaultMaxPerRoute()).isEqualTo(EndpointConnectionPool.DEFAULT_MAX_CONNECTIONS);
+            assertThat(pool.stats()).startsWith("0 leased, 0 pending, 0 available, " + (EndpointConnectionPool.DEFAULT_MAX_CONNECTIONS + 2) + " max.");
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    void test_evicted_pool_is_closed_once_no_client_uses_it() throws Exception {
+        HttpHost host = new HttpHost("https", "evicted.example.com", 443);
+        HttpRoute route = new HttpRoute(host);
+        EndpointConnectionPool pool = EndpointConnectionPool.get(host, 5, p -> {});
+        CloseableHttpClient client = mock(CloseableHttpClient.class);
+        HttpClientRegistry.Lease lease = HttpClientRegistry.acquire(new HttpClientRegistry.Key(getClass(), host, null, null), () -> client);
+
+        EndpointConnectionPool.evict(host);
+        assertThat(EndpointConnectionPool.find(host)).isNull();
+        // still used by the leased client
+        pool.lease("in use", route, Timeout.ofSeconds(1), null).cancel();
+        verify(client, never()).close();
+
+        lease.release();
+        verify(client).close();
+        EndpointConnectionPool.closeEvicted();
+        assertThatThrownBy(() -> pool.lease("closed", route, Timeout.ofSeconds(1), null))
+            .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.client;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.HttpHost;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class HttpClientRegistryTest {
+
+    @Test
+    void test_same_key_share_the_client() throws Exception {
+        HttpClientRegistry.Key key = new HttpClientRegistry.Key(getClass(), new HttpHost("https", "shared.example.com"), "creds", null);
+        CloseableHttpClient client = mock(CloseableHttpClient.class);
+
+        HttpClientRegistry.Lease lease1 = HttpClientRegistry.acquire(key, () -> client);
+        HttpClientRegistry.Lease lease2 = HttpClientRegistry.acquire(key, () -> mock(CloseableHttpClient.class));
+        HttpClientRegistry.Lease other = HttpClientRegistry.acquire(
+                new HttpClientRegistry.Key(getClass(), new HttpHost("https", "shared.example.com"), "other", null),
+                () -> mock(CloseableHttpClient.class));
+        try {
+            assertThat(lease1.getClient()).isSameAs(client);
+            assertThat(lease2.getClient()).isSameAs(client);
+            assertThat(other.getClient()).isNotSameAs(client);
+        } finally {
+            lease1.release();
+            lease2.release();
+            other.release();
+        }
+    }
+
+    @Test
+    void test_idle_client_is_closed() throws Exception {
+        HttpClientRegistry.Key key = new HttpClientRegistry.Key(getClass(), new HttpHost("https", "idle.example.com"), null, null);
+        CloseableHttpClient client = mock(CloseableHttpClient.class);
+
+        HttpClientRegistry.Lease lease1 = HttpClientRegistry.acquire(key, () -> client);
+        HttpClientRegistry.Lease lease2 = HttpClientRegistry.acquire(key, () -> client);
+        lease1.release();
+        lease1.release(); // only the first release counts
+        HttpClientRegistry.closeIdle(System.nanoTime() + TimeUnit.DAYS.toNanos(1));
+        verify(client, never()).close();
+
+        lease2.release();
+        HttpClientRegistry.closeIdle(System.nanoTime() + TimeUnit.DAYS.toNanos(1));
+        verify(client).close();
+
+        CloseableHttpClient newClient = mock(CloseableHttpClient.class);
+        HttpClientRegistry.Lease lease3 = HttpClientRegistry.acquire(key, () -> newClient);
+        assertThat(lease3.getClient()).isSameAs(newClient);
+        lease3.release();
+    }
+
+    @Test
+    void test_client_is_built_outside_of_the_lock() throws Exception {
+        HttpClientRegistry.Key key = new HttpClientRegistry.Key(getClass(), new HttpHost("https", "build.example.com"), null, null);
+        CloseableHttpClient slow = mock(CloseableHttpClient.class);
+        CloseableHttpClient fast = mock(CloseableHttpClient.class);
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch built = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<HttpClientRegistry.Lease> first = executor.submit(() -> HttpClientRegistry.acquire(key, () -> {
+                building.countDown();
+                try {
+                    built.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return slow;
+            }));
+            assertThat(building.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // does not wait for the client being built
+            HttpClientRegistry.Lease second = executor.submit(() -> HttpClientRegistry.acquire(key, () -> fast))
+                    .get(5, TimeUnit.SECONDS);
+            built.countDown();
+            HttpClientRegistry.Lease lease = first.get(5, TimeUnit.SECONDS);
+
+            assertThat(second.getClient()).isSameAs(fast);
+            assertThat(lease.getClient()).isSameAs(fast);
+            verify(slow).close();
+            verify(fast, never()).close();
+            lease.release();
+            second.release();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.client;
+
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    @Test
+    void test_requests_not_paced_below_the_limit() throws Exception {
+        RateLimiter limiter = new RateLimiter("test");
+        BasicHttpResponse response = new BasicHttpResponse(HttpStatus.SC_OK);
+        response.addHeader("X-RateLimit-Limit", "1000");
+        response.addHeader("X-RateLimit-NearLimit", "false");
+        limiter.update(response);
+
+        limiter.acquire();
+        assertThat(limiter.getBudget()).isEqualTo(-1);
+        assertThat(limiter.getThrottledTime()).isZero();
+    }
+
+    @Test
+    void test_requests_paced_near_the_limit() throws Exception {
+        RateLimiter limiter = new RateLimiter("test");
+        BasicHttpResponse response = new BasicHttpResponse(HttpStatus.SC_OK);
+        response.addHeader("X-RateLimit-Limit", "2000");
+        response.addHeader("X-RateLimit-NearLimit", "true");
+        limiter.update(response);
+
+        assertThat(limiter.getBudget()).isEqualTo(100);
+        limiter.acquire();
+        assertThat(limiter.getBudget()).isEqualTo(99);
+    }
+
+    @Test
+    void test_requests_wait_after_too_many_requests() throws Exception {
+        RateLimiter limiter = new RateLimiter("test");
+        BasicHttpResponse response = new BasicHttpResponse(HttpStatus.SC_TOO_MANY_REQUESTS);
+        response.addHeader("X-RateLimit-Limit", "36000");
+        response.addHeader("Retry-After", "1");
+        limiter.update(response);
+
+        long start = System.nanoTime();
+        limiter.acquire();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(900_000_000L);
+        assertThat(limiter.getThrottledTime()).isGreaterThanOrEqualTo(900L);
+        assertThat(limiter.toString()).contains("1 requests throttled", "1 rate limited responses");
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void test_concurrent_calls_share_one_request() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch respond = new CountDownLatch(1);
+        AtomicInteger requests = new AtomicInteger();
+        RequestCoalescer.Request<String> request = reader -> {
+            requests.incrementAndGet();
+            inFlight.countDown();
+            try {
+                respond.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return reader.read(new ByteArrayInputStream("body".getBytes(StandardCharsets.UTF_8)));
+        };
+
+        Future<String> first = executor.submit(() -> coalescer.execute("key", RequestCoalescerTest::read, request));
+        assertThat(inFlight.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> second = executor.submit(() -> coalescer.execute("key", RequestCoalescerTest::read, request));
+        while (coalescer.getAbsorbedCount() == 0) {
+            Thread.sleep(10);
+        }
+        respond.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("body");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("body");
+        assertThat(requests).hasValue(1);
+        assertThat(coalescer.getFlightCount()).isEqualTo(1);
+        assertThat(coalescer.stats()).isEqualTo("1 requests, 1 calls absorbed, at most 1 by one request.");
+
+        // the next call sends a new request
+        coalescer.execute("key", RequestCoalescerTest::read, request);
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void test_body_is_streamed_when_no_caller_joined() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        InputStream content = new ByteArrayInputStream("body".getBytes(StandardCharsets.UTF_8));
+
+        InputStream read = coalescer.execute("key", body -> body, reader -> reader.read(content));
+
+        assertThat(read).isSameAs(content);
+    }
+
+    @Test
+    void test_caller_arriving_while_the_body_is_read_sends_its_own_request() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicInteger requests = new AtomicInteger();
+
+        Future<String> first = executor.submit(() -> coalescer.execute("key", body -> {
+            reading.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return read(body);
+        }, reader -> {
+            requests.incrementAndGet();
+            return reader.read(new ByteArrayInputStream("first".getBytes(StandardCharsets.UTF_8)));
+        }));
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+        String second = coalescer.execute("key", RequestCoalescerTest::read, reader -> {
+            requests.incrementAndGet();
+            return reader.read(new ByteArrayInputStream("second".getBytes(StandardCharsets.UTF_8)));
+        });
+        done.countDown();
+
+        assertThat(second).isEqualTo("second");
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(requests).hasValue(2);
+        assertThat(coalescer.getAbsorbedCount()).isZero();
+    }
+
+    @Test
+    void test_failure_is_not_kept() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        assertThatThrownBy(() -> coalescer.execute("key", RequestCoalescerTest::read, reader -> {
+            throw new FileNotFoundException("URL: key");
+        })).isInstanceOf(FileNotFoundException.class);
+
+        assertThat(coalescer.execute("key", RequestCoalescerTest::read, reader -> null)).isNull();
+        assertThat(coalescer.getFlightCount()).isEqualTo(2);
+    }
+
+    private static String read(InputStream content) throws IOException {
+        return new String(content.readAllBytes(), StandardCharsets.UTF_8);
+    }
+}
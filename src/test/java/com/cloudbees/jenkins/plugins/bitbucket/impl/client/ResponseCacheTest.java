@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.client;
+
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
+import com.cloudbees.jenkins.plugins.bitbucket.server.BitbucketServerWebhookImplementation;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.BitbucketServerAPIClient;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.junit.jupiter.MockServerExtension;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.verify.VerificationTimes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+@ExtendWith(MockServerExtension.class)
+class ResponseCacheTest {
+
+    @Test
+    void test_least_recently_used_evicted() throws Exception {
+        ResponseCache cache = new ResponseCache(100, 0);
+        cache.store("a", new ResponseCache.Entry("\"1\"", null, new byte[10]));
+        cache.store("b", new ResponseCache.Entry("\"2\"", null, new byte[10]));
+        assertThat(cache.lookup("a")).isNotNull();
+        for (int i = 0; i < 9; i++) {
+            cache.store("c" + i, new ResponseCache.Entry("\"3\"", null, new byte[10]));
+        }
+
+        assertThat(cache.lookup("b")).isNull();
+        assertThat(cache.lookup("a")).isNotNull();
+        assertThat(cache.lookup("a").getEtag()).isEqualTo("\"1\"");
+    }
+
+    @Test
+    void test_not_modified_response_reuses_cached_content(ClientAndServer mockServer) throws Exception {
+        String payload;
+        try (InputStream is = getClass().getResourceAsStream("/com/cloudbees/jenkins/plugins/bitbucket/server/payload/1.0-projects-amuniz-repos-test-repos-tags_start_0_limit_200.json")) {
+            payload = IOUtils.toString(is, StandardCharsets.UTF_8);
+        }
+        HttpRequest tags = request()
+                .withMethod("GET")
+                .withPath("/rest/api/1.0/projects/amuniz/repos/test-repos/tags");
+        mockServer.when(tags.clone().withHeader("If-None-Match", "\"v1\""))
+                .respond(response().withStatusCode(304));
+        mockServer.when(tags)
+                .respond(response()
+                        .withStatusCode(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("ETag", "\"v1\"")
+                        .withBody(payload));
+
+        try (BitbucketServerAPIClient client = new BitbucketServerAPIClient("http://localhost:" + mockServer.getPort(),
+                "amuniz",
+                "test-repos",
+                (BitbucketAuthenticator) null,
+                false,
+                mock(BitbucketServerWebhookImplementation.class))) {
+            assertThat(client.getTags()).hasSize(4);
+            assertThat(client.getTags()).hasSize(4);
+        }
+
+        mockServer.verify(tags.clone().withHeader("If-None-Match", "\"v1\""), VerificationTimes.once());
+    }
+}
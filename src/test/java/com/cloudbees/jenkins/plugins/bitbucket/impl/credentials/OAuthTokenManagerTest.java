@@ -0,0 +1,154 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.credentials;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OAuthTokenManagerTest {
+
+    private static final int THREADS = 8;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger requests = new AtomicInteger();
+    private CountDownLatch release;
+    private ExecutorService executor;
+    private OAuthTokenManager sut;
+
+    @BeforeEach
+    void setup() {
+        release = new CountDownLatch(0);
+        executor = Executors.newFixedThreadPool(THREADS);
+        sut = new OAuthTokenManager(() -> {
+            release.await(10, TimeUnit.SECONDS);
+            return new OAuthTokenManager.Token("token-" + requests.incrementAndGet(), 600);
+        }, clock::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrent_requests_of_the_first_token_share_one_token_request() throws Exception {
+        release = new CountDownLatch(1);
+        List<Future<String>> tokens = submitAll(sut::getAccessToken);
+        release.countDown();
+
+        for (Future<String> token : tokens) {
+            assertThat(token.get(10, TimeUnit.SECONDS)).isEqualTo("token-1");
+        }
+        assertThat(requests).hasValue(1);
+    }
+
+    @Test
+    void token_is_served_until_refresh_time() throws Exception {
+        assertThat(sut.getAccessToken()).isEqualTo("token-1");
+
+        clock.set(TimeUnit.SECONDS.toNanos(299));
+        assertThat(sut.getAccessToken()).isEqualTo("token-1");
+        assertThat(requests).hasValue(1);
+    }
+
+    @Test
+    void token_is_refreshed_in_background_before_expiry() throws Exception {
+        assertThat(sut.getAccessToken()).isEqualTo("token-1");
+
+        release = new CountDownLatch(1);
+        clock.set(TimeUnit.SECONDS.toNanos(400));
+        // still valid, served while the new token is requested
+        assertThat(sut.getAccessToken()).isEqualTo("token-1");
+        assertThat(sut.getAccessToken()).isEqualTo("token-1");
+
+        release.countDown();
+        clock.set(TimeUnit.SECONDS.toNanos(601));
+        // expired, waits the running refresh
+        assertThat(sut.getAccessToken()).isEqualTo("token-2");
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void concurrent_invalidations_of_the_same_token_share_one_token_request() throws Exception {
+        assertThat(sut.getAccessToken()).isEqualTo("token-1");
+
+        release = new CountDownLatch(1);
+        List<Future<Boolean>> results = submitAll(() -> sut.invalidate("token-1"));
+        release.countDown();
+
+        for (Future<Boolean> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(sut.getAccessToken()).isEqualTo("token-2");
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void invalidation_of_a_replaced_token_does_not_request_a_new_one() throws Exception {
+        assertThat(sut.getAccessToken()).isEqualTo("token-1");
+        assertThat(sut.invalidate("token-1")).isTrue();
+
+        assertThat(sut.invalidate("token-1")).isTrue();
+        assertThat(sut.getAccessToken()).isEqualTo("token-2");
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void credentials_with_the_same_id_and_different_secrets_do_not_share_tokens() throws Exception {
+        Map<String, AtomicInteger> requestsBySecret = new ConcurrentHashMap<>();
+        for (int i = 0; i < 3; i++) {
+            for (String secret : List.of("secret-1", "secret-2")) {
+                OAuthTokenManager manager = OAuthTokenManager.get("same-id", "client", OAuthTokenManager.fingerprint(secret), () ->
+                    new OAuthTokenManager.Token(secret + "-token-" + requestsBySecret.computeIfAbsent(secret, k -> new AtomicInteger()).incrementAndGet(), 600));
+                assertThat(manager.getAccessToken()).isEqualTo(secret + "-token-1");
+            }
+        }
+        assertThat(requestsBySecret).hasSize(2);
+        assertThat(requestsBySecret.get("secret-1")).hasValue(1);
+        assertThat(requestsBySecret.get("secret-2")).hasValue(1);
+    }
+
+    private <T> List<Future<T>> submitAll(Callable<T> task) {
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(task));
+        }
+        return futures;
+    }
+}
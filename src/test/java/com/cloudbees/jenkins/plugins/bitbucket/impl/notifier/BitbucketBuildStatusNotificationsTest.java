@@ -118,6 +118,7 @@ class BitbucketBuildStatusNotificationsTest {
         BitbucketBranch branch = mock(BitbucketBranch.class);
         List<? extends BitbucketBranch> branchList = Collections.singletonList(branch);
         when(api.getBranches()).thenAnswer(new Returns(branchList));
+        when(api.iterateBranches()).thenCallRealMethod();
         when(api.getBranch("master")).thenAnswer(new Returns(branch));
         when(branch.getName()).thenReturn(branchName);
         when(branch.getRawNode()).thenReturn(sampleRepo.head());
@@ -0,0 +1,81 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.util;
+
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
+import com.cloudbees.plugins.credentials.CredentialsProvider;
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.cloudbees.plugins.credentials.CredentialsStore;
+import com.cloudbees.plugins.credentials.domains.Domain;
+import com.cloudbees.plugins.credentials.impl.UsernamePasswordCredentialsImpl;
+import org.jenkinsci.plugins.workflow.multibranch.WorkflowMultiBranchProject;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@WithJenkins
+class BitbucketCredentialsTest {
+
+    private static final String SERVER_URL = "https://bitbucket.server";
+
+    private static JenkinsRule r;
+
+    @BeforeAll
+    static void init(JenkinsRule rule) {
+        r = rule;
+    }
+
+    @Test
+    void verify_authenticator_is_reused_until_credentials_change() throws Exception {
+        WorkflowMultiBranchProject project = r.jenkins.createProject(WorkflowMultiBranchProject.class, "reused");
+        CredentialsStore store = CredentialsProvider.lookupStores(r.jenkins).iterator().next();
+        UsernamePasswordCredentialsImpl credentials = new UsernamePasswordCredentialsImpl(CredentialsScope.GLOBAL, "reused-id", null, "user", "password");
+        store.addCredentials(Domain.global(), credentials);
+
+        BitbucketAuthenticator authenticator = BitbucketCredentials.lookupAuthenticator(SERVER_URL, project, "reused-id");
+        assertThat(authenticator).isNotNull();
+        assertThat(authenticator.getId()).isEqualTo("reused-id");
+        assertThat(BitbucketCredentials.lookupAuthenticator(SERVER_URL, project, "reused-id")).isSameAs(authenticator);
+
+        store.updateCredentials(Domain.global(), credentials,
+                new UsernamePasswordCredentialsImpl(CredentialsScope.GLOBAL, "reused-id", null, "user", "new-password"));
+        assertThat(BitbucketCredentials.lookupAuthenticator(SERVER_URL, project, "reused-id")).isNotSameAs(authenticator);
+        assertThat(BitbucketCredentials.lookupCredentials(SERVER_URL, project, "reused-id", UsernamePasswordCredentialsImpl.class))
+            .extracting(c -> c.getPassword().getPlainText())
+            .isEqualTo("new-password");
+    }
+
+    @Test
+    void verify_added_credentials_are_found() throws Exception {
+        WorkflowMultiBranchProject project = r.jenkins.createProject(WorkflowMultiBranchProject.class, "added");
+        assertThat(BitbucketCredentials.lookupAuthenticator(SERVER_URL, project, "added-id")).isNull();
+
+        CredentialsProvider.lookupStores(r.jenkins).iterator().next()
+            .addCredentials(Domain.global(), new UsernamePasswordCredentialsImpl(CredentialsScope.GLOBAL, "added-id", null, "user", "password"));
+        assertThat(BitbucketCredentials.lookupAuthenticator(SERVER_URL, project, "added-id")).isNotNull();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.util;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CommitPathCacheTest {
+
+    private static final String HASH = "e851558f77c098d21af6bb8cc54a423f7cf12147";
+    private static final String SERVER_URL = "https://bitbucket.org";
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CommitPathCache.Counter counter = new CommitPathCache.Counter();
+
+    @BeforeEach
+    void setup() {
+        CommitPathCache.clearCache();
+    }
+
+    @Test
+    void same_path_of_same_commit_is_probed_once() throws Exception {
+        assertThat(exists("amuniz/test-repos", HASH, "Jenkinsfile", true)).isTrue();
+        assertThat(exists("amuniz/test-repos", HASH, "Jenkinsfile", true)).isTrue();
+        assertThat(exists("amuniz/test-repos", HASH, "Jenkinsfile", true)).isTrue();
+
+        assertThat(requests).hasValue(1);
+        assertThat(counter.misses()).isEqualTo(1);
+        assertThat(counter.hits()).isEqualTo(2);
+    }
+
+    @Test
+    void missing_paths_are_remembered() throws Exception {
+        assertThat(exists("amuniz/test-repos", HASH, "Jenkinsfile", false)).isFalse();
+        assertThat(exists("amuniz/test-repos", HASH, "Jenkinsfile", true)).isFalse();
+
+        assertThat(requests).hasValue(1);
+        assertThat(counter.hits()).isEqualTo(1);
+    }
+
+    @Test
+    void answers_are_kept_by_repository_commit_and_path() throws Exception {
+        exists("amuniz/test-repos", HASH, "Jenkinsfile", true);
+        exists("amuniz/other-repos", HASH, "Jenkinsfile", true);
+        exists("amuniz/test-repos", "52fc8e220d77ec400f7fc96a91d2fd0bb1bc553a", "Jenkinsfile", true);
+        exists("amuniz/test-repos", HASH, "markerfile.txt", true);
+
+        assertThat(requests).hasValue(4);
+        assertThat(counter.hits()).isZero();
+    }
+
+    @Test
+    void answers_are_kept_by_server_and_credentials() throws Exception {
+        exists(SERVER_URL, "creds", "amuniz/test-repos", HASH, "Jenkinsfile");
+        exists("https://bitbucket.example.com", "creds", "amuniz/test-repos", HASH, "Jenkinsfile");
+        exists(SERVER_URL, "other-creds", "amuniz/test-repos", HASH, "Jenkinsfile");
+        exists(SERVER_URL, null, "amuniz/test-repos", HASH, "Jenkinsfile");
+        exists(SERVER_URL, "creds", "amuniz/test-repos", HASH, "Jenkinsfile");
+
+        assertThat(requests).hasValue(4);
+        assertThat(counter.hits()).isEqualTo(1);
+    }
+
+    @Test
+    void failed_probes_are_not_remembered() throws Exception {
+        assertThatThrownBy(() -> CommitPathCache.exists(SERVER_URL, "creds", "amuniz/test-repos", HASH, "Jenkinsfile", counter, () -> {
+            requests.incrementAndGet();
+            throw new IOException("Bitbucket is down");
+        })).isInstanceOf(IOException.class).hasMessage("Bitbucket is down");
+
+        assertThat(exists("amuniz/test-repos", HASH, "Jenkinsfile", true)).isTrue();
+        assertThat(requests).hasValue(2);
+    }
+
+    private boolean exists(String repository, String hash, String path, boolean answer) throws Exception {
+        return CommitPathCache.exists(SERVER_URL, "creds", repository, hash, path, counter, () -> {
+            requests.incrementAndGet();
+            return answer;
+        });
+    }
+
+    private boolean exists(String serverUrl, String credentialsId, String repository, String hash, String path) throws Exception {
+        return CommitPathCache.exists(serverUrl, credentialsId, repository, hash, path, counter, () -> {
+            requests.incrementAndGet();
+            return true;
+        });
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.impl.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PagedIterableTest {
+
+    private final AtomicInteger cursors = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final PagedIterable<String> sut = new PagedIterable<>(() -> {
+        cursors.incrementAndGet();
+        Iterator<List<String>> pages = List.of(List.of("a", "b"), List.of("c")).iterator();
+        return () -> {
+            requests.incrementAndGet();
+            return pages.hasNext() ? new ArrayList<>(pages.next()) : null;
+        };
+    });
+
+    @Test
+    void pages_are_requested_once_when_iterated_twice() {
+        assertThat(sut).containsExactly("a", "b", "c");
+        assertThat(sut).containsExactly("a", "b", "c");
+
+        assertThat(cursors).hasValue(1);
+        // two pages and the end of the listing
+        assertThat(requests).hasValue(3);
+    }
+
+    @Test
+    void later_iteration_only_requests_the_pages_not_reached_yet() throws Exception {
+        Iterator<String> first = sut.iterator();
+        assertThat(first.next()).isEqualTo("a");
+        assertThat(requests).hasValue(1);
+
+        assertThat(sut.toList()).containsExactly("a", "b", "c");
+        assertThat(requests).hasValue(3);
+
+        assertThat(first.next()).isEqualTo("b");
+        assertThat(first.next()).isEqualTo("c");
+        assertThat(first.hasNext()).isFalse();
+        assertThat(requests).hasValue(3);
+    }
+
+    @Test
+    void nothing_is_requested_until_iterated() {
+        sut.iterator();
+
+        assertThat(cursors).hasValue(0);
+        assertThat(requests).hasValue(0);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, Nikolas Falco
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.cloudbees.jenkins.plugins.bitbucket.server.client;
+
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketRequestException;
+import com.cloudbees.jenkins.plugins.bitbucket.server.BitbucketServerWebhookImplementation;
+import com.cloudbees.jenkins.plugins.bitbucket.server.client.branch.BitbucketServerBranch;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.junit.jupiter.MockServerExtension;
+import org.mockserver.model.ClearType;
+import org.mockserver.model.Delay;
+import org.mockserver.verify.VerificationTimes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+@ExtendWith(MockServerExtension.class)
+class BitbucketServerAPIClientPagingTest {
+
+    private static final String BRANCHES_PATH = "/rest/api/1.0/projects/test/repos/testRepos/branches";
+    private static final int PAGES = 8;
+    private static final int PAGE_SIZE = 2;
+    private static final long PAGE_DELAY = 200;
+
+    private ClientAndServer mockServer;
+
+    @BeforeEach
+    void setup(ClientAndServer mockServer) {
+        this.mockServer = mockServer;
+        mockServer.reset();
+        for (int page = 0; page < PAGES; page++) {
+            int start = page * PAGE_SIZE;
+            mockServer.when(request() //
+                    .withMethod("GET") //
+                    .withPath(BRANCHES_PATH) //
+                    .withQueryStringParameter("start", String.valueOf(start)))
+                .respond(response() //
+                    .withStatusCode(200) //
+                    .withHeader("Content-Type", "application/json") //
+                    .withDelay(new Delay(TimeUnit.MILLISECONDS, PAGE_DELAY)) //
+                    .withBody(page(start, page == PAGES - 1)));
+        }
+    }
+
+    @Test
+    void verify_pages_are_fetched_concurrently_in_order() throws Exception {
+        PageRequests sequential = fetchBranches(1);
+        PageRequests concurrent = fetchBranches(4);
+
+        assertThat(sequential.maxInFlight).hasValue(1);
+        assertThat(sequential.count).hasValue(PAGES);
+        // the first page alone, then batches of four pages, the last batch requests a page after the last one
+        assertThat(concurrent.maxInFlight).hasValueGreaterThan(1).hasValueLessThanOrEqualTo(4);
+        assertThat(concurrent.count).hasValue(PAGES + 1);
+    }
+
+    @Test
+    void verify_concurrent_fetch_stops_at_last_page() throws Exception {
+        // the first page alone, then one batch with all the other pages
+        PageRequests requests = fetchBranches(PAGES - 1);
+
+        assertThat(requests.count).hasValue(PAGES);
+        mockServer.verify(request().withPath(BRANCHES_PATH), VerificationTimes.exactly(PAGES));
+    }
+
+    @Test
+    void verify_branches_are_fetched_while_iterating() throws Exception {
+        try (BitbucketServerAPIClient client = newClient()) {
+            Iterator<BitbucketServerBranch> branches = client.iterateBranches().iterator();
+            assertThat(branches.next().getName()).isEqualTo("branch-0");
+            assertThat(branches.next().getName()).isEqualTo("branch-1");
+
+            mockServer.verify(request().withPath(BRANCHES_PATH), VerificationTimes.once());
+
+            assertThat(branches.next().getName()).isEqualTo("branch-2");
+            mockServer.verify(request().withPath(BRANCHES_PATH).withQueryStringParameter("start", "2"), VerificationTimes.once());
+        }
+    }
+
+    @Test
+    void verify_error_content_is_reported() throws Exception {
+        mockServer.reset();
+        mockServer.when(request().withPath(BRANCHES_PATH))
+            .respond(response() //
+                .withStatusCode(400) //
+                .withBody("{\"errors\":[{\"message\":\"Repository testRepos does not exist.\"}]}"));
+
+        try (BitbucketServerAPIClient client = newClient()) {
+            assertThatThrownBy(client::getBranches)
+                .isInstanceOf(BitbucketRequestException.class)
+                .hasMessageContaining("Repository testRepos does not exist.");
+        }
+    }
+
+    private BitbucketServerAPIClient newClient() {
+        return new BitbucketServerAPIClient("http://localhost:" + mockServer.getPort(),
+                "test",
+                "testRepos",
+                (BitbucketAuthenticator) null,
+                false,
+                mock(BitbucketServerWebhookImplementation.class));
+    }
+
+    private PageRequests fetchBranches(int concurrentPageRequests) throws Exception {
+        mockServer.clear(request().withPath(BRANCHES_PATH), ClearType.LOG);
+        PageRequests requests = new PageRequests();
+        try (BitbucketServerAPIClient client = new BitbucketServerAPIClient("http://localhost:" + mockServer.getPort(),
+                "test",
+                "testRepos",
+                (BitbucketAuthenticator) null,
+                false,
+                mock(BitbucketServerWebhookImplementation.class)) {
+            @Override
+            protected <T> T getRequest(String path, Class<T> type) throws IOException {
+                requests.count.incrementAndGet();
+                requests.maxInFlight.accumulateAndGet(requests.inFlight.incrementAndGet(), Math::max);
+                try {
+                    return super.getRequest(path, type);
+                } finally {
+                    requests.inFlight.decrementAndGet();
+                }
+            }
+        }) {
+            client.setConcurrentPageRequests(concurrentPageRequests);
+
+            List<BitbucketServerBranch> branches = client.getBranches();
+
+            assertThat(branches).extracting(BitbucketServerBranch::getName)
+                .containsExactlyElementsOf(IntStream.range(0, PAGES * PAGE_SIZE)
+                        .mapToObj(i -> "branch-" + i)
+                        .collect(Collectors.toList()));
+            return requests;
+        }
+    }
+
+    private static final class PageRequests {
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+    }
+
+    private static String page(int start, boolean lastPage) {
+        String values = IntStream.range(start, start + PAGE_SIZE)
+                .mapToObj(i -> "{\"id\":\"refs/heads/branch-" + i + "\",\"displayId\":\"branch-" + i
+                        + "\",\"latestCommit\":\"" + String.format("%040d", i) + "\"}")
+                .collect(Collectors.joining(","));
+        return "{\"size\":" + PAGE_SIZE + ",\"limit\":" + PAGE_SIZE + ",\"start\":" + start
+                + ",\"isLastPage\":" + lastPage
+                + (lastPage ? "" : ",\"nextPageStart\":" + (start + PAGE_SIZE))
+                + ",\"values\":[" + values + "]}";
+    }
+}
@@ -27,11 +27,13 @@ import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketApi;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketAuthenticator;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketBuildStatus;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketBuildStatus.Status;
+import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketCommit;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketRepository;
 import com.cloudbees.jenkins.plugins.bitbucket.client.BitbucketIntegrationClientFactory;
 import com.cloudbees.jenkins.plugins.bitbucket.client.BitbucketIntegrationClientFactory.BitbucketServerIntegrationClient;
 import com.cloudbees.jenkins.plugins.bitbucket.client.BitbucketIntegrationClientFactory.IAuditable;
 import com.cloudbees.jenkins.plugins.bitbucket.client.BitbucketIntegrationClientFactory.IRequestAudit;
+import com.cloudbees.jenkins.plugins.bitbucket.filesystem.BitbucketSCMFile;
 import com.cloudbees.jenkins.plugins.bitbucket.server.BitbucketServerWebhookImplementation;
 import hudson.ProxyConfiguration;
 import io.jenkins.cli.shaded.org.apache.commons.lang.RandomStringUtils;
@@ -39,6 +41,7 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
+import jenkins.scm.api.SCMFile;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
@@ -59,6 +62,7 @@ import org.mockito.MockedStatic;
 
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
@@ -248,6 +252,33 @@ class BitbucketServerAPIClientTest {
                     .hasPath("/rest/api/1.0/projects/amuniz/repos/test-repos/tags/v0.0.0"));
     }
 
+    @Test
+    void verify_resolveCommit_is_shared_between_clients() throws Exception {
+        String serverURL = "https://cache.bitbucket.org";
+        String hash = "046d9a3c1532acf4cf08fe93235c00e4d673c1d2";
+        BitbucketApi client = BitbucketIntegrationClientFactory.getClient(serverURL, "amuniz", "test-repos");
+        BitbucketCommit commit = client.resolveCommit(hash);
+        assertThat(commit.getHash()).isEqualTo(hash);
+
+        BitbucketApi otherClient = BitbucketIntegrationClientFactory.getClient(serverURL, "amuniz", "test-repos");
+        assertThat(otherClient.resolveCommit(hash)).isSameAs(commit);
+        verify(((IAuditable) otherClient).getAudit(), never()).request(any(HttpRequest.class));
+    }
+
+    @Test
+    void verify_getDirectoryContent_collects_all_pages() throws Exception {
+        BitbucketApi client = BitbucketIntegrationClientFactory.getClient("localhost", "amuniz", "test-repos");
+        String hash = "046d9a3c1532acf4cf08fe93235c00e4d673c1d2";
+        BitbucketSCMFile root = new BitbucketSCMFile(client, "master", hash);
+        BitbucketSCMFile folder = new BitbucketSCMFile(root, "folder", SCMFile.Type.DIRECTORY, hash);
+
+        Iterable<SCMFile> files = client.getDirectoryContent(folder);
+        assertThat(files).extracting(SCMFile::getName, SCMFile::getType).containsExactly(
+                tuple("Jenkinsfile", SCMFile.Type.REGULAR_FILE),
+                tuple("scripts", SCMFile.Type.DIRECTORY),
+                tuple("README.md", SCMFile.Type.REGULAR_FILE));
+    }
+
     @Issue("JENKINS-75119")
     @Test
     void verify_HttpHost_built_when_server_has_context_root() throws Exception {
@@ -34,6 +34,7 @@ import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketCommit;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketHref;
 import com.cloudbees.jenkins.plugins.bitbucket.api.BitbucketRepository;
 import com.cloudbees.jenkins.plugins.bitbucket.endpoints.BitbucketCloudEndpoint;
+import com.cloudbees.jenkins.plugins.bitbucket.impl.util.CommitPathCache;
 import hudson.model.Result;
 import hudson.model.TopLevelItem;
 import java.io.IOException;
@@ -97,6 +98,7 @@ public class ScanningFailuresTest {
             i.delete();
         }
         BitbucketMockApiFactory.clear();
+        CommitPathCache.clearCache();
         message = "We gonna Boom Boom Boom 'til the break of Boom. " + Long.toHexString(entropy.nextLong()) +
             " Who's the Boom King? Who? I'm the Boom King!" ;
     }
@@ -135,6 +137,7 @@ public class ScanningFailuresTest {
         BitbucketBranch branch = Mockito.mock(BitbucketBranch.class);
         List<? extends BitbucketBranch> branchList = Collections.singletonList(branch);
         when(api.getBranches()).thenAnswer(new Returns(branchList));
+        when(api.iterateBranches()).thenCallRealMethod();
         when(branch.getName()).thenReturn("main");
         when(branch.getRawNode()).thenReturn(sampleRepo.head());
 
@@ -175,6 +178,8 @@ public class ScanningFailuresTest {
 
         when(api.getBranches()).thenThrow(exception.call());
 
+        when(api.iterateBranches()).thenCallRealMethod();
+
         if (Result.NOT_BUILT.equals(expectedResult) || Result.ABORTED.equals(expectedResult)) {
             // when not built or aborted the future will never complete and the log may not contain the exception stack trace
             mp.scheduleBuild2(0);
@@ -203,6 +208,7 @@ public class ScanningFailuresTest {
         BitbucketBranch branch = Mockito.mock(BitbucketBranch.class);
         List<? extends BitbucketBranch> branchList = Collections.singletonList(branch);
         when(api.getBranches()).thenAnswer(new Returns(branchList));
+        when(api.iterateBranches()).thenCallRealMethod();
         when(branch.getName()).thenReturn("main");
         when(branch.getRawNode()).thenReturn(sampleRepo.head());
 
@@ -241,6 +247,8 @@ public class ScanningFailuresTest {
 
         // an error in checkPathExists(...)
         when(api.checkPathExists(Mockito.anyString(), eq("Jenkinsfile"))).thenThrow(new IOException(message));
+        // otherwise the answer of the first scan for the same commit is reused
+        CommitPathCache.clearCache();
 
         mp.scheduleBuild2(0).getFuture().get();
         assertThat(mp.getIndexing().getResult(), is(Result.FAILURE));
@@ -263,6 +271,7 @@ public class ScanningFailuresTest {
         BitbucketBranch branch = Mockito.mock(BitbucketBranch.class);
         List<? extends BitbucketBranch> branchList = Collections.singletonList(branch);
         when(api.getBranches()).thenAnswer(new Returns(branchList));
+        when(api.iterateBranches()).thenCallRealMethod();
         when(branch.getName()).thenReturn("main");
         when(branch.getRawNode()).thenReturn(sampleRepo.head());
 
@@ -326,6 +335,7 @@ public class ScanningFailuresTest {
         BitbucketBranch branch = Mockito.mock(BitbucketBranch.class);
         List<? extends BitbucketBranch> branchList = Collections.singletonList(branch);
         when(api.getBranches()).thenAnswer(new Returns(branchList));
+        when(api.iterateBranches()).thenCallRealMethod();
         when(branch.getName()).thenReturn("main");
         when(branch.getRawNode()).thenReturn(sampleRepo.head());
 
@@ -366,6 +376,7 @@ public class ScanningFailuresTest {
 
         // the branch is actually removed
         when(api.getBranches()).thenAnswer(new Returns(Collections.emptyList()));
+        when(api.iterateBranches()).thenCallRealMethod();
 
         mp.scheduleBuild2(0).getFuture().get();
         assertThat(mp.getIndexing().getResult(), is(Result.SUCCESS));